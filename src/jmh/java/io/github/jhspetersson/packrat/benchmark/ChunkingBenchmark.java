@@ -0,0 +1,111 @@
+package io.github.jhspetersson.packrat.benchmark;
+
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+import io.github.jhspetersson.packrat.Packrat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for collection and chunking gatherers.
+ *
+ * @author jhspetersson
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChunkingBenchmark {
+    @Benchmark
+    public void increasingChunks(StreamSource source, Blackhole blackhole) {
+        source.sawtooth().gather(Packrat.increasingChunks()).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void increasingOrEqualChunks(StreamSource source, Blackhole blackhole) {
+        source.sawtooth().gather(Packrat.increasingOrEqualChunks()).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void decreasingChunks(StreamSource source, Blackhole blackhole) {
+        source.sawtooth().gather(Packrat.decreasingChunks()).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void decreasingOrEqualChunks(StreamSource source, Blackhole blackhole) {
+        source.sawtooth().gather(Packrat.decreasingOrEqualChunks()).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void equalChunks(StreamSource source, Blackhole blackhole) {
+        source.runs().gather(Packrat.equalChunks()).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void equalChunksBy(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.equalChunksBy(i -> i >> 4)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void equalChunksViewBy(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.equalChunksViewBy(i -> i >> 4)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void increasingChunksView(StreamSource source, Blackhole blackhole) {
+        source.sawtooth().gather(Packrat.increasingChunksView(Comparator.<Integer>naturalOrder())).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void batch(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.batch(100, i -> i & 0xFF, 8192)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void nCopies(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.nCopies(3)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void repeat(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.repeat(3)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void atLeast(StreamSource source, Blackhole blackhole) {
+        source.keys().gather(Packrat.atLeast(Math.max(2, source.size / StreamSource.KEY_COUNT))).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void atLeastBy(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.atLeastBy(2, i -> i >> 1)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void eagerAtLeast(StreamSource source, Blackhole blackhole) {
+        source.keys().gather(Packrat.eagerAtLeast(Math.max(2, source.size / StreamSource.KEY_COUNT))).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void eagerAtLeastBy(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.eagerAtLeastBy(2, i -> i >> 1)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void atMost(StreamSource source, Blackhole blackhole) {
+        source.keys().gather(Packrat.atMost(Math.max(2, source.size / StreamSource.KEY_COUNT))).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void atMostBy(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.atMostBy(2, i -> i >> 1)).forEach(blackhole::consume);
+    }
+}
@@ -0,0 +1,144 @@
+package io.github.jhspetersson.packrat.benchmark;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import io.github.jhspetersson.packrat.Packrat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for filtering and mapping gatherers.
+ *
+ * @author jhspetersson
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilteringBenchmark {
+    @Benchmark
+    public void distinctBy(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.distinctBy(i -> i % StreamSource.KEY_COUNT)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void distinctByMaxKeys(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.distinctBy(i -> i % StreamSource.KEY_COUNT, StreamSource.KEY_COUNT / 2)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void distinctByWithin(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.distinctByWithin(i -> i % StreamSource.KEY_COUNT, StreamSource.KEY_COUNT / 2)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void distinctByLong(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.distinctByLong(i -> i % StreamSource.KEY_COUNT)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void distinctByInt(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.distinctByInt(i -> i % StreamSource.KEY_COUNT)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void parallelDistinctBy(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.parallelDistinctBy(i -> i % StreamSource.KEY_COUNT)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void unorderedDistinctBy(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.unorderedDistinctBy(i -> i % StreamSource.KEY_COUNT)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void approximateDistinctBy(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.approximateDistinctBy(i -> i % StreamSource.KEY_COUNT, StreamSource.KEY_COUNT, 0.01)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void parallelApproximateDistinctBy(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.parallelApproximateDistinctBy(i -> i % StreamSource.KEY_COUNT, StreamSource.KEY_COUNT, 0.01)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void distinctByHandWritten(StreamSource source, Blackhole blackhole) {
+        var seen = new HashSet<Integer>();
+        for (var i = 0; i < source.size; i++) {
+            if (seen.add(i % StreamSource.KEY_COUNT)) {
+                blackhole.consume(i);
+            }
+        }
+    }
+
+    @Benchmark
+    public void distinctByStreamDistinct(StreamSource source, Blackhole blackhole) {
+        source.keys().distinct().forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void filterBy(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.filterBy(i -> i % 10, 0)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void filterByStreamFilter(StreamSource source, Blackhole blackhole) {
+        source.integers().filter(i -> Objects.equals(i % 10, 0)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void filterEntries(StreamSource source, Blackhole blackhole) {
+        source.entries().gather(Packrat.filterEntries((k, v) -> v == 0)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void removeBy(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.removeBy(i -> i % 10, 0)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void removeEntries(StreamSource source, Blackhole blackhole) {
+        source.entries().gather(Packrat.removeEntries((k, v) -> v == 0)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void removeDuplicates(StreamSource source, Blackhole blackhole) {
+        source.runs().gather(Packrat.removeDuplicates()).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void removeDuplicatesBy(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.removeDuplicatesBy(i -> i >> 4)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void flatMapIf(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.flatMapIf(i -> Stream.of(i, i), i -> i % 10 == 0)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void minBy(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.minBy(i -> -i)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void minByStreamMin(StreamSource source, Blackhole blackhole) {
+        blackhole.consume(source.integers().min(Comparator.comparing(i -> -i)));
+    }
+
+    @Benchmark
+    public void maxBy(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.maxBy(i -> -i)).forEach(blackhole::consume);
+    }
+}
@@ -0,0 +1,168 @@
+package io.github.jhspetersson.packrat.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Gatherers;
+import java.util.stream.IntStream;
+
+import io.github.jhspetersson.packrat.Packrat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for indexing, zipping and windowing gatherers,
+ * windowing is compared against the {@link Gatherers} counterparts.
+ *
+ * @author jhspetersson
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IndexingBenchmark {
+    @Param({"10", "1000"})
+    public int windowSize;
+
+    @Benchmark
+    public void zip(StreamSource source, Blackhole blackhole) {
+        var other = IntStream.range(0, source.size).boxed();
+        source.integers().gather(Packrat.zip(other, Integer::sum)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void zipWithIndex(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.zipWithIndex()).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void mapWithIndex(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.mapWithIndex((index, element) -> index + element)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void mapWithLongIndex(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.mapWithLongIndex((index, element) -> index + element)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void parallelMapWithIndex(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.parallelMapWithIndex((index, element) -> index + element)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void peekWithIndex(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.peekWithIndex((index, _) -> blackhole.consume(index))).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void filterWithIndex(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.filterWithIndex((index, _) -> index % 3 == 0)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void filterWithLongIndex(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.filterWithLongIndex((index, _) -> index % 3 == 0)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void removeWithIndex(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.removeWithIndex((index, _) -> index % 3 == 0)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void windowSlidingWithIndex(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.windowSlidingWithIndex(windowSize)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void windowSlidingWithIndexCopy(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.windowSlidingWithIndex(windowSize, (index, window) -> window.getFirst())).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void windowSlidingWithIndexStep(StreamSource source, Blackhole blackhole) {
+        var step = Math.max(1, windowSize / 10);
+        source.integers().gather(Packrat.windowSlidingWithIndex(windowSize, step, (index, window) -> window.getFirst())).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void windowSlidingViewWithIndex(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.windowSlidingViewWithIndex(windowSize, (index, window) -> window.getFirst())).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void windowSlidingIntWithIndex(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.windowSlidingIntWithIndex(windowSize, i -> i, (index, window) -> window[0])).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void windowSlidingGatherers(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Gatherers.windowSliding(windowSize)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void slidingSum(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.slidingSum(windowSize, i -> i)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void slidingSumRecomputed(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.windowSlidingViewWithIndex(windowSize, (index, window) -> {
+            var sum = 0.0;
+            for (var element : window) {
+                sum += element;
+            }
+            return sum;
+        })).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void slidingMax(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.slidingMax(windowSize, i -> i)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void windowFixedWithIndex(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.windowFixedWithIndex(windowSize)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void windowFixedIntWithIndex(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.windowFixedIntWithIndex(windowSize, i -> i, (index, window) -> window[0])).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void windowFixedGatherers(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Gatherers.windowFixed(windowSize)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void windowTumblingByTime(StreamSource source, Blackhole blackhole) {
+        var size = Duration.ofMillis(windowSize);
+        source.integers().gather(Packrat.windowTumblingByTime(i -> i, size)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void windowSlidingByTime(StreamSource source, Blackhole blackhole) {
+        var size = Duration.ofMillis(windowSize);
+        var step = Duration.ofMillis(Math.max(1, windowSize / 10));
+        source.integers().gather(Packrat.windowSlidingByTime(i -> i, size, step)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void sessionWindows(StreamSource source, Blackhole blackhole) {
+        var gap = Duration.ofMillis(windowSize);
+        source.integers().gather(Packrat.sessionWindows(i -> i % 100, i -> i, gap, 50, Packrat.SessionEviction.EMIT)).forEach(blackhole::consume);
+    }
+}
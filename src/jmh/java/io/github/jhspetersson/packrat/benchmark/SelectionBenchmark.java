@@ -0,0 +1,129 @@
+package io.github.jhspetersson.packrat.benchmark;
+
+import java.util.ArrayDeque;
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+import io.github.jhspetersson.packrat.Packrat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for element selection gatherers.
+ *
+ * @author jhspetersson
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SelectionBenchmark {
+    @Param({"10", "1000"})
+    public int n;
+
+    @Benchmark
+    public void sample(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.sample(n)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void randomFilter(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.randomFilter(0.5)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void nth(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.nth(n)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void dropNth(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.dropNth(n)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void even(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.even()).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void odd(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.odd()).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void last(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.last(n)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void lastHandWritten(StreamSource source, Blackhole blackhole) {
+        var deque = new ArrayDeque<Integer>(n);
+        for (var i = 0; i < source.size; i++) {
+            if (deque.size() == n) {
+                deque.removeFirst();
+            }
+            deque.addLast(i);
+        }
+        deque.forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void lastLinkedList(StreamSource source, Blackhole blackhole) {
+        // the former implementation of last(n), kept as a baseline for the ring buffer
+        var list = new LinkedList<Integer>();
+        for (var i = 0; i < source.size; i++) {
+            if (list.size() == n) {
+                list.removeFirst();
+            }
+            list.add(i);
+        }
+        list.forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void lastUnique(StreamSource source, Blackhole blackhole) {
+        source.keys().gather(Packrat.lastUnique(n)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void lastUniqueBy(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.lastUniqueBy(n, i -> i % StreamSource.KEY_COUNT)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void dropLast(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.dropLast(n)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void parallelDropLast(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.parallelDropLast(n)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void dropLastUnique(StreamSource source, Blackhole blackhole) {
+        source.keys().gather(Packrat.dropLastUnique(n)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void dropLastUniqueBy(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.dropLastUniqueBy(n, i -> i % StreamSource.KEY_COUNT)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void dropLastBy(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.dropLastBy(n, i -> i % StreamSource.KEY_COUNT)).forEach(blackhole::consume);
+    }
+}
@@ -0,0 +1,141 @@
+package io.github.jhspetersson.packrat.benchmark;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import io.github.jhspetersson.packrat.Packrat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for sequence gatherers and mapping with position gatherers.
+ *
+ * @author jhspetersson
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SequenceBenchmark {
+    private static final Packrat.SpillPolicy<Integer> SPILL_POLICY = new Packrat.SpillPolicy<>(10_000, new Packrat.SpillSerializer<>() {
+        @Override
+        public void write(Integer element, DataOutput output) throws IOException {
+            output.writeInt(element);
+        }
+
+        @Override
+        public Integer read(DataInput input) throws IOException {
+            return input.readInt();
+        }
+    });
+
+    @Benchmark
+    public void increasing(StreamSource source, Blackhole blackhole) {
+        source.sawtooth().gather(Packrat.increasing()).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void increasingOrEqual(StreamSource source, Blackhole blackhole) {
+        source.sawtooth().gather(Packrat.increasingOrEqual()).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void decreasing(StreamSource source, Blackhole blackhole) {
+        source.sawtooth().gather(Packrat.decreasing()).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void decreasingOrEqual(StreamSource source, Blackhole blackhole) {
+        source.sawtooth().gather(Packrat.decreasingOrEqual()).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void reverse(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.reverse()).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void reverseSpilling(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.reverse(SPILL_POLICY)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void reverseHandWritten(StreamSource source, Blackhole blackhole) {
+        var list = new ArrayList<>(source.integers().toList());
+        Collections.reverse(list);
+        list.forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void rotate(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.rotate(source.size / 3)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void rotateLeft(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.rotate(-source.size / 3)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void shuffle(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.shuffle()).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void shuffleSeeded(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.shuffle(42)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void shuffleBuffered(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.shuffleBuffered(1024)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void shuffleSpilling(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.shuffle(SPILL_POLICY)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void mapFirst(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.mapFirst(i -> -i)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void mapN(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.mapN(source.size / 2, i -> -i)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void skipAndMap(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.skipAndMap(source.size / 2, i -> -i)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void skipAndMapN(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.skipAndMapN(source.size / 4, source.size / 2, i -> -i)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void mapWhile(StreamSource source, Blackhole blackhole) {
+        var limit = source.size / 2;
+        source.integers().gather(Packrat.mapWhile(i -> -i, i -> i < limit)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void mapUntil(StreamSource source, Blackhole blackhole) {
+        var limit = source.size / 2;
+        source.integers().gather(Packrat.mapUntil(i -> -i, i -> i >= limit)).forEach(blackhole::consume);
+    }
+}
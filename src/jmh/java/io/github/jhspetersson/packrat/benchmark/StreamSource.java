@@ -0,0 +1,92 @@
+package io.github.jhspetersson.packrat.benchmark;
+
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Shared benchmark state providing freshly created source streams of the requested size,
+ * either sequential or parallel.
+ * <p>
+ * Sources are generated lazily from ranges rather than kept in memory,
+ * so the largest sizes do not skew the allocation profile of the measured gatherer.
+ *
+ * @author jhspetersson
+ */
+@State(Scope.Benchmark)
+public class StreamSource {
+    /**
+     * Number of distinct keys produced by {@link #keys()}.
+     */
+    static final int KEY_COUNT = 1024;
+
+    private static final String[] LINES = {
+            "The quick brown fox jumps over the lazy dog. ",
+            "Pack my box with five dozen liquor jugs! ",
+            "How vexingly quick daft zebras jump? ",
+            "Sphinx of black quartz, judge my vow. "
+    };
+
+    @Param({"1000", "100000", "10000000", "100000000"})
+    public int size;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    /**
+     * Returns increasing integers from 0 to {@code size - 1}.
+     */
+    public Stream<Integer> integers() {
+        return mode(IntStream.range(0, size).boxed());
+    }
+
+    /**
+     * Returns decreasing integers from {@code size - 1} to 0.
+     */
+    public Stream<Integer> descending() {
+        return mode(IntStream.range(0, size).map(i -> size - 1 - i).boxed());
+    }
+
+    /**
+     * Returns integers cycling through {@link #KEY_COUNT} distinct values.
+     */
+    public Stream<Integer> keys() {
+        return mode(IntStream.range(0, size).map(i -> i % KEY_COUNT).boxed());
+    }
+
+    /**
+     * Returns integers forming runs of equal values, each run is 16 elements long.
+     */
+    public Stream<Integer> runs() {
+        return mode(IntStream.range(0, size).map(i -> i >> 4).boxed());
+    }
+
+    /**
+     * Returns integers going up and down in a saw-tooth pattern with 16 elements per tooth.
+     */
+    public Stream<Integer> sawtooth() {
+        return mode(IntStream.range(0, size).map(i -> i & 15).boxed());
+    }
+
+    /**
+     * Returns map entries with an element as a key and its remainder as a value.
+     */
+    public Stream<Map.Entry<Integer, Integer>> entries() {
+        return mode(IntStream.range(0, size).mapToObj(i -> Map.entry(i, i % KEY_COUNT)));
+    }
+
+    /**
+     * Returns lines of English text, one line per 8 elements of {@code size}.
+     */
+    public Stream<String> text() {
+        return mode(IntStream.range(0, Math.max(1, size / 8)).mapToObj(i -> LINES[i & 3]));
+    }
+
+    private <T> Stream<T> mode(Stream<T> stream) {
+        return parallel ? stream.parallel() : stream;
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.jhspetersson.packrat.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import io.github.jhspetersson.packrat.Packrat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for text processing, utility and validation gatherers.
+ *
+ * @author jhspetersson
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UtilityBenchmark {
+    @Benchmark
+    public void chars(StreamSource source, Blackhole blackhole) {
+        source.text().gather(Packrat.chars()).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void words(StreamSource source, Blackhole blackhole) {
+        source.text().gather(Packrat.words()).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void sentences(StreamSource source, Blackhole blackhole) {
+        source.text().gather(Packrat.sentences()).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void asGatherer(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.asGatherer(Collectors.summingLong(i -> i))).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void identity(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.identity()).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void noGatherer(StreamSource source, Blackhole blackhole) {
+        source.integers().forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void throwIfNotIncreasing(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.throwIfNotIncreasing()).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void throwIfNotIncreasingOrEqual(StreamSource source, Blackhole blackhole) {
+        source.runs().gather(Packrat.throwIfNotIncreasingOrEqual()).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void throwIfNotIncreasingBy(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.throwIfNotIncreasingBy(i -> i * 2L)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void throwIfNotIncreasingOrEqualBy(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.throwIfNotIncreasingOrEqualBy(i -> i >> 4)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void throwIfNotDecreasing(StreamSource source, Blackhole blackhole) {
+        source.descending().gather(Packrat.throwIfNotDecreasing()).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void throwIfNotDecreasingOrEqual(StreamSource source, Blackhole blackhole) {
+        source.descending().gather(Packrat.throwIfNotDecreasingOrEqual()).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void throwIfNotDecreasingBy(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.throwIfNotDecreasingBy(i -> -i)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void throwIfNotDecreasingOrEqualBy(StreamSource source, Blackhole blackhole) {
+        source.integers().gather(Packrat.throwIfNotDecreasingOrEqualBy(i -> -(i >> 4))).forEach(blackhole::consume);
+    }
+}
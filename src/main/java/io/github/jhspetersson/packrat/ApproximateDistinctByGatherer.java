@@ -0,0 +1,54 @@
+package io.github.jhspetersson.packrat;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Gatherer;
+
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Returns elements with distinct values that result from a mapping by the supplied function,
+ * remembering the seen mapped values in a {@link BloomFilter}.
+ * <p>
+ * Memory is fixed by the expected number of insertions and the false positive probability.
+ * A false positive drops an element whose mapped value has not been seen before,
+ * an element with a repeated mapped value is never passed.
+ *
+ * @param <T> element type
+ * @param <U> mapped element type
+ * @author jhspetersson
+ */
+class ApproximateDistinctByGatherer<T, U> implements Gatherer<T, BloomFilter, T> {
+    private final Function<? super T, ? extends U> mapper;
+    private final ToLongFunction<? super U> hasher;
+    private final long expectedInsertions;
+    private final double fpp;
+
+    ApproximateDistinctByGatherer(@NonNull Function<? super T, ? extends U> mapper, @NonNull ToLongFunction<? super U> hasher, long expectedInsertions, double fpp) {
+        Objects.requireNonNull(mapper, "mapper cannot be null");
+        Objects.requireNonNull(hasher, "hasher cannot be null");
+        BloomFilter.wordCount(expectedInsertions, fpp);
+
+        this.mapper = mapper;
+        this.hasher = hasher;
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+    }
+
+    @Override
+    public Supplier<BloomFilter> initializer() {
+        return () -> new BloomFilter(expectedInsertions, fpp);
+    }
+
+    @Override
+    public Integrator<BloomFilter, T, T> integrator() {
+        return Integrator.ofGreedy((state, element, downstream) -> {
+            if (state.put(hasher.applyAsLong(mapper.apply(element)))) {
+                return downstream.push(element);
+            }
+            return !downstream.isRejecting();
+        });
+    }
+}
@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Gatherer;
@@ -14,6 +15,9 @@ import org.jspecify.annotations.NonNull;
 
 /**
  * Returns all occurrences of elements that appear at least <code>n</code> times in the stream.
+ * <p>
+ * Parallel splits are merged by concatenating their buffered elements and summing their counts,
+ * so the result is the same as with sequential evaluation.
  *
  * @param <T> element type
  * @param <U> mapped element type
@@ -48,6 +52,17 @@ class AtLeastGatherer<T, U> implements Gatherer<T, AtLeastGatherer.State<T, U>,
         });
     }
 
+    @Override
+    public BinaryOperator<State<T, U>> combiner() {
+        return (left, right) -> {
+            left.elements.addAll(right.elements);
+            for (var entry : right.counts.entrySet()) {
+                left.counts.computeIfAbsent(entry.getKey(), _ -> new long[1])[0] += entry.getValue()[0];
+            }
+            return left;
+        };
+    }
+
     @Override
     public BiConsumer<State<T, U>, Downstream<? super T>> finisher() {
         return (state, downstream) -> {
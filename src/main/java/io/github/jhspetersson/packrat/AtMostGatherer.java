@@ -7,6 +7,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Gatherer;
@@ -15,6 +16,9 @@ import org.jspecify.annotations.NonNull;
 
 /**
  * Returns elements that appear at most <code>n</code> times in the stream.
+ * <p>
+ * Parallel splits are merged by summing their counts and shifting the indices of the right split
+ * by the number of elements in the left one, so the result is the same as with sequential evaluation.
  *
  * @param <T> element type
  * @param <U> mapped element type
@@ -56,6 +60,28 @@ class AtMostGatherer<T, U> implements Gatherer<T, AtMostGatherer.State<T, U>, T>
         });
     }
 
+    @Override
+    public BinaryOperator<State<T, U>> combiner() {
+        return (left, right) -> {
+            var offset = left.index;
+            for (var entry : right.counts.entrySet()) {
+                var mappedValue = entry.getKey();
+                var count = left.counts.computeIfAbsent(mappedValue, _ -> new long[1]);
+                count[0] += entry.getValue()[0];
+                if (count[0] <= atMost) {
+                    var leftElements = left.elementsByKey.computeIfAbsent(mappedValue, _ -> new ArrayList<>());
+                    for (var element : right.elementsByKey.get(mappedValue)) {
+                        leftElements.add(new IndexedElement<>(element.index() + offset, element.element()));
+                    }
+                } else {
+                    left.elementsByKey.remove(mappedValue);
+                }
+            }
+            left.index += right.index;
+            return left;
+        };
+    }
+
     @Override
     public BiConsumer<State<T, U>, Downstream<? super T>> finisher() {
         return (state, downstream) -> {
@@ -0,0 +1,99 @@
+package io.github.jhspetersson.packrat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Gatherer;
+
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Returns batches of elements limited both by the number of elements and by their total weight.
+ * A batch is closed when it holds <code>maxCount</code> elements, or when the next element would push
+ * its weight over <code>maxWeight</code>. An element heavier than <code>maxWeight</code> makes a batch of its own.
+ * <p>
+ * Batches are handed downstream as read-only lists wrapping the filled buffer, without copying, and the next batch
+ * is presized to the size of the previous one, since consecutive batches tend to be of similar size.
+ *
+ * @param <T> element type
+ * @author jhspetersson
+ */
+class BatchingGatherer<T> implements Gatherer<T, BatchingGatherer.State<T>, List<T>> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int maxCount;
+    private final ToLongFunction<? super T> weigher;
+    private final long maxWeight;
+
+    BatchingGatherer(int maxCount, @NonNull ToLongFunction<? super T> weigher, long maxWeight) {
+        if (maxCount <= 0) {
+            throw new IllegalArgumentException("maxCount must be a positive number");
+        }
+        Objects.requireNonNull(weigher, "weigher cannot be null");
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("maxWeight must be a positive number");
+        }
+
+        this.maxCount = maxCount;
+        this.weigher = weigher;
+        this.maxWeight = maxWeight;
+    }
+
+    @Override
+    public Supplier<State<T>> initializer() {
+        return () -> new State<>(Math.min(maxCount, INITIAL_CAPACITY));
+    }
+
+    @Override
+    public Integrator<State<T>, T, List<T>> integrator() {
+        return Integrator.ofGreedy((state, element, downstream) -> {
+            var weight = weigher.applyAsLong(element);
+            if (weight < 0) {
+                throw new IllegalArgumentException("weight must not be negative: " + weight);
+            }
+
+            if (!state.batch.isEmpty() && weight > maxWeight - state.weight) {
+                if (!downstream.push(state.takeBatch())) {
+                    return false;
+                }
+            }
+            state.batch.add(element);
+            state.weight += weight;
+
+            if (state.batch.size() == maxCount) {
+                return downstream.push(state.takeBatch());
+            }
+
+            return !downstream.isRejecting();
+        });
+    }
+
+    @Override
+    public BiConsumer<State<T>, Downstream<? super List<T>>> finisher() {
+        return (state, downstream) -> {
+            if (!state.batch.isEmpty()) {
+                downstream.push(state.takeBatch());
+            }
+        };
+    }
+
+    static class State<T> {
+        List<T> batch;
+        long weight;
+
+        State(int capacity) {
+            this.batch = new ArrayList<>(capacity);
+        }
+
+        List<T> takeBatch() {
+            var result = batch;
+            batch = new ArrayList<>(result.size());
+            weight = 0;
+            return Collections.unmodifiableList(result);
+        }
+    }
+}
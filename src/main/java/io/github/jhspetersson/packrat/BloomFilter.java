@@ -0,0 +1,139 @@
+package io.github.jhspetersson.packrat;
+
+import java.util.Objects;
+
+/**
+ * A Bloom filter backed by a {@code long} array of bits.
+ * <p>
+ * Values are represented by 64-bit hashes computed with {@link #hash(Object)} or a custom hasher,
+ * the bit positions for a hash are derived with double hashing, so adding or testing
+ * a value allocates nothing.
+ *
+ * @author jhspetersson
+ */
+class BloomFilter {
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+    private static final double LN2 = Math.log(2);
+
+    private final long[] words;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * Creates a new Bloom filter sized for the expected number of insertions
+     * and the desired false positive probability.
+     *
+     * @param expectedInsertions expected number of distinct values
+     * @param fpp desired false positive probability in the exclusive range (0.0, 1.0)
+     */
+    BloomFilter(long expectedInsertions, double fpp) {
+        var wordCount = wordCount(expectedInsertions, fpp);
+        this.words = new long[wordCount];
+        this.bitCount = (long) wordCount * Long.SIZE;
+        this.hashCount = (int) Math.max(1, Math.round((double) bitCount / expectedInsertions * LN2));
+    }
+
+    /**
+     * Validates the sizing arguments and returns the number of words in the bit array.
+     *
+     * @throws IllegalArgumentException if the arguments are invalid or the filter would be too large
+     */
+    static int wordCount(long expectedInsertions, double fpp) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expectedInsertions must be a positive number");
+        }
+        if (!(fpp > 0.0 && fpp < 1.0)) {
+            throw new IllegalArgumentException("fpp must be in range (0.0, 1.0)");
+        }
+
+        var optimalBits = Math.ceil(-expectedInsertions * Math.log(fpp) / (LN2 * LN2));
+        var wordCount = Math.max(1, Math.ceil(optimalBits / Long.SIZE));
+        if (wordCount > MAX_ARRAY_SIZE) {
+            throw new IllegalArgumentException("Bloom filter for " + expectedInsertions + " insertions with fpp " + fpp + " is too large");
+        }
+        return (int) wordCount;
+    }
+
+    /**
+     * Adds a value represented by its hash.
+     *
+     * @param hash 64-bit hash of the value
+     * @return {@code true} if the value was definitely not present before
+     */
+    boolean put(long hash) {
+        var changed = false;
+        var combined = hash;
+        var step = step(hash);
+        for (var i = 0; i < hashCount; i++) {
+            var bit = (combined & Long.MAX_VALUE) % bitCount;
+            var word = (int) (bit >>> 6);
+            var mask = 1L << bit;
+            if ((words[word] & mask) == 0) {
+                words[word] |= mask;
+                changed = true;
+            }
+            combined += step;
+        }
+        return changed;
+    }
+
+    /**
+     * Tests a value represented by its hash.
+     *
+     * @param hash 64-bit hash of the value
+     * @return {@code false} if the value is definitely not present, {@code true} if it might be
+     */
+    boolean mightContain(long hash) {
+        var combined = hash;
+        var step = step(hash);
+        for (var i = 0; i < hashCount; i++) {
+            var bit = (combined & Long.MAX_VALUE) % bitCount;
+            if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+            combined += step;
+        }
+        return true;
+    }
+
+    /**
+     * Computes a 64-bit hash of a value.
+     * <p>
+     * {@code Long} and {@code Double} values and strings are hashed over their full contents,
+     * any other value is represented by its {@link Object#hashCode() hash code}, which has only 32 bits,
+     * so two values with the same hash code collide in every probe. With <code>n</code> distinct values,
+     * that alone drops about <code>n / 2^32</code> of the new values whatever the filter size is.
+     */
+    static long hash(Object value) {
+        return switch (value) {
+            case Long l -> mix(l);
+            case Double d -> mix(Double.doubleToLongBits(d));
+            case String string -> hash(string);
+            case null, default -> mix(Objects.hashCode(value));
+        };
+    }
+
+    private static long hash(String string) {
+        // FNV-1a over the characters
+        var hash = 0xCBF29CE484222325L;
+        for (var i = 0; i < string.length(); i++) {
+            hash = (hash ^ string.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    private static long step(long hash) {
+        // an odd step visits different bits on every round
+        return mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+    }
+
+    private static long mix(long value) {
+        // finalizer of MurmurHash3
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.jhspetersson.packrat;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Gatherer;
+
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Returns elements with distinct values that result from a mapping by the supplied function,
+ * all splits of a parallel stream share a single concurrent set of already seen values.
+ * <p>
+ * Elements are emitted as soon as their mapped value is seen for the first time by any split,
+ * so when the stream is parallel it is not defined which of the equal elements is kept.
+ * <p>
+ * The set is created by {@link #initializer()} and the returned supplier hands it to all splits,
+ * so every caller that keeps the supplier, like a composite built with {@link Gatherer#andThen},
+ * keeps the same set. The finisher clears it, so the gatherer can be used again once an evaluation has completed,
+ * but it must not be used by two evaluations at the same time, and an evaluation that failed
+ * leaves its values in the set.
+ *
+ * @param <T> element type
+ * @param <U> mapped element type
+ * @author jhspetersson
+ */
+class ConcurrentDistinctByGatherer<T, U> implements Gatherer<T, Set<Object>, T> {
+    // ConcurrentHashMap does not permit null keys
+    private static final Object NULL_KEY = new Object();
+
+    private final Function<? super T, ? extends U> mapper;
+
+    ConcurrentDistinctByGatherer(@NonNull Function<? super T, ? extends U> mapper) {
+        Objects.requireNonNull(mapper, "mapper cannot be null");
+
+        this.mapper = mapper;
+    }
+
+    @Override
+    public Supplier<Set<Object>> initializer() {
+        Set<Object> seen = ConcurrentHashMap.newKeySet();
+        return () -> seen;
+    }
+
+    @Override
+    public Integrator<Set<Object>, T, T> integrator() {
+        return Integrator.ofGreedy((seen, element, downstream) -> {
+            var mappedValue = mapper.apply(element);
+            if (seen.add(mappedValue == null ? NULL_KEY : mappedValue)) {
+                return downstream.push(element);
+            }
+            return !downstream.isRejecting();
+        });
+    }
+
+    @Override
+    public BinaryOperator<Set<Object>> combiner() {
+        // both splits hold the same set
+        return (left, _) -> left;
+    }
+
+    @Override
+    public BiConsumer<Set<Object>, Downstream<? super T>> finisher() {
+        return (seen, _) -> seen.clear();
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.jhspetersson.packrat;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Gatherer;
+
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Returns elements with distinct primitive values that result from a mapping by the supplied function.
+ * Seen values are kept in a {@link LongHashSet}, so neither the values nor the set entries are boxed.
+ *
+ * @param <T> element type
+ * @author jhspetersson
+ */
+class DistinctByLongGatherer<T> implements Gatherer<T, LongHashSet, T> {
+    private final ToLongFunction<? super T> mapper;
+
+    DistinctByLongGatherer(@NonNull ToLongFunction<? super T> mapper) {
+        Objects.requireNonNull(mapper, "mapper cannot be null");
+
+        this.mapper = mapper;
+    }
+
+    @Override
+    public Supplier<LongHashSet> initializer() {
+        return LongHashSet::new;
+    }
+
+    @Override
+    public Integrator<LongHashSet, T, T> integrator() {
+        return Integrator.ofGreedy((state, element, downstream) -> {
+            if (state.add(mapper.applyAsLong(element))) {
+                return downstream.push(element);
+            }
+            return !downstream.isRejecting();
+        });
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.jhspetersson.packrat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Gatherer;
+
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Returns elements whose mapped values did not appear among the mapped values
+ * of the previous <code>windowSize</code> elements.
+ * <p>
+ * Mapped values of the last <code>windowSize</code> elements are kept in a {@link RingBuffer}
+ * along with the count of their occurrences, so memory is bounded by the window size.
+ *
+ * @param <T> element type
+ * @param <U> mapped element type
+ * @author jhspetersson
+ */
+class DistinctByWithinGatherer<T, U> implements Gatherer<T, DistinctByWithinGatherer.State<U>, T> {
+    private final Function<? super T, ? extends U> mapper;
+    private final int windowSize;
+
+    DistinctByWithinGatherer(@NonNull Function<? super T, ? extends U> mapper, int windowSize) {
+        Objects.requireNonNull(mapper, "mapper cannot be null");
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("windowSize must be positive");
+        }
+
+        this.mapper = mapper;
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    public Supplier<State<U>> initializer() {
+        return () -> new State<>(windowSize);
+    }
+
+    @Override
+    public Integrator<State<U>, T, T> integrator() {
+        return Integrator.ofGreedy((state, element, downstream) -> {
+            var mappedValue = mapper.apply(element);
+            // checked before the eviction, since the oldest element is still within the window
+            var unique = !state.counts.containsKey(mappedValue);
+
+            if (state.window.isFull()) {
+                var evicted = state.window.removeFirst();
+                var count = state.counts.get(evicted);
+                if (--count[0] == 0) {
+                    state.counts.remove(evicted);
+                }
+            }
+            state.window.add(mappedValue);
+            state.counts.computeIfAbsent(mappedValue, _ -> new int[1])[0]++;
+
+            if (unique) {
+                return downstream.push(element);
+            }
+            return !downstream.isRejecting();
+        });
+    }
+
+    static class State<U> {
+        final RingBuffer<U> window;
+        final Map<U, int[]> counts = new HashMap<>();
+
+        State(int windowSize) {
+            this.window = new RingBuffer<>(windowSize);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.jhspetersson.packrat;
+
+/**
+ * A buffer of primitive {@code double} values backed by a circular array with a fixed maximum size.
+ * Values can be removed from both ends, so the buffer serves as a bounded deque as well.
+ * The index bookkeeping is shared with the other primitive buffers, see {@link PrimitiveRingBuffer}.
+ *
+ * @author jhspetersson
+ */
+class DoubleRingBuffer extends PrimitiveRingBuffer<double[]> {
+    /**
+     * Creates a new ring buffer with the specified maximum size.
+     *
+     * @param maxSize the maximum size of the buffer
+     */
+    DoubleRingBuffer(long maxSize) {
+        super(maxSize);
+    }
+
+    @Override
+    double[] newArray(int length) {
+        return new double[length];
+    }
+
+    /**
+     * Appends a value to the end of the buffer.
+     * The caller must remove a value beforehand when the buffer is full.
+     */
+    void add(double value) {
+        // the position is taken first, since it may replace the backing array
+        var position = addPosition();
+        elements[position] = value;
+    }
+
+    double removeFirst() {
+        return elements[removeFirstPosition()];
+    }
+
+    double removeLast() {
+        return elements[removeLastPosition()];
+    }
+
+    double first() {
+        return elements[firstPosition()];
+    }
+
+    double last() {
+        return elements[lastPosition()];
+    }
+
+    double get(int index) {
+        return elements[position(index)];
+    }
+}
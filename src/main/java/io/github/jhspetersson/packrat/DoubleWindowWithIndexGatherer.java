@@ -0,0 +1,46 @@
+package io.github.jhspetersson.packrat;
+
+import java.util.Objects;
+import java.util.function.ToDoubleFunction;
+
+import io.github.jhspetersson.packrat.Packrat.LongObjFunction;
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Returns sliding or fixed windows of values mapped to primitive {@code double} along with their indices.
+ * Values are kept in a {@link DoubleRingBuffer}, so they are never boxed, and every window
+ * is passed to the mapper as a fresh {@code double[]} the mapper is free to keep,
+ * see {@link PrimitiveWindowWithIndexGatherer}.
+ *
+ * @param <T> element type
+ * @param <R> result type
+ * @author jhspetersson
+ */
+class DoubleWindowWithIndexGatherer<T, R> extends PrimitiveWindowWithIndexGatherer<T, double[], DoubleRingBuffer, R> {
+    private final ToDoubleFunction<? super T> valueMapper;
+
+    /**
+     * Creates a new DoubleWindowWithIndexGatherer.
+     *
+     * @param windowSize the size of each window
+     * @param valueMapper the function mapping elements to primitive values
+     * @param mapper the function to map each window with its index to a result
+     * @param sliding whether windows slide by one element or follow each other without overlap
+     */
+    DoubleWindowWithIndexGatherer(int windowSize, @NonNull ToDoubleFunction<? super T> valueMapper, @NonNull LongObjFunction<double[], ? extends R> mapper, boolean sliding) {
+        super(windowSize, mapper, sliding);
+        Objects.requireNonNull(valueMapper, "valueMapper cannot be null");
+
+        this.valueMapper = valueMapper;
+    }
+
+    @Override
+    DoubleRingBuffer newWindow(int windowSize) {
+        return new DoubleRingBuffer(windowSize);
+    }
+
+    @Override
+    void add(DoubleRingBuffer window, T element) {
+        window.add(valueMapper.applyAsDouble(element));
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.jhspetersson.packrat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Gatherer;
+
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Returns all occurrences of elements that appear at least <code>n</code> times in the stream,
+ * emitting them as soon as their mapped value qualifies.
+ * <p>
+ * Elements are buffered per mapped value only until the value is seen <code>n</code> times.
+ * Then the buffered elements are emitted, the buffer is released, and further elements
+ * with that mapped value are emitted directly. Memory is bounded by the elements
+ * of the mapped values that have not qualified yet.
+ *
+ * @param <T> element type
+ * @param <U> mapped element type
+ * @author jhspetersson
+ */
+class EagerAtLeastGatherer<T, U> implements Gatherer<T, HashMap<U, List<T>>, T> {
+    // marks mapped values that have already been seen enough times
+    private static final List<?> QUALIFIED = List.of();
+
+    private final long atLeast;
+    private final Function<? super T, ? extends U> mapper;
+
+    EagerAtLeastGatherer(long atLeast, @NonNull Function<? super T, ? extends U> mapper) {
+        if (atLeast < 0) {
+            throw new IllegalArgumentException("atLeast must be a non-negative number");
+        }
+        Objects.requireNonNull(mapper, "mapper cannot be null");
+
+        this.atLeast = atLeast;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public Supplier<HashMap<U, List<T>>> initializer() {
+        return HashMap::new;
+    }
+
+    @Override
+    public Integrator<HashMap<U, List<T>>, T, T> integrator() {
+        return Integrator.ofGreedy((state, element, downstream) -> {
+            var mappedValue = mapper.apply(element);
+            var buffer = state.get(mappedValue);
+            if (buffer == QUALIFIED) {
+                return downstream.push(element);
+            }
+
+            if (buffer == null) {
+                buffer = new ArrayList<>();
+                state.put(mappedValue, buffer);
+            }
+            if (buffer.size() + 1 < atLeast) {
+                buffer.add(element);
+                return !downstream.isRejecting();
+            }
+
+            state.put(mappedValue, qualified());
+            for (var buffered : buffer) {
+                if (!downstream.push(buffered)) {
+                    return false;
+                }
+            }
+            return downstream.push(element);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> qualified() {
+        return (List<T>) QUALIFIED;
+    }
+}
@@ -15,6 +15,9 @@ import org.jspecify.annotations.NonNull;
 /**
  * Returns lists ("chunks") of elements, where all elements in a chunk are equal after applying the mapper function.
  * Null elements are supported when equality is determined via {@link Objects#equals}.
+ * <p>
+ * By default every chunk is a copy. In the borrowed mode, a read-only view over the internal list
+ * is pushed downstream and cleared right after the push, so no chunk is allocated.
  *
  * @param <T> element type
  * @param <U> mapped type for comparison
@@ -23,6 +26,7 @@ import org.jspecify.annotations.NonNull;
 class EqualChunksGatherer<T, U> implements Gatherer<T, EqualChunksGatherer.State<T, U>, List<T>> {
     private final Function<? super T, ? extends U> mapper;
     private final Comparator<? super U> comparator;
+    private final boolean borrowed;
 
     EqualChunksGatherer(@NonNull Function<? super T, ? extends U> mapper) {
         this(mapper, null);
@@ -30,9 +34,15 @@ class EqualChunksGatherer<T, U> implements Gatherer<T, EqualChunksGatherer.State
 
     EqualChunksGatherer(@NonNull Function<? super T, ? extends U> mapper,
                         Comparator<? super U> comparator) {
+        this(mapper, comparator, false);
+    }
+
+    EqualChunksGatherer(@NonNull Function<? super T, ? extends U> mapper,
+                        Comparator<? super U> comparator, boolean borrowed) {
         Objects.requireNonNull(mapper, "mapper cannot be null");
         this.mapper = mapper;
         this.comparator = comparator;
+        this.borrowed = borrowed;
     }
 
     @Override
@@ -60,6 +70,14 @@ class EqualChunksGatherer<T, U> implements Gatherer<T, EqualChunksGatherer.State
                 if (areEqual) {
                     state.chunk.add(element);
                 } else {
+                    if (borrowed) {
+                        var accepted = downstream.push(state.view);
+                        state.chunk.clear();
+                        state.chunk.add(element);
+                        state.currentValue = mappedValue;
+                        return accepted;
+                    }
+
                     var chunk = Collections.unmodifiableList(new ArrayList<>(state.chunk));
                     state.chunk.clear();
                     state.chunk.add(element);
@@ -76,14 +94,16 @@ class EqualChunksGatherer<T, U> implements Gatherer<T, EqualChunksGatherer.State
     public BiConsumer<State<T, U>, Downstream<? super List<T>>> finisher() {
         return (state, downstream) -> {
             if (!state.chunk.isEmpty()) {
-                var chunk = Collections.unmodifiableList(new ArrayList<>(state.chunk));
+                var chunk = borrowed ? state.view : Collections.unmodifiableList(new ArrayList<>(state.chunk));
                 downstream.push(chunk);
+                state.chunk.clear();
             }
         };
     }
 
     static class State<T, U> {
         final List<T> chunk = new ArrayList<>();
+        final List<T> view = Collections.unmodifiableList(chunk);
         U currentValue;
         boolean first = true;
     }
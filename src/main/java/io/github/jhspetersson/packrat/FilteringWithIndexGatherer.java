@@ -1,28 +1,29 @@
 package io.github.jhspetersson.packrat;
 
 import java.util.Objects;
-import java.util.function.BiPredicate;
 import java.util.function.Supplier;
 import java.util.stream.Gatherer;
 
+import io.github.jhspetersson.packrat.Packrat.LongObjPredicate;
 import org.jspecify.annotations.NonNull;
 
 /**
  * Filters elements based on their index and a predicate.
+ * The index is passed to the predicate as a primitive {@code long}.
  *
  * @param <T> element type
  * @author jhspetersson
  */
 class FilteringWithIndexGatherer<T> implements Gatherer<T, long[], T> {
-    private final BiPredicate<Long, ? super T> predicate;
+    private final LongObjPredicate<? super T> predicate;
     private final long startIndex;
     private final boolean invert;
 
-    FilteringWithIndexGatherer(@NonNull BiPredicate<Long, ? super T> predicate, long startIndex) {
+    FilteringWithIndexGatherer(@NonNull LongObjPredicate<? super T> predicate, long startIndex) {
         this(predicate, startIndex, false);
     }
 
-    FilteringWithIndexGatherer(@NonNull BiPredicate<Long, ? super T> predicate, long startIndex, boolean invert) {
+    FilteringWithIndexGatherer(@NonNull LongObjPredicate<? super T> predicate, long startIndex, boolean invert) {
         Objects.requireNonNull(predicate, "predicate cannot be null");
 
         this.predicate = predicate;
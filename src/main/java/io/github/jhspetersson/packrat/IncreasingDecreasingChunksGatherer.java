@@ -16,6 +16,9 @@ import org.jspecify.annotations.NonNull;
  * Returns lists ("chunks") of elements, where each next element is less/greater and, optionally equal than the previous one.
  * Comparison is done with the supplied comparator.
  * Null elements are supported when a null-safe comparator is provided.
+ * <p>
+ * By default every chunk is a copy. In the borrowed mode, a read-only view over the internal list
+ * is pushed downstream and cleared right after the push, so no chunk is allocated.
  *
  * @param <T> element type
  * @author jhspetersson
@@ -23,14 +26,21 @@ import org.jspecify.annotations.NonNull;
 class IncreasingDecreasingChunksGatherer<T> implements Gatherer<T, IncreasingDecreasingChunksGatherer.State<T>, List<T>> {
     private final Comparator<? super T> comparator;
     private final IntPredicate predicate;
+    private final boolean borrowed;
 
     IncreasingDecreasingChunksGatherer(@NonNull Comparator<? super T> comparator,
                                        @NonNull IntPredicate predicate) {
+        this(comparator, predicate, false);
+    }
+
+    IncreasingDecreasingChunksGatherer(@NonNull Comparator<? super T> comparator,
+                                       @NonNull IntPredicate predicate, boolean borrowed) {
         Objects.requireNonNull(comparator, "comparator cannot be null");
         Objects.requireNonNull(predicate, "predicate cannot be null");
 
         this.comparator = comparator;
         this.predicate = predicate;
+        this.borrowed = borrowed;
     }
 
     @Override
@@ -51,6 +61,13 @@ class IncreasingDecreasingChunksGatherer<T> implements Gatherer<T, IncreasingDec
                 if (predicate.test(result)) {
                     state.chunk.add(element);
                 } else {
+                    if (borrowed) {
+                        var accepted = downstream.push(state.view);
+                        state.chunk.clear();
+                        state.chunk.add(element);
+                        return accepted;
+                    }
+
                     var chunk = Collections.unmodifiableList(new ArrayList<>(state.chunk));
                     state.chunk.clear();
                     state.chunk.add(element);
@@ -66,14 +83,16 @@ class IncreasingDecreasingChunksGatherer<T> implements Gatherer<T, IncreasingDec
     public BiConsumer<State<T>, Downstream<? super List<T>>> finisher() {
         return (state, downstream) -> {
             if (!state.chunk.isEmpty()) {
-                var chunk = Collections.unmodifiableList(new ArrayList<>(state.chunk));
+                var chunk = borrowed ? state.view : Collections.unmodifiableList(new ArrayList<>(state.chunk));
                 downstream.push(chunk);
+                state.chunk.clear();
             }
         };
     }
 
     static class State<T> {
         final List<T> chunk = new ArrayList<>();
+        final List<T> view = Collections.unmodifiableList(chunk);
         T value;
         boolean first = true;
     }
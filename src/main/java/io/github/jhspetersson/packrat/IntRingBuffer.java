@@ -0,0 +1,54 @@
+package io.github.jhspetersson.packrat;
+
+/**
+ * A buffer of primitive {@code int} values backed by a circular array with a fixed maximum size.
+ * Values can be removed from both ends, so the buffer serves as a bounded deque as well.
+ * The index bookkeeping is shared with the other primitive buffers, see {@link PrimitiveRingBuffer}.
+ *
+ * @author jhspetersson
+ */
+class IntRingBuffer extends PrimitiveRingBuffer<int[]> {
+    /**
+     * Creates a new ring buffer with the specified maximum size.
+     *
+     * @param maxSize the maximum size of the buffer
+     */
+    IntRingBuffer(long maxSize) {
+        super(maxSize);
+    }
+
+    @Override
+    int[] newArray(int length) {
+        return new int[length];
+    }
+
+    /**
+     * Appends a value to the end of the buffer.
+     * The caller must remove a value beforehand when the buffer is full.
+     */
+    void add(int value) {
+        // the position is taken first, since it may replace the backing array
+        var position = addPosition();
+        elements[position] = value;
+    }
+
+    int removeFirst() {
+        return elements[removeFirstPosition()];
+    }
+
+    int removeLast() {
+        return elements[removeLastPosition()];
+    }
+
+    int first() {
+        return elements[firstPosition()];
+    }
+
+    int last() {
+        return elements[lastPosition()];
+    }
+
+    int get(int index) {
+        return elements[position(index)];
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.jhspetersson.packrat;
+
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+
+import io.github.jhspetersson.packrat.Packrat.LongObjFunction;
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Returns sliding or fixed windows of values mapped to primitive {@code int} along with their indices.
+ * Values are kept in a {@link IntRingBuffer}, so they are never boxed, and every window
+ * is passed to the mapper as a fresh {@code int[]} the mapper is free to keep,
+ * see {@link PrimitiveWindowWithIndexGatherer}.
+ *
+ * @param <T> element type
+ * @param <R> result type
+ * @author jhspetersson
+ */
+class IntWindowWithIndexGatherer<T, R> extends PrimitiveWindowWithIndexGatherer<T, int[], IntRingBuffer, R> {
+    private final ToIntFunction<? super T> valueMapper;
+
+    /**
+     * Creates a new IntWindowWithIndexGatherer.
+     *
+     * @param windowSize the size of each window
+     * @param valueMapper the function mapping elements to primitive values
+     * @param mapper the function to map each window with its index to a result
+     * @param sliding whether windows slide by one element or follow each other without overlap
+     */
+    IntWindowWithIndexGatherer(int windowSize, @NonNull ToIntFunction<? super T> valueMapper, @NonNull LongObjFunction<int[], ? extends R> mapper, boolean sliding) {
+        super(windowSize, mapper, sliding);
+        Objects.requireNonNull(valueMapper, "valueMapper cannot be null");
+
+        this.valueMapper = valueMapper;
+    }
+
+    @Override
+    IntRingBuffer newWindow(int windowSize) {
+        return new IntRingBuffer(windowSize);
+    }
+
+    @Override
+    void add(IntRingBuffer window, T element) {
+        window.add(valueMapper.applyAsInt(element));
+    }
+}
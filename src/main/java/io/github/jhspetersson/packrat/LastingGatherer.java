@@ -1,11 +1,11 @@
 package io.github.jhspetersson.packrat;
 
-import java.util.Deque;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.Objects;
 import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Gatherer;
@@ -21,6 +21,11 @@ import org.jspecify.annotations.NonNull;
  * <p>
  * If {@code n == 0}, no elements are emitted. For {@code n > 0}, the gatherer greedily consumes
  * the entire upstream before producing any output in its {@linkplain #finisher() finisher}.
+ * The last elements are kept in a {@link RingBuffer}, so once it is full, every element costs
+ * a single array store.
+ * <p>
+ * Parallel splits are merged with a preference for the right one: when it already holds
+ * {@code n} elements, the left one is discarded, otherwise the right elements are appended to the left ones.
  * <p>
  * Null mappers are not permitted. A negative {@code n} results in an
  * {@link IllegalArgumentException}.
@@ -55,7 +60,7 @@ class LastingGatherer<T> implements Gatherer<T, LastingGatherer.State<T>, T> {
 
     @Override
     public Supplier<State<T>> initializer() {
-        return () -> new State<>(unique, mapper);
+        return () -> new State<>(n, unique, mapper);
     }
 
     @Override
@@ -71,9 +76,18 @@ class LastingGatherer<T> implements Gatherer<T, LastingGatherer.State<T>, T> {
         });
     }
 
+    @Override
+    public BinaryOperator<State<T>> combiner() {
+        return (left, right) -> left.merge(right, n);
+    }
+
     @Override
     public BiConsumer<State<T>, Downstream<? super T>> finisher() {
         return (state, downstream) -> {
+            if (state.buffer != null) {
+                state.buffer.drainTo(downstream);
+                return;
+            }
             for (var element : state) {
                 if (!downstream.push(element)) {
                     break;
@@ -83,13 +97,13 @@ class LastingGatherer<T> implements Gatherer<T, LastingGatherer.State<T>, T> {
     }
 
     static class State<T> implements Iterable<T> {
-        final Deque<T> deque;
+        final RingBuffer<T> buffer;
         final LinkedHashMap<Object, T> lastByKey;
         final boolean unique;
         final Function<? super T, ?> mapper;
 
-        State(boolean unique, Function<? super T, ?> mapper) {
-            this.deque = unique ? null : new LinkedList<>();
+        State(long n, boolean unique, Function<? super T, ?> mapper) {
+            this.buffer = unique || n == 0 ? null : new RingBuffer<>(n);
             this.lastByKey = unique ? new LinkedHashMap<>() : null;
             this.unique = unique;
             this.mapper = mapper;
@@ -104,16 +118,41 @@ class LastingGatherer<T> implements Gatherer<T, LastingGatherer.State<T>, T> {
                     lastByKey.pollFirstEntry();
                 }
             } else {
-                if (deque.size() == n) {
-                    deque.removeFirst();
+                buffer.addEvicting(element);
+            }
+        }
+
+        State<T> merge(State<T> right, long n) {
+            if (unique) {
+                for (var entry : right.lastByKey.entrySet()) {
+                    lastByKey.remove(entry.getKey());
+                    lastByKey.put(entry.getKey(), entry.getValue());
+                    if (lastByKey.size() > n) {
+                        lastByKey.pollFirstEntry();
+                    }
                 }
-                deque.add(element);
+                return this;
+            }
+
+            if (buffer == null) {
+                return this;
+            }
+            if (right.buffer.isFull()) {
+                return right;
             }
+            for (var element : right.buffer) {
+                buffer.addEvicting(element);
+            }
+            return this;
         }
 
         @Override
         public Iterator<T> iterator() {
-            return unique ? lastByKey.values().iterator() : deque.iterator();
+            if (unique) {
+                return lastByKey.values().iterator();
+            }
+            // nothing is ever added when n == 0
+            return buffer == null ? Collections.emptyIterator() : buffer.iterator();
         }
     }
 }
\ No newline at end of file
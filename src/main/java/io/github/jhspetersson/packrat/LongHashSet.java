@@ -0,0 +1,110 @@
+package io.github.jhspetersson.packrat;
+
+/**
+ * A set of primitive {@code long} values backed by an open-addressing hash table with linear probing.
+ * Values are stored without boxing, adding a value that is already present allocates nothing.
+ * <p>
+ * Zero marks a free slot in the table, so the zero value itself is tracked by a separate flag.
+ *
+ * @author jhspetersson
+ */
+class LongHashSet {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private long[] table;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+    private boolean containsZero;
+
+    LongHashSet() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Adds a value to the set.
+     *
+     * @param value value to add
+     * @return {@code true} if the set did not already contain the value
+     */
+    boolean add(long value) {
+        if (value == 0) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            return true;
+        }
+
+        var index = mix(value) & mask;
+        long current;
+        while ((current = table[index]) != 0) {
+            if (current == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+
+        table[index] = value;
+        if (++size > resizeThreshold) {
+            grow();
+        }
+        return true;
+    }
+
+    boolean contains(long value) {
+        if (value == 0) {
+            return containsZero;
+        }
+
+        var index = mix(value) & mask;
+        long current;
+        while ((current = table[index]) != 0) {
+            if (current == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    int size() {
+        return containsZero ? size + 1 : size;
+    }
+
+    private void grow() {
+        if (table.length >= MAX_CAPACITY) {
+            // keep at least one free slot, so that probing always terminates
+            if (size >= table.length - 1) {
+                throw new IllegalStateException("set is full");
+            }
+            resizeThreshold = table.length - 2;
+            return;
+        }
+
+        var oldTable = table;
+        allocate(table.length << 1);
+        for (var value : oldTable) {
+            if (value != 0) {
+                var index = mix(value) & mask;
+                while (table[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                table[index] = value;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        table = new long[capacity];
+        mask = capacity - 1;
+        // load factor of 0.5 keeps probe sequences short
+        resizeThreshold = capacity >>> 1;
+    }
+
+    private static int mix(long value) {
+        var hash = value * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
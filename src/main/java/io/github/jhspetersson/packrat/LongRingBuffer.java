@@ -0,0 +1,54 @@
+package io.github.jhspetersson.packrat;
+
+/**
+ * A buffer of primitive {@code long} values backed by a circular array with a fixed maximum size.
+ * Values can be removed from both ends, so the buffer serves as a bounded deque as well.
+ * The index bookkeeping is shared with the other primitive buffers, see {@link PrimitiveRingBuffer}.
+ *
+ * @author jhspetersson
+ */
+class LongRingBuffer extends PrimitiveRingBuffer<long[]> {
+    /**
+     * Creates a new ring buffer with the specified maximum size.
+     *
+     * @param maxSize the maximum size of the buffer
+     */
+    LongRingBuffer(long maxSize) {
+        super(maxSize);
+    }
+
+    @Override
+    long[] newArray(int length) {
+        return new long[length];
+    }
+
+    /**
+     * Appends a value to the end of the buffer.
+     * The caller must remove a value beforehand when the buffer is full.
+     */
+    void add(long value) {
+        // the position is taken first, since it may replace the backing array
+        var position = addPosition();
+        elements[position] = value;
+    }
+
+    long removeFirst() {
+        return elements[removeFirstPosition()];
+    }
+
+    long removeLast() {
+        return elements[removeLastPosition()];
+    }
+
+    long first() {
+        return elements[firstPosition()];
+    }
+
+    long last() {
+        return elements[lastPosition()];
+    }
+
+    long get(int index) {
+        return elements[position(index)];
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.jhspetersson.packrat;
+
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+
+import io.github.jhspetersson.packrat.Packrat.LongObjFunction;
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Returns sliding or fixed windows of values mapped to primitive {@code long} along with their indices.
+ * Values are kept in a {@link LongRingBuffer}, so they are never boxed, and every window
+ * is passed to the mapper as a fresh {@code long[]} the mapper is free to keep,
+ * see {@link PrimitiveWindowWithIndexGatherer}.
+ *
+ * @param <T> element type
+ * @param <R> result type
+ * @author jhspetersson
+ */
+class LongWindowWithIndexGatherer<T, R> extends PrimitiveWindowWithIndexGatherer<T, long[], LongRingBuffer, R> {
+    private final ToLongFunction<? super T> valueMapper;
+
+    /**
+     * Creates a new LongWindowWithIndexGatherer.
+     *
+     * @param windowSize the size of each window
+     * @param valueMapper the function mapping elements to primitive values
+     * @param mapper the function to map each window with its index to a result
+     * @param sliding whether windows slide by one element or follow each other without overlap
+     */
+    LongWindowWithIndexGatherer(int windowSize, @NonNull ToLongFunction<? super T> valueMapper, @NonNull LongObjFunction<long[], ? extends R> mapper, boolean sliding) {
+        super(windowSize, mapper, sliding);
+        Objects.requireNonNull(valueMapper, "valueMapper cannot be null");
+
+        this.valueMapper = valueMapper;
+    }
+
+    @Override
+    LongRingBuffer newWindow(int windowSize) {
+        return new LongRingBuffer(windowSize);
+    }
+
+    @Override
+    void add(LongRingBuffer window, T element) {
+        window.add(valueMapper.applyAsLong(element));
+    }
+}
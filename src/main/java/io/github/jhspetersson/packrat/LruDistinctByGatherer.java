@@ -0,0 +1,68 @@
+package io.github.jhspetersson.packrat;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Gatherer;
+
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Returns elements with distinct values that result from a mapping by the supplied function,
+ * remembering at most <code>maxKeys</code> most recently seen mapped values.
+ * <p>
+ * When the limit is exceeded, the least recently seen value is forgotten,
+ * so an element with that value will pass again later. Seeing a value that is
+ * already remembered refreshes it, even though the element itself is dropped.
+ *
+ * @param <T> element type
+ * @param <U> mapped element type
+ * @author jhspetersson
+ */
+class LruDistinctByGatherer<T, U> implements Gatherer<T, LruDistinctByGatherer.State, T> {
+    private final Function<? super T, ? extends U> mapper;
+    private final int maxKeys;
+
+    LruDistinctByGatherer(@NonNull Function<? super T, ? extends U> mapper, int maxKeys) {
+        Objects.requireNonNull(mapper, "mapper cannot be null");
+        if (maxKeys <= 0) {
+            throw new IllegalArgumentException("maxKeys must be a positive number");
+        }
+
+        this.mapper = mapper;
+        this.maxKeys = maxKeys;
+    }
+
+    @Override
+    public Supplier<State> initializer() {
+        return () -> new State(maxKeys);
+    }
+
+    @Override
+    public Integrator<State, T, T> integrator() {
+        return Integrator.ofGreedy((state, element, downstream) -> {
+            var mappedValue = mapper.apply(element);
+            // access order makes put() refresh an already remembered value
+            if (state.put(mappedValue, Boolean.TRUE) == null) {
+                return downstream.push(element);
+            }
+            return !downstream.isRejecting();
+        });
+    }
+
+    static class State extends LinkedHashMap<Object, Boolean> {
+        private final int maxKeys;
+
+        State(int maxKeys) {
+            super(16, 0.75f, true);
+            this.maxKeys = maxKeys;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Boolean> eldest) {
+            return size() > maxKeys;
+        }
+    }
+}
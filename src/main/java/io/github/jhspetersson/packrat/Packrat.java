@@ -1,6 +1,11 @@
 package io.github.jhspetersson.packrat;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.text.BreakIterator;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
@@ -8,12 +13,16 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.SplittableRandom;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.BiPredicate;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collector;
 import java.util.stream.Gatherer;
 import java.util.stream.Stream;
@@ -41,6 +50,228 @@ public final class Packrat {
         return new DistinctByGatherer<>(mapper);
     }
 
+    /**
+     * Returns elements with distinct values that result from a mapping by the supplied function,
+     * remembering at most <code>maxKeys</code> most recently seen mapped values.
+     * <p>
+     * When more values are seen, the least recently seen one is forgotten and an element with that value
+     * passes again, so memory stays bounded on infinite streams. Seeing a remembered value refreshes it.
+     *
+     * @param mapper mapping function
+     * @param maxKeys how many most recently seen mapped values to remember
+     * @param <T> element type
+     * @param <U> mapped element type
+     * @return a gatherer that filters elements based on distinct mapped values with bounded memory
+     * @throws IllegalArgumentException if <code>maxKeys</code> is not positive
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T, U> Gatherer<T, ?, T> distinctBy(@NonNull Function<? super T, ? extends U> mapper, int maxKeys) {
+        return new LruDistinctByGatherer<>(mapper, maxKeys);
+    }
+
+    /**
+     * Returns elements whose mapped values did not appear among the mapped values
+     * of the previous <code>windowSize</code> elements.
+     * Memory is bounded by the window size, which makes this gatherer suitable for infinite streams.
+     *
+     * <pre>
+     *   var result = Stream.of(1, 2, 1, 3, 4, 1).gather(distinctByWithin(i -> i, 2)).toList();
+     *   System.out.println(result);
+     *
+     *   [1, 2, 3, 4, 1]
+     * </pre>
+     *
+     * @param mapper mapping function
+     * @param windowSize how many previous elements are checked for duplicates
+     * @param <T> element type
+     * @param <U> mapped element type
+     * @return a gatherer that filters elements based on distinct mapped values within a sliding window
+     * @throws IllegalArgumentException if <code>windowSize</code> is not positive
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T, U> Gatherer<T, ?, T> distinctByWithin(@NonNull Function<? super T, ? extends U> mapper, int windowSize) {
+        return new DistinctByWithinGatherer<>(mapper, windowSize);
+    }
+
+    /**
+     * Returns elements with distinct {@code long} values that result from a mapping by the supplied function.
+     * Mapped values are tracked in a primitive hash set, so no boxing happens per element.
+     *
+     * @param mapper mapping function
+     * @param <T> element type
+     * @return a gatherer that filters elements based on distinct mapped values
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T> Gatherer<T, ?, T> distinctByLong(@NonNull ToLongFunction<? super T> mapper) {
+        return new DistinctByLongGatherer<>(mapper);
+    }
+
+    /**
+     * Returns elements with distinct {@code int} values that result from a mapping by the supplied function.
+     * Mapped values are tracked in a primitive hash set, so no boxing happens per element.
+     *
+     * @param mapper mapping function
+     * @param <T> element type
+     * @return a gatherer that filters elements based on distinct mapped values
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T> Gatherer<T, ?, T> distinctByInt(@NonNull ToIntFunction<? super T> mapper) {
+        Objects.requireNonNull(mapper, "mapper cannot be null");
+
+        return new DistinctByLongGatherer<T>(mapper::applyAsInt);
+    }
+
+    /**
+     * Returns elements with distinct values that result from a mapping by the supplied function.
+     * Unlike {@link #distinctBy(Function)}, this gatherer evaluates in parallel on parallel streams:
+     * every split deduplicates on its own, then the splits are merged keeping the first occurrence
+     * of every mapped value in encounter order.
+     *
+     * @param mapper mapping function
+     * @param <T> element type
+     * @param <U> mapped element type
+     * @return a gatherer that filters elements based on distinct mapped values, supporting parallel evaluation
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T, U> Gatherer<T, ?, T> parallelDistinctBy(@NonNull Function<? super T, ? extends U> mapper) {
+        return new ParallelDistinctByGatherer<>(mapper);
+    }
+
+    /**
+     * Returns elements with distinct values that result from a mapping by the supplied function.
+     * All splits of a parallel stream share a single concurrent set of seen mapped values,
+     * so elements are emitted immediately, but it is not defined which of the elements
+     * with equal mapped values is kept when the stream is parallel.
+     * The set is cleared when an evaluation completes, so the returned gatherer, or a composite built from it,
+     * may be used again afterwards, but not by two streams at the same time.
+     *
+     * @param mapper mapping function
+     * @param <T> element type
+     * @param <U> mapped element type
+     * @return a gatherer that filters elements based on distinct mapped values, supporting unordered parallel evaluation
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T, U> Gatherer<T, ?, T> unorderedDistinctBy(@NonNull Function<? super T, ? extends U> mapper) {
+        return new ConcurrentDistinctByGatherer<>(mapper);
+    }
+
+    /**
+     * Returns elements with distinct values that result from a mapping by the supplied function,
+     * remembering the seen mapped values in a Bloom filter of fixed size instead of a set.
+     * <p>
+     * An element with a repeated mapped value is never passed, but with the probability close to <code>fpp</code>
+     * an element with a new mapped value may be dropped as well. The probability stays close to <code>fpp</code>
+     * while the number of distinct mapped values does not exceed <code>expectedInsertions</code>
+     * and grows beyond that. Mapped values are told apart by 64-bit hashes: <code>Long</code>, <code>Double</code>
+     * and <code>String</code> values are hashed over their contents, other values by their 32-bit hash codes,
+     * which puts a floor of about <code>n / 2^32</code> under the false positive probability for <code>n</code> distinct values.
+     * Use {@link #approximateDistinctBy(Function, ToLongFunction, long, double)} with a 64-bit hasher for such values.
+     *
+     * <pre>
+     *   var result = IntStream.range(0, 1_000_000).boxed()
+     *       .gather(approximateDistinctBy(i -> i % 1_000, 1_000, 0.01))
+     *       .count();
+     *   System.out.println(result);
+     *
+     *   1000
+     * </pre>
+     * Might print slightly less than 1000 due to false positives.
+     *
+     * @param mapper mapping function
+     * @param expectedInsertions expected number of distinct mapped values
+     * @param fpp desired false positive probability in the exclusive range (0.0, 1.0)
+     * @param <T> element type
+     * @param <U> mapped element type
+     * @return a gatherer that filters elements based on approximately distinct mapped values
+     * @throws IllegalArgumentException if <code>expectedInsertions</code> is not positive, <code>fpp</code> is out of range,
+     * or the filter would be too large
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T, U> Gatherer<T, ?, T> approximateDistinctBy(@NonNull Function<? super T, ? extends U> mapper, long expectedInsertions, double fpp) {
+        return new ApproximateDistinctByGatherer<>(mapper, BloomFilter::hash, expectedInsertions, fpp);
+    }
+
+    /**
+     * Returns elements with distinct values that result from a mapping by the supplied function,
+     * remembering the 64-bit hashes of the mapped values, computed by the supplied hasher, in a Bloom filter of fixed size.
+     *
+     * @see #approximateDistinctBy(Function, long, double)
+     * @param mapper mapping function
+     * @param hasher function computing a 64-bit hash of a mapped value, equal values must have equal hashes
+     * @param expectedInsertions expected number of distinct mapped values
+     * @param fpp desired false positive probability in the exclusive range (0.0, 1.0)
+     * @param <T> element type
+     * @param <U> mapped element type
+     * @return a gatherer that filters elements based on approximately distinct mapped values
+     * @throws IllegalArgumentException if <code>expectedInsertions</code> is not positive, <code>fpp</code> is out of range,
+     * or the filter would be too large
+     * @throws NullPointerException if the mapper or hasher is null
+     */
+    @NonNull
+    public static <T, U> Gatherer<T, ?, T> approximateDistinctBy(@NonNull Function<? super T, ? extends U> mapper, @NonNull ToLongFunction<? super U> hasher,
+                                                                 long expectedInsertions, double fpp) {
+        return new ApproximateDistinctByGatherer<>(mapper, hasher, expectedInsertions, fpp);
+    }
+
+    /**
+     * Returns elements with distinct values that result from a mapping by the supplied function,
+     * remembering the seen mapped values in Bloom filters of fixed size, with the same guarantees
+     * as {@link #approximateDistinctBy(Function, long, double)}.
+     * <p>
+     * Unlike {@link #approximateDistinctBy(Function, long, double)}, this gatherer evaluates in parallel on parallel streams:
+     * every split remembers its mapped values, and the splits are merged keeping the first occurrence
+     * of every mapped value in encounter order. Passed elements are emitted once the stream is consumed.
+     * <p>
+     * A split keeps the hashes in a set costing memory in proportion to the elements it holds,
+     * and builds a full-size filter only when the set would get larger or when it is merged with another split.
+     * Several filters may still exist at once while the splits are being merged, up to about the number of threads
+     * times the depth of the split tree, so memory can exceed that of a single filter.
+     *
+     * @param mapper mapping function
+     * @param expectedInsertions expected number of distinct mapped values
+     * @param fpp desired false positive probability in the exclusive range (0.0, 1.0)
+     * @param <T> element type
+     * @param <U> mapped element type
+     * @return a gatherer that filters elements based on approximately distinct mapped values, supporting parallel evaluation
+     * @throws IllegalArgumentException if <code>expectedInsertions</code> is not positive, <code>fpp</code> is out of range,
+     * or the filter would be too large
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T, U> Gatherer<T, ?, T> parallelApproximateDistinctBy(@NonNull Function<? super T, ? extends U> mapper, long expectedInsertions, double fpp) {
+        return new ParallelApproximateDistinctByGatherer<>(mapper, BloomFilter::hash, expectedInsertions, fpp);
+    }
+
+    /**
+     * Returns elements with distinct values that result from a mapping by the supplied function,
+     * remembering the 64-bit hashes of the mapped values, computed by the supplied hasher, in Bloom filters of fixed size,
+     * evaluating in parallel on parallel streams.
+     *
+     * @see #parallelApproximateDistinctBy(Function, long, double)
+     * @param mapper mapping function
+     * @param hasher function computing a 64-bit hash of a mapped value, equal values must have equal hashes
+     * @param expectedInsertions expected number of distinct mapped values
+     * @param fpp desired false positive probability in the exclusive range (0.0, 1.0)
+     * @param <T> element type
+     * @param <U> mapped element type
+     * @return a gatherer that filters elements based on approximately distinct mapped values, supporting parallel evaluation
+     * @throws IllegalArgumentException if <code>expectedInsertions</code> is not positive, <code>fpp</code> is out of range,
+     * or the filter would be too large
+     * @throws NullPointerException if the mapper or hasher is null
+     */
+    @NonNull
+    public static <T, U> Gatherer<T, ?, T> parallelApproximateDistinctBy(@NonNull Function<? super T, ? extends U> mapper, @NonNull ToLongFunction<? super U> hasher,
+                                                                         long expectedInsertions, double fpp) {
+        return new ParallelApproximateDistinctByGatherer<>(mapper, hasher, expectedInsertions, fpp);
+    }
+
     /**
      * Returns all occurrences of elements that appear at least <code>n</code> times in the stream.
      *
@@ -80,6 +311,60 @@ public final class Packrat {
         return new AtLeastGatherer<>(n, mapper);
     }
 
+    /**
+     * Returns all occurrences of elements that appear at least <code>n</code> times in the stream,
+     * emitting them as soon as they qualify.
+     * <p>
+     * Unlike {@link #atLeast(long)}, elements are not held until the end of the stream:
+     * when an element is seen for the <code>n</code>-th time, all its previous occurrences are emitted
+     * along with it, and further occurrences are emitted immediately. Only occurrences of the elements
+     * that have not qualified yet are buffered. The output is therefore ordered by the moment
+     * the elements qualify rather than by the encounter order.
+     *
+     * <pre>
+     *   var result = Stream.of(1, 2, 1, 3, 2, 1, 2).gather(eagerAtLeast(2)).toList();
+     *   System.out.println(result);
+     *
+     *   [1, 1, 2, 2, 1, 2]
+     * </pre>
+     *
+     * @param n at least how many times the element has to appear in the stream
+     * @param <T> element type
+     * @return a gatherer that filters elements based on their frequency in the stream, emitting them eagerly
+     * @throws IllegalArgumentException if <code>n</code> is negative
+     */
+    @NonNull
+    public static <T> Gatherer<T, ?, T> eagerAtLeast(long n) {
+        return eagerAtLeastBy(n, Function.identity());
+    }
+
+    /**
+     * Returns all occurrences of elements whose mapped values appear at least <code>n</code> times in the stream,
+     * emitting them as soon as their mapped values qualify, see {@link #eagerAtLeast(long)}.
+     *
+     * @param n at least how many times the element has to appear in the stream
+     * @param mapper mapping function
+     * @param <T> element type
+     * @param <U> mapped element type
+     * @return a gatherer that filters elements based on the frequency of their mapped values in the stream, emitting them eagerly
+     * @throws IllegalArgumentException if <code>n</code> is negative
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T, U> Gatherer<T, ?, T> eagerAtLeastBy(long n, @NonNull Function<? super T, ? extends U> mapper) {
+        if (n < 0) {
+            throw new IllegalArgumentException("atLeast must be a non-negative number");
+        }
+        Objects.requireNonNull(mapper, "mapper cannot be null");
+
+        // every element trivially appears at least once, no need to buffer the stream
+        if (n <= 1) {
+            return identity();
+        }
+
+        return new EagerAtLeastGatherer<>(n, mapper);
+    }
+
     /**
      * Returns elements that appear at most <code>n</code> times in the stream.
      *
@@ -506,153 +791,392 @@ public final class Packrat {
     }
 
     /**
-     * Returns <code>n</code> copies of every element.
+     * Returns lists ("chunks") of elements, where each next element is greater than the previous one,
+     * without copying the chunks. Comparison is done with the natural order comparator.
+     * Every chunk is a borrowed view that is only valid until the next element arrives.
      *
-     * @param n how many copies, value equal to zero effectively empties the stream.
      * @param <T> element type
-     * @return a gatherer that produces <code>n</code> copies of each element in the stream
-     * @throws IllegalArgumentException if <code>n</code> is negative
+     * @return a gatherer that pushes views of chunks where each element is greater than the previous one
+     * @see #increasingChunks()
+     * @see <a href="https://github.com/jhspetersson/packrat#borrowed-views">Borrowed views</a>
      */
     @NonNull
-    public static <T> Gatherer<T, ?, T> nCopies(long n) {
-        if (n < 0) {
-            throw new IllegalArgumentException("n must be a non-negative number");
-        }
-        if (n == 0) {
-            return empty();
-        }
-        if (n == 1) {
-            return new IdentityGatherer<>();
-        }
-
-        return new NCopiesGatherer<>(n);
+    public static <T extends Comparable<? super T>> Gatherer<T, ?, List<T>> increasingChunksView() {
+        return increasingChunksView(Comparator.naturalOrder());
     }
 
     /**
-     * Collects the whole stream and repeats it <code>n</code> times.
+     * Returns lists ("chunks") of elements, where each next element is greater than the previous one,
+     * without copying the chunks. Comparison is done with the supplied comparator.
+     * Every chunk is a borrowed view that is only valid until the next element arrives.
      *
-     * @param n how many times to repeat the stream, value equal to zero effectively empties the stream
+     * @param comparator comparator
      * @param <T> element type
-     * @return a gatherer that collects the whole stream and repeats it <code>n</code> times
-     * @throws IllegalArgumentException if <code>n</code> is negative
+     * @return a gatherer that pushes views of chunks where each element is greater than the previous one
+     * @throws NullPointerException if the comparator is null
+     * @see #increasingChunks(Comparator)
+     * @see <a href="https://github.com/jhspetersson/packrat#borrowed-views">Borrowed views</a>
      */
     @NonNull
-    public static <T> Gatherer<T, ?, T> repeat(long n) {
-        if (n < 0) {
-            throw new IllegalArgumentException("n must be a non-negative number");
-        }
-        if (n == 0) {
-            return empty();
-        }
-        if (n == 1) {
-            return new IdentityGatherer<>();
-        }
-
-        return new RepeatGatherer<>(n);
+    public static <T> Gatherer<T, ?, List<T>> increasingChunksView(@NonNull Comparator<? super T> comparator) {
+        return new IncreasingDecreasingChunksGatherer<>(comparator, cmp -> cmp < 0, true);
     }
 
     /**
-     * Returns a gatherer that discards all elements and short-circuits immediately.
+     * Returns lists ("chunks") of elements, where each next element is greater or equal than the previous one,
+     * without copying the chunks. Comparison is done with the natural order comparator.
+     * Every chunk is a borrowed view that is only valid until the next element arrives.
+     *
+     * @param <T> element type
+     * @return a gatherer that pushes views of chunks where each element is greater or equal than the previous one
+     * @see #increasingOrEqualChunks()
+     * @see <a href="https://github.com/jhspetersson/packrat#borrowed-views">Borrowed views</a>
      */
-    private static <T> Gatherer<T, ?, T> empty() {
-        return Gatherer.of(Gatherer.Integrator.of((_, _, _) -> false));
+    @NonNull
+    public static <T extends Comparable<? super T>> Gatherer<T, ?, List<T>> increasingOrEqualChunksView() {
+        return increasingOrEqualChunksView(Comparator.naturalOrder());
     }
 
     /**
-     * Returns all elements, the first element is mapped with the supplied mapping function.
+     * Returns lists ("chunks") of elements, where each next element is greater or equal than the previous one,
+     * without copying the chunks. Comparison is done with the supplied comparator.
+     * Every chunk is a borrowed view that is only valid until the next element arrives.
      *
-     * @param mapper mapping function
+     * @param comparator comparator
      * @param <T> element type
-     * @return a gatherer that maps only the first element in the stream using the provided function
-     * @throws NullPointerException if the mapper is null
+     * @return a gatherer that pushes views of chunks where each element is greater or equal than the previous one
+     * @throws NullPointerException if the comparator is null
+     * @see #increasingOrEqualChunks(Comparator)
+     * @see <a href="https://github.com/jhspetersson/packrat#borrowed-views">Borrowed views</a>
      */
     @NonNull
-    public static <T> Gatherer<T, ?, T> mapFirst(@NonNull Function<? super T, ? extends T> mapper) {
-        return skipAndMapN(0L, 1L, mapper);
+    public static <T> Gatherer<T, ?, List<T>> increasingOrEqualChunksView(@NonNull Comparator<? super T> comparator) {
+        return new IncreasingDecreasingChunksGatherer<>(comparator, cmp -> cmp <= 0, true);
     }
 
     /**
-     * Returns all elements, the first <code>mapN</code> elements are mapped with the supplied mapping function.
+     * Returns lists ("chunks") of elements, where each next element is less than the previous one,
+     * without copying the chunks. Comparison is done with the natural order comparator.
+     * Every chunk is a borrowed view that is only valid until the next element arrives.
      *
-     * @param mapN number of elements to map
-     * @param mapper mapping function
      * @param <T> element type
-     * @return a gatherer that maps the first <code>mapN</code> elements in the stream using the provided function
-     * @throws IllegalArgumentException if <code>mapN</code> is negative
-     * @throws NullPointerException if the mapper is null
+     * @return a gatherer that pushes views of chunks where each element is less than the previous one
+     * @see #decreasingChunks()
+     * @see <a href="https://github.com/jhspetersson/packrat#borrowed-views">Borrowed views</a>
      */
     @NonNull
-    public static <T> Gatherer<T, ?, T> mapN(long mapN, @NonNull Function<? super T, ? extends T> mapper) {
-        return skipAndMapN(0L, mapN, mapper);
+    public static <T extends Comparable<? super T>> Gatherer<T, ?, List<T>> decreasingChunksView() {
+        return decreasingChunksView(Comparator.naturalOrder());
     }
 
     /**
-     * Returns all elements that after the first <code>skipN</code> are mapped with the supplied mapping function.
+     * Returns lists ("chunks") of elements, where each next element is less than the previous one,
+     * without copying the chunks. Comparison is done with the supplied comparator.
+     * Every chunk is a borrowed view that is only valid until the next element arrives.
      *
-     * @param skipN number of elements to skip before mapping
-     * @param mapper mapping function
+     * @param comparator comparator
      * @param <T> element type
-     * @return a gatherer that maps all elements after skipping the first <code>skipN</code> elements
-     * @throws IllegalArgumentException if <code>skipN</code> is negative
-     * @throws NullPointerException if the mapper is null
+     * @return a gatherer that pushes views of chunks where each element is less than the previous one
+     * @throws NullPointerException if the comparator is null
+     * @see #decreasingChunks(Comparator)
+     * @see <a href="https://github.com/jhspetersson/packrat#borrowed-views">Borrowed views</a>
      */
     @NonNull
-    public static <T> Gatherer<T, ?, T> skipAndMap(long skipN, @NonNull Function<? super T, ? extends T> mapper) {
-        if (skipN < 0) {
-            throw new IllegalArgumentException("skipN must be a non-negative number");
-        }
-
-        return new MappingGatherer<>(skipN, -1L, mapper);
+    public static <T> Gatherer<T, ?, List<T>> decreasingChunksView(@NonNull Comparator<? super T> comparator) {
+        return new IncreasingDecreasingChunksGatherer<>(comparator, cmp -> cmp > 0, true);
     }
 
     /**
-     * Returns all elements, after <code>skipN</code> elements the first <code>mapN</code> elements are mapped with the supplied mapping function.
+     * Returns lists ("chunks") of elements, where each next element is less or equal than the previous one,
+     * without copying the chunks. Comparison is done with the natural order comparator.
+     * Every chunk is a borrowed view that is only valid until the next element arrives.
      *
-     * @param skipN number of elements to skip before mapping
-     * @param mapN number of elements to map after skipping
-     * @param mapper mapping function
      * @param <T> element type
-     * @return a gatherer that maps <code>mapN</code> elements after skipping <code>skipN</code> elements
-     * @throws IllegalArgumentException if <code>skipN</code> or <code>mapN</code> is negative
-     * @throws NullPointerException if the mapper is null
+     * @return a gatherer that pushes views of chunks where each element is less or equal than the previous one
+     * @see #decreasingOrEqualChunks()
+     * @see <a href="https://github.com/jhspetersson/packrat#borrowed-views">Borrowed views</a>
      */
     @NonNull
-    public static <T> Gatherer<T, ?, T> skipAndMapN(long skipN, long mapN, @NonNull Function<? super T, ? extends T> mapper) {
-        if (skipN < 0) {
-            throw new IllegalArgumentException("skipN must be a non-negative number");
-        }
-        if (mapN < 0) {
-            throw new IllegalArgumentException("mapN must be a non-negative number");
-        }
-
-        return new MappingGatherer<>(skipN, mapN, mapper);
+    public static <T extends Comparable<? super T>> Gatherer<T, ?, List<T>> decreasingOrEqualChunksView() {
+        return decreasingOrEqualChunksView(Comparator.naturalOrder());
     }
 
     /**
-     * Maps elements using the supplied mapping function while the predicate evaluates to true.
-     * Once the predicate evaluates to false, no further elements are mapped, and the original elements are passed downstream.
+     * Returns lists ("chunks") of elements, where each next element is less or equal than the previous one,
+     * without copying the chunks. Comparison is done with the supplied comparator.
+     * Every chunk is a borrowed view that is only valid until the next element arrives.
      *
-     * @param mapper mapping function
-     * @param predicate predicate to determine when to stop mapping
+     * @param comparator comparator
      * @param <T> element type
-     * @return a gatherer that maps elements while the predicate evaluates to true
-     * @throws NullPointerException if the mapper or predicate is null
+     * @return a gatherer that pushes views of chunks where each element is less or equal than the previous one
+     * @throws NullPointerException if the comparator is null
+     * @see #decreasingOrEqualChunks(Comparator)
+     * @see <a href="https://github.com/jhspetersson/packrat#borrowed-views">Borrowed views</a>
      */
     @NonNull
-    public static <T> Gatherer<T, ?, T> mapWhile(@NonNull Function<? super T, ? extends T> mapper, @NonNull Predicate<? super T> predicate) {
-        Objects.requireNonNull(predicate, "predicate cannot be null");
-        return new MapWhileUntilGatherer<>(mapper, predicate);
+    public static <T> Gatherer<T, ?, List<T>> decreasingOrEqualChunksView(@NonNull Comparator<? super T> comparator) {
+        return new IncreasingDecreasingChunksGatherer<>(comparator, cmp -> cmp >= 0, true);
     }
 
     /**
-     * Maps elements using the supplied mapping function until the predicate evaluates to true.
-     * Once the predicate evaluates to true, no further elements are mapped, and the original elements are passed downstream.
+     * Returns lists ("chunks") of elements where all elements in a chunk are equal, without copying the chunks.
+     * Every chunk is a borrowed view that is only valid until the next element arrives.
      *
-     * @param mapper mapping function
-     * @param predicate predicate to determine when to stop mapping
      * @param <T> element type
-     * @return a gatherer that maps elements until the predicate evaluates to true
-     * @throws NullPointerException if the mapper or predicate is null
+     * @return a gatherer that pushes views of chunks where all elements are equal
+     * @see #equalChunks()
+     * @see <a href="https://github.com/jhspetersson/packrat#borrowed-views">Borrowed views</a>
+     */
+    @NonNull
+    public static <T extends Comparable<? super T>> Gatherer<T, ?, List<T>> equalChunksView() {
+        return equalChunksViewBy(Function.identity());
+    }
+
+    /**
+     * Returns lists ("chunks") of elements where all elements in a chunk are equal, without copying the chunks.
+     * Comparison is done with the supplied comparator.
+     * Every chunk is a borrowed view that is only valid until the next element arrives.
+     *
+     * @param comparator comparator for comparing elements
+     * @param <T> element type
+     * @return a gatherer that pushes views of chunks where all elements are equal, using the provided comparator
+     * @throws NullPointerException if the comparator is null
+     * @see #equalChunks(Comparator)
+     * @see <a href="https://github.com/jhspetersson/packrat#borrowed-views">Borrowed views</a>
+     */
+    @NonNull
+    public static <T> Gatherer<T, ?, List<T>> equalChunksView(@NonNull Comparator<? super T> comparator) {
+        Objects.requireNonNull(comparator, "comparator cannot be null");
+
+        return new EqualChunksGatherer<>(Function.identity(), comparator, true);
+    }
+
+    /**
+     * Returns lists ("chunks") of elements where all elements in a chunk are equal after applying the mapping function,
+     * without copying the chunks.
+     * Every chunk is a borrowed view that is only valid until the next element arrives.
+     *
+     * <pre>
+     *   Stream.of("apple", "avocado", "banana", "blueberry", "cherry")
+     *       .gather(equalChunksViewBy(s -> s.charAt(0)))
+     *       .forEach(chunk -> System.out.println(chunk));
+     *
+     *   [apple, avocado]
+     *   [banana, blueberry]
+     *   [cherry]
+     * </pre>
+     *
+     * @param mapper mapping function
+     * @param <T> element type
+     * @param <U> mapped element type
+     * @return a gatherer that pushes views of chunks where all elements are equal after applying the mapping function
+     * @throws NullPointerException if the mapper is null
+     * @see #equalChunksBy(Function)
+     * @see <a href="https://github.com/jhspetersson/packrat#borrowed-views">Borrowed views</a>
+     */
+    @NonNull
+    public static <T, U> Gatherer<T, ?, List<T>> equalChunksViewBy(@NonNull Function<? super T, ? extends U> mapper) {
+        return new EqualChunksGatherer<>(mapper, null, true);
+    }
+
+    /**
+     * Returns lists ("chunks") of elements where all elements in a chunk are equal after applying the mapping function,
+     * without copying the chunks. Comparison is done with the supplied comparator.
+     * Every chunk is a borrowed view that is only valid until the next element arrives.
+     *
+     * @param mapper mapping function
+     * @param comparator comparator for comparing mapped values
+     * @param <T> element type
+     * @param <U> mapped element type
+     * @return a gatherer that pushes views of chunks where all elements are equal
+     * after applying the mapping function, using the provided comparator
+     * @throws NullPointerException if the mapper or comparator is null
+     * @see #equalChunksBy(Function, Comparator)
+     * @see <a href="https://github.com/jhspetersson/packrat#borrowed-views">Borrowed views</a>
+     */
+    @NonNull
+    public static <T, U> Gatherer<T, ?, List<T>> equalChunksViewBy(@NonNull Function<? super T, ? extends U> mapper, @NonNull Comparator<? super U> comparator) {
+        Objects.requireNonNull(comparator, "comparator cannot be null");
+
+        return new EqualChunksGatherer<>(mapper, comparator, true);
+    }
+
+    /**
+     * Returns <code>n</code> copies of every element.
+     *
+     * @param n how many copies, value equal to zero effectively empties the stream.
+     * @param <T> element type
+     * @return a gatherer that produces <code>n</code> copies of each element in the stream
+     * @throws IllegalArgumentException if <code>n</code> is negative
+     */
+    @NonNull
+    public static <T> Gatherer<T, ?, T> nCopies(long n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be a non-negative number");
+        }
+        if (n == 0) {
+            return empty();
+        }
+        if (n == 1) {
+            return new IdentityGatherer<>();
+        }
+
+        return new NCopiesGatherer<>(n);
+    }
+
+    /**
+     * Collects the whole stream and repeats it <code>n</code> times.
+     *
+     * @param n how many times to repeat the stream, value equal to zero effectively empties the stream
+     * @param <T> element type
+     * @return a gatherer that collects the whole stream and repeats it <code>n</code> times
+     * @throws IllegalArgumentException if <code>n</code> is negative
+     */
+    @NonNull
+    public static <T> Gatherer<T, ?, T> repeat(long n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be a non-negative number");
+        }
+        if (n == 0) {
+            return empty();
+        }
+        if (n == 1) {
+            return new IdentityGatherer<>();
+        }
+
+        return new RepeatGatherer<>(n);
+    }
+
+    /**
+     * Collects the whole stream and repeats it <code>n</code> times.
+     * Elements beyond the threshold of the {@link SpillPolicy} are spilled to a temporary file,
+     * so the stream can be larger than the heap.
+     *
+     * @param n how many times to repeat the stream, value equal to zero effectively empties the stream
+     * @param policy spill policy
+     * @param <T> element type
+     * @return a gatherer that collects the whole stream and repeats it <code>n</code> times
+     * @throws IllegalArgumentException if <code>n</code> is negative
+     * @throws NullPointerException if the policy is null
+     */
+    @NonNull
+    public static <T> Gatherer<T, ?, T> repeat(long n, @NonNull SpillPolicy<T> policy) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be a non-negative number");
+        }
+        Objects.requireNonNull(policy, "policy cannot be null");
+        if (n == 0) {
+            return empty();
+        }
+        if (n == 1) {
+            return new IdentityGatherer<>();
+        }
+
+        return new SpillingGatherer<>(policy, (buffer, downstream) -> SpillingGatherer.repeat(buffer, n, downstream));
+    }
+
+    /**
+     * Returns a gatherer that discards all elements and short-circuits immediately.
+     */
+    private static <T> Gatherer<T, ?, T> empty() {
+        return Gatherer.of(Gatherer.Integrator.of((_, _, _) -> false));
+    }
+
+    /**
+     * Returns all elements, the first element is mapped with the supplied mapping function.
+     *
+     * @param mapper mapping function
+     * @param <T> element type
+     * @return a gatherer that maps only the first element in the stream using the provided function
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T> Gatherer<T, ?, T> mapFirst(@NonNull Function<? super T, ? extends T> mapper) {
+        return skipAndMapN(0L, 1L, mapper);
+    }
+
+    /**
+     * Returns all elements, the first <code>mapN</code> elements are mapped with the supplied mapping function.
+     *
+     * @param mapN number of elements to map
+     * @param mapper mapping function
+     * @param <T> element type
+     * @return a gatherer that maps the first <code>mapN</code> elements in the stream using the provided function
+     * @throws IllegalArgumentException if <code>mapN</code> is negative
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T> Gatherer<T, ?, T> mapN(long mapN, @NonNull Function<? super T, ? extends T> mapper) {
+        return skipAndMapN(0L, mapN, mapper);
+    }
+
+    /**
+     * Returns all elements that after the first <code>skipN</code> are mapped with the supplied mapping function.
+     *
+     * @param skipN number of elements to skip before mapping
+     * @param mapper mapping function
+     * @param <T> element type
+     * @return a gatherer that maps all elements after skipping the first <code>skipN</code> elements
+     * @throws IllegalArgumentException if <code>skipN</code> is negative
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T> Gatherer<T, ?, T> skipAndMap(long skipN, @NonNull Function<? super T, ? extends T> mapper) {
+        if (skipN < 0) {
+            throw new IllegalArgumentException("skipN must be a non-negative number");
+        }
+
+        return new MappingGatherer<>(skipN, -1L, mapper);
+    }
+
+    /**
+     * Returns all elements, after <code>skipN</code> elements the first <code>mapN</code> elements are mapped with the supplied mapping function.
+     *
+     * @param skipN number of elements to skip before mapping
+     * @param mapN number of elements to map after skipping
+     * @param mapper mapping function
+     * @param <T> element type
+     * @return a gatherer that maps <code>mapN</code> elements after skipping <code>skipN</code> elements
+     * @throws IllegalArgumentException if <code>skipN</code> or <code>mapN</code> is negative
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T> Gatherer<T, ?, T> skipAndMapN(long skipN, long mapN, @NonNull Function<? super T, ? extends T> mapper) {
+        if (skipN < 0) {
+            throw new IllegalArgumentException("skipN must be a non-negative number");
+        }
+        if (mapN < 0) {
+            throw new IllegalArgumentException("mapN must be a non-negative number");
+        }
+
+        return new MappingGatherer<>(skipN, mapN, mapper);
+    }
+
+    /**
+     * Maps elements using the supplied mapping function while the predicate evaluates to true.
+     * Once the predicate evaluates to false, no further elements are mapped, and the original elements are passed downstream.
+     *
+     * @param mapper mapping function
+     * @param predicate predicate to determine when to stop mapping
+     * @param <T> element type
+     * @return a gatherer that maps elements while the predicate evaluates to true
+     * @throws NullPointerException if the mapper or predicate is null
+     */
+    @NonNull
+    public static <T> Gatherer<T, ?, T> mapWhile(@NonNull Function<? super T, ? extends T> mapper, @NonNull Predicate<? super T> predicate) {
+        Objects.requireNonNull(predicate, "predicate cannot be null");
+        return new MapWhileUntilGatherer<>(mapper, predicate);
+    }
+
+    /**
+     * Maps elements using the supplied mapping function until the predicate evaluates to true.
+     * Once the predicate evaluates to true, no further elements are mapped, and the original elements are passed downstream.
+     *
+     * @param mapper mapping function
+     * @param predicate predicate to determine when to stop mapping
+     * @param <T> element type
+     * @return a gatherer that maps elements until the predicate evaluates to true
+     * @throws NullPointerException if the mapper or predicate is null
      */
     @NonNull
     public static <T> Gatherer<T, ?, T> mapUntil(@NonNull Function<? super T, ? extends T> mapper, @NonNull Predicate<? super T> predicate) {
@@ -840,6 +1364,42 @@ public final class Packrat {
      */
     @NonNull
     public static <T, U> Gatherer<T, ?, U> zipWithIndex(@NonNull BiFunction<Long, ? super T, ? extends U> mapper, long startIndex) {
+        Objects.requireNonNull(mapper, "mapper cannot be null");
+        return new ZipWithIndexGatherer<T, U>(mapper::apply, startIndex);
+    }
+
+    /**
+     * Returns elements mapped ("zipped") with an increasing index.
+     * Mapping function receives the index as the first argument, as a primitive <code>long</code>,
+     * so no index is boxed.
+     *
+     * @param mapper zipping function
+     * @param <T> element type
+     * @param <U> result ("zipped") type
+     * @return a gatherer that produces elements by zipping stream elements with their indices using the mapper function
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T, U> Gatherer<T, ?, U> zipWithLongIndex(@NonNull LongObjFunction<? super T, ? extends U> mapper) {
+        return zipWithLongIndex(mapper, 0L);
+    }
+
+    /**
+     * Returns elements mapped ("zipped") with an increasing index.
+     * Mapping function receives the index as the first argument, as a primitive <code>long</code>,
+     * so no index is boxed.
+     *
+     * @param mapper zipping function
+     * @param startIndex starting index
+     * @param <T> element type
+     * @param <U> result ("zipped") type
+     * @return a gatherer
+     * that produces elements by zipping stream elements with their indices starting from the specified index
+     * using the mapper function
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T, U> Gatherer<T, ?, U> zipWithLongIndex(@NonNull LongObjFunction<? super T, ? extends U> mapper, long startIndex) {
         return new ZipWithIndexGatherer<>(mapper, startIndex);
     }
 
@@ -879,23 +1439,223 @@ public final class Packrat {
     }
 
     /**
-     * Returns fixed-size windows of elements along with their indices.
-     * Each window contains a fixed number of elements and is emitted as a list.
-     * If the stream contains fewer elements than the window size, a single window containing all of them is emitted.
-     * The index starts from 0.
+     * Returns elements mapped with an increasing index.
+     * Mapping function receives the index as the first argument, as a primitive <code>long</code>.
+     * This is a synonym for {@link #zipWithLongIndex(LongObjFunction)}.
      *
-     * @param windowSize the size of each window
+     * @param mapper mapping function
      * @param <T> element type
-     * @return a gatherer that produces fixed-size windows of elements along with their indices
-     * @throws IllegalArgumentException if windowSize is not positive
+     * @param <U> result type
+     * @return a gatherer that produces elements by mapping stream elements with their indices using the mapper function
+     * @throws NullPointerException if the mapper is null
      */
     @NonNull
-    public static <T> Gatherer<T, ?, Map.Entry<Long, List<T>>> windowSlidingWithIndex(int windowSize) {
-        return windowSlidingWithIndex(windowSize, Map::entry);
+    public static <T, U> Gatherer<T, ?, U> mapWithLongIndex(@NonNull LongObjFunction<? super T, ? extends U> mapper) {
+        return zipWithLongIndex(mapper);
     }
 
     /**
-     * Returns fixed-size windows of elements along with their indices.
+     * Returns elements mapped with an increasing index.
+     * Mapping function receives the index as the first argument, as a primitive <code>long</code>.
+     * This is a synonym for {@link #zipWithLongIndex(LongObjFunction, long)}.
+     *
+     * @param mapper mapping function
+     * @param startIndex starting index
+     * @param <T> element type
+     * @param <U> result type
+     * @return a gatherer
+     * that produces elements by mapping stream elements with their indices starting from the specified index
+     * using the mapper function
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T, U> Gatherer<T, ?, U> mapWithLongIndex(@NonNull LongObjFunction<? super T, ? extends U> mapper, long startIndex) {
+        return zipWithLongIndex(mapper, startIndex);
+    }
+
+    /**
+     * Returns elements mapped ("zipped") with an increasing index, evaluating in parallel when the stream is parallel.
+     * Output type is {@link java.util.Map.Entry} with a Long key and an element as a value.
+     *
+     * @param <T> element type
+     * @return a gatherer that produces map entries from zipping stream elements with their indices, supporting parallel evaluation
+     * @see #parallelZipWithIndex(BiFunction, long)
+     */
+    @NonNull
+    public static <T> Gatherer<T, ?, Map.Entry<Long, ? extends T>> parallelZipWithIndex() {
+        return parallelZipWithIndex(Map::entry);
+    }
+
+    /**
+     * Returns elements mapped ("zipped") with an increasing index, evaluating in parallel when the stream is parallel.
+     * Mapping function receives the index as the first argument.
+     *
+     * @param mapper zipping function
+     * @param <T> element type
+     * @param <U> result ("zipped") type
+     * @return a gatherer that produces elements by zipping stream elements with their indices using the mapper function,
+     * supporting parallel evaluation
+     * @throws NullPointerException if the mapper is null
+     * @see #parallelZipWithIndex(BiFunction, long)
+     */
+    @NonNull
+    public static <T, U> Gatherer<T, ?, U> parallelZipWithIndex(@NonNull BiFunction<Long, ? super T, ? extends U> mapper) {
+        return parallelZipWithIndex(mapper, 0L);
+    }
+
+    /**
+     * Returns elements mapped ("zipped") with an increasing index, evaluating in parallel when the stream is parallel.
+     * Mapping function receives the index as the first argument.
+     * <p>
+     * Unlike {@link #zipWithIndex(BiFunction, long)}, this gatherer collects the whole stream before emitting anything:
+     * every split of a parallel stream buffers its elements, then the starting index of every split is computed
+     * from the sizes of the preceding ones, and the splits are mapped in parallel. The mapping function
+     * may therefore be called from several threads.
+     *
+     * @param mapper zipping function
+     * @param startIndex starting index
+     * @param <T> element type
+     * @param <U> result ("zipped") type
+     * @return a gatherer
+     * that produces elements by zipping stream elements with their indices starting from the specified index
+     * using the mapper function, supporting parallel evaluation
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T, U> Gatherer<T, ?, U> parallelZipWithIndex(@NonNull BiFunction<Long, ? super T, ? extends U> mapper, long startIndex) {
+        Objects.requireNonNull(mapper, "mapper cannot be null");
+        return new ParallelZipWithIndexGatherer<T, U>(mapper::apply, startIndex);
+    }
+
+    /**
+     * Returns elements mapped with an increasing index, evaluating in parallel when the stream is parallel.
+     * Mapping function receives the index as the first argument.
+     * This is a synonym for {@link #parallelZipWithIndex(BiFunction)}.
+     *
+     * @param mapper mapping function
+     * @param <T> element type
+     * @param <U> result type
+     * @return a gatherer that produces elements by mapping stream elements with their indices using the mapper function,
+     * supporting parallel evaluation
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T, U> Gatherer<T, ?, U> parallelMapWithIndex(@NonNull BiFunction<Long, ? super T, ? extends U> mapper) {
+        return parallelZipWithIndex(mapper);
+    }
+
+    /**
+     * Returns elements mapped with an increasing index, evaluating in parallel when the stream is parallel.
+     * Mapping function receives the index as the first argument.
+     * This is a synonym for {@link #parallelZipWithIndex(BiFunction, long)}.
+     *
+     * @param mapper mapping function
+     * @param startIndex starting index
+     * @param <T> element type
+     * @param <U> result type
+     * @return a gatherer
+     * that produces elements by mapping stream elements with their indices starting from the specified index
+     * using the mapper function, supporting parallel evaluation
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T, U> Gatherer<T, ?, U> parallelMapWithIndex(@NonNull BiFunction<Long, ? super T, ? extends U> mapper, long startIndex) {
+        return parallelZipWithIndex(mapper, startIndex);
+    }
+
+    /**
+     * Returns elements mapped ("zipped") with an increasing index, evaluating in parallel when the stream is parallel.
+     * Mapping function receives the index as the first argument, as a primitive <code>long</code>,
+     * so no index is boxed.
+     *
+     * @param mapper zipping function
+     * @param <T> element type
+     * @param <U> result ("zipped") type
+     * @return a gatherer that produces elements by zipping stream elements with their indices using the mapper function,
+     * supporting parallel evaluation
+     * @throws NullPointerException if the mapper is null
+     * @see #parallelZipWithIndex(BiFunction, long)
+     */
+    @NonNull
+    public static <T, U> Gatherer<T, ?, U> parallelZipWithLongIndex(@NonNull LongObjFunction<? super T, ? extends U> mapper) {
+        return parallelZipWithLongIndex(mapper, 0L);
+    }
+
+    /**
+     * Returns elements mapped ("zipped") with an increasing index, evaluating in parallel when the stream is parallel.
+     * Mapping function receives the index as the first argument, as a primitive <code>long</code>,
+     * so no index is boxed.
+     * <p>
+     * Like {@link #parallelZipWithIndex(BiFunction, long)}, this gatherer collects the whole stream before emitting anything.
+     *
+     * @param mapper zipping function
+     * @param startIndex starting index
+     * @param <T> element type
+     * @param <U> result ("zipped") type
+     * @return a gatherer
+     * that produces elements by zipping stream elements with their indices starting from the specified index
+     * using the mapper function, supporting parallel evaluation
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T, U> Gatherer<T, ?, U> parallelZipWithLongIndex(@NonNull LongObjFunction<? super T, ? extends U> mapper, long startIndex) {
+        return new ParallelZipWithIndexGatherer<>(mapper, startIndex);
+    }
+
+    /**
+     * Returns elements mapped with an increasing index, evaluating in parallel when the stream is parallel.
+     * Mapping function receives the index as the first argument, as a primitive <code>long</code>.
+     * This is a synonym for {@link #parallelZipWithLongIndex(LongObjFunction)}.
+     *
+     * @param mapper mapping function
+     * @param <T> element type
+     * @param <U> result type
+     * @return a gatherer that produces elements by mapping stream elements with their indices using the mapper function,
+     * supporting parallel evaluation
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T, U> Gatherer<T, ?, U> parallelMapWithLongIndex(@NonNull LongObjFunction<? super T, ? extends U> mapper) {
+        return parallelZipWithLongIndex(mapper);
+    }
+
+    /**
+     * Returns elements mapped with an increasing index, evaluating in parallel when the stream is parallel.
+     * Mapping function receives the index as the first argument, as a primitive <code>long</code>.
+     * This is a synonym for {@link #parallelZipWithLongIndex(LongObjFunction, long)}.
+     *
+     * @param mapper mapping function
+     * @param startIndex starting index
+     * @param <T> element type
+     * @param <U> result type
+     * @return a gatherer
+     * that produces elements by mapping stream elements with their indices starting from the specified index
+     * using the mapper function, supporting parallel evaluation
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T, U> Gatherer<T, ?, U> parallelMapWithLongIndex(@NonNull LongObjFunction<? super T, ? extends U> mapper, long startIndex) {
+        return parallelZipWithLongIndex(mapper, startIndex);
+    }
+
+    /**
+     * Returns fixed-size windows of elements along with their indices.
+     * Each window contains a fixed number of elements and is emitted as a list.
+     * If the stream contains fewer elements than the window size, a single window containing all of them is emitted.
+     * The index starts from 0.
+     *
+     * @param windowSize the size of each window
+     * @param <T> element type
+     * @return a gatherer that produces fixed-size windows of elements along with their indices
+     * @throws IllegalArgumentException if windowSize is not positive
+     */
+    @NonNull
+    public static <T> Gatherer<T, ?, Map.Entry<Long, List<T>>> windowSlidingWithIndex(int windowSize) {
+        return windowSlidingWithIndex(windowSize, Map::entry);
+    }
+
+    /**
+     * Returns fixed-size windows of elements along with their indices.
      * Each window contains a fixed number of elements and is emitted as a list.
      * If the stream contains fewer elements than the window size, a single window containing all of them is emitted.
      * The index starts from the specified startIndex.
@@ -921,111 +1681,724 @@ public final class Packrat {
      * @param mapper the function to map each window with its index to a result
      * @param <T> element type
      * @param <R> result type
-     * @return a gatherer that produces fixed-size windows of elements along with their indices, mapped using the provided function
+     * @return a gatherer that produces fixed-size windows of elements along with their indices, mapped using the provided function
+     * @throws IllegalArgumentException if windowSize is not positive
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T, R> Gatherer<T, ?, R> windowSlidingWithIndex(int windowSize, @NonNull BiFunction<Long, List<T>, ? extends R> mapper) {
+        return windowSlidingWithIndex(windowSize, mapper, 0);
+    }
+
+    /**
+     * Returns fixed-size windows of elements along with their indices.
+     * Each window contains a fixed number of elements.
+     * If the stream contains fewer elements than the window size, a single window containing all of them is emitted.
+     * The index starts from the specified startIndex.
+     *
+     * @param windowSize the size of each window
+     * @param mapper the function to map each window with its index to a result
+     * @param startIndex the starting index
+     * @param <T> element type
+     * @param <R> result type
+     * @return a gatherer that produces fixed-size windows of elements along with their indices starting from the specified index,
+     * mapped using the provided function
+     * @throws IllegalArgumentException if windowSize is not positive
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T, R> Gatherer<T, ?, R> windowSlidingWithIndex(int windowSize, @NonNull BiFunction<Long, List<T>, ? extends R> mapper, long startIndex) {
+        return new WindowSlidingWithIndexGatherer<>(windowSize, mapper, startIndex);
+    }
+
+    /**
+     * Returns fixed-size windows of elements along with their indices, emitting only every <code>step</code>-th window.
+     * Windows start <code>step</code> elements apart, so they overlap when the step is smaller than the window size
+     * and skip elements when it is larger. Windows in between are never copied or mapped.
+     * If the stream contains fewer elements than the window size, a single window containing all of them is emitted.
+     * The index counts the emitted windows and starts from 0.
+     *
+     * <pre>
+     *   var windows = IntStream.rangeClosed(1, 7).boxed()
+     *       .gather(windowSlidingWithIndex(3, 2, (index, window) -> index + "=" + window))
+     *       .toList();
+     *   System.out.println(windows);
+     *
+     *   [0=[1, 2, 3], 1=[3, 4, 5], 2=[5, 6, 7]]
+     * </pre>
+     *
+     * @param windowSize the size of each window
+     * @param step the number of elements between the starts of emitted windows
+     * @param mapper the function to map each window with its index to a result
+     * @param <T> element type
+     * @param <R> result type
+     * @return a gatherer that produces every step-th fixed-size window of elements along with its index, mapped using the provided function
+     * @throws IllegalArgumentException if windowSize or step is not positive
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T, R> Gatherer<T, ?, R> windowSlidingWithIndex(int windowSize, int step, @NonNull BiFunction<Long, List<T>, ? extends R> mapper) {
+        return windowSlidingWithIndex(windowSize, step, mapper, 0);
+    }
+
+    /**
+     * Returns fixed-size windows of elements along with their indices, emitting only every <code>step</code>-th window,
+     * see {@link #windowSlidingWithIndex(int, int, BiFunction)}.
+     * The index counts the emitted windows and starts from the specified startIndex.
+     *
+     * @param windowSize the size of each window
+     * @param step the number of elements between the starts of emitted windows
+     * @param mapper the function to map each window with its index to a result
+     * @param startIndex the starting index
+     * @param <T> element type
+     * @param <R> result type
+     * @return a gatherer that produces every step-th fixed-size window of elements along with its index
+     * starting from the specified index, mapped using the provided function
+     * @throws IllegalArgumentException if windowSize or step is not positive
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T, R> Gatherer<T, ?, R> windowSlidingWithIndex(int windowSize, int step, @NonNull BiFunction<Long, List<T>, ? extends R> mapper, long startIndex) {
+        return new WindowSlidingWithIndexGatherer<>(windowSize, step, mapper, startIndex, true);
+    }
+
+    /**
+     * Returns fixed-size windows of elements along with their indices, without copying the windows.
+     * The mapper receives a read-only view over the internal buffer instead of a new list for every window,
+     * so sliding a large window costs no allocation per element.
+     * <p>
+     * The view is only valid during the call of the mapper, since the buffer slides on with the next element.
+     * The mapper must not keep the view or return it, and should copy it if the elements are needed later.
+     * The index starts from 0.
+     *
+     * <pre>
+     *   var sums = IntStream.range(0, 6).boxed()
+     *       .gather(windowSlidingViewWithIndex(3, (index, window) -> window.stream().mapToInt(i -> i).sum()))
+     *       .toList();
+     *   System.out.println(sums);
+     *
+     *   [3, 6, 9, 12]
+     * </pre>
+     *
+     * @param windowSize the size of each window
+     * @param mapper the function to map each window view with its index to a result
+     * @param <T> element type
+     * @param <R> result type
+     * @return a gatherer that produces results of mapping views of fixed-size windows along with their indices
+     * @throws IllegalArgumentException if windowSize is not positive
+     * @throws NullPointerException if the mapper is null
+     * @see #windowSlidingWithIndex(int, BiFunction)
+     * @see <a href="https://github.com/jhspetersson/packrat#borrowed-views">Borrowed views</a>
+     */
+    @NonNull
+    public static <T, R> Gatherer<T, ?, R> windowSlidingViewWithIndex(int windowSize, @NonNull BiFunction<Long, List<T>, ? extends R> mapper) {
+        return windowSlidingViewWithIndex(windowSize, mapper, 0);
+    }
+
+    /**
+     * Returns fixed-size windows of elements along with their indices, without copying the windows.
+     * The mapper receives a read-only view over the internal buffer, which is only valid during the call,
+     * see {@link #windowSlidingViewWithIndex(int, BiFunction)}.
+     * The index starts from the specified startIndex.
+     *
+     * @param windowSize the size of each window
+     * @param mapper the function to map each window view with its index to a result
+     * @param startIndex the starting index
+     * @param <T> element type
+     * @param <R> result type
+     * @return a gatherer that produces results of mapping views of fixed-size windows along with their indices
+     * starting from the specified index
+     * @throws IllegalArgumentException if windowSize is not positive
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T, R> Gatherer<T, ?, R> windowSlidingViewWithIndex(int windowSize, @NonNull BiFunction<Long, List<T>, ? extends R> mapper, long startIndex) {
+        return new WindowSlidingWithIndexGatherer<>(windowSize, mapper, startIndex, false);
+    }
+
+    /**
+     * Returns fixed-size windows of elements along with their indices, emitting only every <code>step</code>-th window,
+     * without copying the windows. The mapper receives a read-only view over the internal buffer,
+     * which is only valid during the call, see {@link #windowSlidingViewWithIndex(int, BiFunction)}.
+     * The index counts the emitted windows and starts from 0.
+     *
+     * @param windowSize the size of each window
+     * @param step the number of elements between the starts of emitted windows
+     * @param mapper the function to map each window view with its index to a result
+     * @param <T> element type
+     * @param <R> result type
+     * @return a gatherer that produces results of mapping views of every step-th fixed-size window along with its index
+     * @throws IllegalArgumentException if windowSize or step is not positive
+     * @throws NullPointerException if the mapper is null
+     * @see #windowSlidingWithIndex(int, int, BiFunction)
+     */
+    @NonNull
+    public static <T, R> Gatherer<T, ?, R> windowSlidingViewWithIndex(int windowSize, int step, @NonNull BiFunction<Long, List<T>, ? extends R> mapper) {
+        return windowSlidingViewWithIndex(windowSize, step, mapper, 0);
+    }
+
+    /**
+     * Returns fixed-size windows of elements along with their indices, emitting only every <code>step</code>-th window,
+     * without copying the windows. The mapper receives a read-only view over the internal buffer,
+     * which is only valid during the call, see {@link #windowSlidingViewWithIndex(int, BiFunction)}.
+     * The index counts the emitted windows and starts from the specified startIndex.
+     *
+     * @param windowSize the size of each window
+     * @param step the number of elements between the starts of emitted windows
+     * @param mapper the function to map each window view with its index to a result
+     * @param startIndex the starting index
+     * @param <T> element type
+     * @param <R> result type
+     * @return a gatherer that produces results of mapping views of every step-th fixed-size window along with its index
+     * starting from the specified index
+     * @throws IllegalArgumentException if windowSize or step is not positive
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T, R> Gatherer<T, ?, R> windowSlidingViewWithIndex(int windowSize, int step, @NonNull BiFunction<Long, List<T>, ? extends R> mapper, long startIndex) {
+        return new WindowSlidingWithIndexGatherer<>(windowSize, step, mapper, startIndex, false);
+    }
+
+    /**
+     * Returns sums of the mapped values over a sliding window of the specified size,
+     * one sum for every position of the window.
+     * The sum is updated incrementally as elements enter and leave the window, so no window is materialized
+     * and every element costs constant time regardless of the window size.
+     * If the stream contains fewer elements than the window size, a single sum of all of them is emitted.
+     *
+     * <pre>
+     *   var sums = Stream.of(1, 2, 3, 4, 5).gather(slidingSum(3, i -> i)).toList();
+     *   System.out.println(sums);
+     *
+     *   [6.0, 9.0, 12.0]
+     * </pre>
+     *
+     * @param windowSize the size of the window
+     * @param mapper function that maps an element to a {@code double} value
+     * @param <T> element type
+     * @return a gatherer that produces sums of the mapped values over a sliding window
+     * @throws IllegalArgumentException if windowSize is not positive
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T> Gatherer<T, ?, Double> slidingSum(int windowSize, @NonNull ToDoubleFunction<? super T> mapper) {
+        return new SlidingSumGatherer<>(windowSize, mapper, false);
+    }
+
+    /**
+     * Returns averages of the mapped values over a sliding window of the specified size,
+     * one average for every position of the window.
+     * The average is derived from a sum updated incrementally, see {@link #slidingSum(int, ToDoubleFunction)}.
+     * If the stream contains fewer elements than the window size, a single average of all of them is emitted.
+     *
+     * @param windowSize the size of the window
+     * @param mapper function that maps an element to a {@code double} value
+     * @param <T> element type
+     * @return a gatherer that produces averages of the mapped values over a sliding window
+     * @throws IllegalArgumentException if windowSize is not positive
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T> Gatherer<T, ?, Double> slidingAverage(int windowSize, @NonNull ToDoubleFunction<? super T> mapper) {
+        return new SlidingSumGatherer<>(windowSize, mapper, true);
+    }
+
+    /**
+     * Returns minimums of the mapped values over a sliding window of the specified size,
+     * one minimum for every position of the window.
+     * Candidates for the minimum are kept in a monotonic deque, so every element costs amortized constant time
+     * regardless of the window size. A {@code NaN} in the window makes the minimum {@code NaN}.
+     * If the stream contains fewer elements than the window size, a single minimum of all of them is emitted.
+     *
+     * <pre>
+     *   var minimums = Stream.of(3, 1, 4, 1, 5, 9, 2).gather(slidingMin(3, i -> i)).toList();
+     *   System.out.println(minimums);
+     *
+     *   [1.0, 1.0, 1.0, 1.0, 2.0]
+     * </pre>
+     *
+     * @param windowSize the size of the window
+     * @param mapper function that maps an element to a {@code double} value
+     * @param <T> element type
+     * @return a gatherer that produces minimums of the mapped values over a sliding window
+     * @throws IllegalArgumentException if windowSize is not positive
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T> Gatherer<T, ?, Double> slidingMin(int windowSize, @NonNull ToDoubleFunction<? super T> mapper) {
+        return new SlidingExtremumGatherer<>(windowSize, mapper, false);
+    }
+
+    /**
+     * Returns maximums of the mapped values over a sliding window of the specified size,
+     * one maximum for every position of the window.
+     * Candidates for the maximum are kept in a monotonic deque, so every element costs amortized constant time
+     * regardless of the window size. A {@code NaN} in the window makes the maximum {@code NaN}.
+     * If the stream contains fewer elements than the window size, a single maximum of all of them is emitted.
+     *
+     * @param windowSize the size of the window
+     * @param mapper function that maps an element to a {@code double} value
+     * @param <T> element type
+     * @return a gatherer that produces maximums of the mapped values over a sliding window
+     * @throws IllegalArgumentException if windowSize is not positive
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T> Gatherer<T, ?, Double> slidingMax(int windowSize, @NonNull ToDoubleFunction<? super T> mapper) {
+        return new SlidingExtremumGatherer<>(windowSize, mapper, true);
+    }
+
+    /**
+     * Returns fixed-size non-overlapping windows of elements along with their indices.
+     * Each window contains a fixed number of elements and is emitted as a list.
+     * Windows are not sliding but go one after another with a step equal to the window's size.
+     * The final window may contain fewer elements if the stream size is not a multiple of the window size.
+     * The index starts from 0.
+     *
+     * @param windowSize the size of each window
+     * @param <T> element type
+     * @return a gatherer that produces fixed-size non-overlapping windows of elements along with their indices
+     * @throws IllegalArgumentException if windowSize is not positive
+     */
+    @NonNull
+    public static <T> Gatherer<T, ?, Map.Entry<Long, List<T>>> windowFixedWithIndex(int windowSize) {
+        return windowFixedWithIndex(windowSize, Map::entry);
+    }
+
+    /**
+     * Returns fixed-size non-overlapping windows of elements along with their indices.
+     * Each window contains a fixed number of elements and is emitted as a list.
+     * Windows are not sliding but go one after another with a step equal to the window's size.
+     * The final window may contain fewer elements if the stream size is not a multiple of the window size.
+     *
+     * @param windowSize the size of each window
+     * @param startIndex the starting index
+     * @param <T> element type
+     * @return a gatherer
+     * that produces fixed-size non-overlapping windows of elements along with their indices starting from the specified index
+     * @throws IllegalArgumentException if windowSize is not positive
+     */
+    @NonNull
+    public static <T> Gatherer<T, ?, Map.Entry<Long, List<T>>> windowFixedWithIndex(int windowSize, long startIndex) {
+        return windowFixedWithIndex(windowSize, Map::entry, startIndex);
+    }
+
+    /**
+     * Returns fixed-size non-overlapping windows of elements along with their indices.
+     * Each window contains a fixed number of elements and is emitted as a list.
+     * Windows are not sliding but go one after another with a step equal to the window's size.
+     * The final window may contain fewer elements if the stream size is not a multiple of the window size.
+     * The index starts from 0.
+     *
+     * @param windowSize the size of each window
+     * @param mapper the function to map each window with its index to a result
+     * @param <T> element type
+     * @param <R> result type
+     * @return a gatherer that produces fixed-size non-overlapping windows of elements along with their indices,
+     * mapped using the provided function
+     * @throws IllegalArgumentException if windowSize is not positive
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T, R> Gatherer<T, ?, R> windowFixedWithIndex(int windowSize, @NonNull BiFunction<Long, List<T>, ? extends R> mapper) {
+        return windowFixedWithIndex(windowSize, mapper, 0);
+    }
+
+    /**
+     * Returns fixed-size non-overlapping windows of elements along with their indices.
+     * Each window contains a fixed number of elements and is emitted as a list.
+     * Windows are not sliding but go one after another with a step equal to the window's size.
+     * The final window may contain fewer elements if the stream size is not a multiple of the window size.
+     *
+     * @param windowSize the size of each window
+     * @param mapper the function to map each window with its index to a result
+     * @param startIndex the starting index
+     * @param <T> element type
+     * @param <R> result type
+     * @return a gatherer that produces fixed-size non-overlapping windows of elements along with their indices starting from the specified index,
+     * mapped using the provided function
+     * @throws IllegalArgumentException if windowSize is not greater than zero
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T, R> Gatherer<T, ?, R> windowFixedWithIndex(int windowSize, @NonNull BiFunction<Long, List<T>, ? extends R> mapper, long startIndex) {
+        return new WindowFixedWithIndexGatherer<>(windowSize, mapper, startIndex);
+    }
+
+    /**
+     * Returns fixed-size non-overlapping windows of elements along with their indices, without copying the windows.
+     * The mapper receives a read-only view over the internal buffer instead of a new list for every window,
+     * the buffer is cleared after the result has been pushed downstream.
+     * <p>
+     * The view is only valid until then, so the mapper should copy it if the elements are needed later.
+     * The final window may contain fewer elements if the stream size is not a multiple of the window size.
+     * The index starts from 0.
+     *
+     * @param windowSize the size of each window
+     * @param mapper the function to map each window view with its index to a result
+     * @param <T> element type
+     * @param <R> result type
+     * @return a gatherer that produces results of mapping views of fixed-size non-overlapping windows along with their indices
+     * @throws IllegalArgumentException if windowSize is not positive
+     * @throws NullPointerException if the mapper is null
+     * @see #windowFixedWithIndex(int, BiFunction)
+     * @see <a href="https://github.com/jhspetersson/packrat#borrowed-views">Borrowed views</a>
+     */
+    @NonNull
+    public static <T, R> Gatherer<T, ?, R> windowFixedViewWithIndex(int windowSize, @NonNull BiFunction<Long, List<T>, ? extends R> mapper) {
+        return windowFixedViewWithIndex(windowSize, mapper, 0);
+    }
+
+    /**
+     * Returns fixed-size non-overlapping windows of elements along with their indices, without copying the windows.
+     * The mapper receives a read-only view over the internal buffer, which is only valid until the result has been pushed downstream,
+     * see {@link #windowFixedViewWithIndex(int, BiFunction)}.
+     * The index starts from the specified startIndex.
+     *
+     * @param windowSize the size of each window
+     * @param mapper the function to map each window view with its index to a result
+     * @param startIndex the starting index
+     * @param <T> element type
+     * @param <R> result type
+     * @return a gatherer that produces results of mapping views of fixed-size non-overlapping windows along with their indices
+     * starting from the specified index
+     * @throws IllegalArgumentException if windowSize is not positive
+     * @throws NullPointerException if the mapper is null
+     */
+    @NonNull
+    public static <T, R> Gatherer<T, ?, R> windowFixedViewWithIndex(int windowSize, @NonNull BiFunction<Long, List<T>, ? extends R> mapper, long startIndex) {
+        return new WindowFixedWithIndexGatherer<>(windowSize, mapper, startIndex, true);
+    }
+
+    /**
+     * Returns batches of elements limited both by the number of elements and by their total weight,
+     * e.g. the serialized size of the elements to align batches with the buffers of a database or network writer.
+     * A batch is emitted when it holds <code>maxCount</code> elements, or when the next element would push its total weight
+     * over <code>maxWeight</code>. An element heavier than <code>maxWeight</code> is emitted as a batch of its own.
+     * The final batch holds the remaining elements. Batches are read-only lists.
+     *
+     * <pre>
+     *   var batches = Stream.of("a", "bb", "ccc", "dddd", "e", "f", "g")
+     *       .gather(batch(3, String::length, 5))
+     *       .toList();
+     *   System.out.println(batches);
+     *
+     *   [[a, bb], [ccc], [dddd, e], [f, g]]
+     * </pre>
+     *
+     * @param maxCount the maximum number of elements in a batch
+     * @param weigher function that returns the non-negative weight of an element
+     * @param maxWeight the maximum total weight of a batch
+     * @param <T> element type
+     * @return a gatherer that produces batches of elements limited by their count and total weight
+     * @throws IllegalArgumentException if maxCount or maxWeight is not positive, or when the weigher returns a negative weight
+     * @throws NullPointerException if the weigher is null
+     */
+    @NonNull
+    public static <T> Gatherer<T, ?, List<T>> batch(int maxCount, @NonNull ToLongFunction<? super T> weigher, long maxWeight) {
+        return new BatchingGatherer<>(maxCount, weigher, maxWeight);
+    }
+
+    /**
+     * Returns fixed-size windows of values mapped to primitive {@code double} along with their indices.
+     * Values are buffered without boxing, and every window is passed to the mapper as a new {@code double[]}.
+     * If the stream contains fewer elements than the window size, a single window containing all of them is emitted.
+     * The index starts from 0.
+     *
+     * <pre>
+     *   var sums = Stream.of(1.5, 2.5, 3.5, 4.5)
+     *       .gather(windowSlidingDoubleWithIndex(3, e -> e, (index, window) -> Arrays.stream(window).sum()))
+     *       .toList();
+     *   System.out.println(sums);
+     *
+     *   [7.5, 10.5]
+     * </pre>
+     *
+     * @param windowSize the size of each window
+     * @param valueMapper function that maps an element to a {@code double} value
+     * @param mapper the function to map each window with its index to a result
+     * @param <T> element type
+     * @param <R> result type
+     * @return a gatherer that produces sliding windows of primitive values along with their indices, mapped using the provided function
+     * @throws IllegalArgumentException if windowSize is not positive
+     * @throws NullPointerException if any of the mappers is null
+     * @see #windowSlidingWithIndex(int, BiFunction)
+     */
+    @NonNull
+    public static <T, R> Gatherer<T, ?, R> windowSlidingDoubleWithIndex(int windowSize, @NonNull ToDoubleFunction<? super T> valueMapper, @NonNull LongObjFunction<double[], ? extends R> mapper) {
+        return new DoubleWindowWithIndexGatherer<>(windowSize, valueMapper, mapper, true);
+    }
+
+    /**
+     * Returns fixed-size non-overlapping windows of values mapped to primitive {@code double} along with their indices.
+     * Values are buffered without boxing, and every window is passed to the mapper as a new {@code double[]}.
+     * The final window may contain fewer values if the stream size is not a multiple of the window size.
+     * The index starts from 0.
+     *
+     * <pre>
+     *   var sums = Stream.of(1.5, 2.5, 3.5, 4.5)
+     *       .gather(windowFixedDoubleWithIndex(2, e -> e, (index, window) -> Arrays.stream(window).sum()))
+     *       .toList();
+     *   System.out.println(sums);
+     *
+     *   [4.0, 8.0]
+     * </pre>
+     *
+     * @param windowSize the size of each window
+     * @param valueMapper function that maps an element to a {@code double} value
+     * @param mapper the function to map each window with its index to a result
+     * @param <T> element type
+     * @param <R> result type
+     * @return a gatherer that produces non-overlapping windows of primitive values along with their indices, mapped using the provided function
+     * @throws IllegalArgumentException if windowSize is not positive
+     * @throws NullPointerException if any of the mappers is null
+     * @see #windowFixedWithIndex(int, BiFunction)
+     */
+    @NonNull
+    public static <T, R> Gatherer<T, ?, R> windowFixedDoubleWithIndex(int windowSize, @NonNull ToDoubleFunction<? super T> valueMapper, @NonNull LongObjFunction<double[], ? extends R> mapper) {
+        return new DoubleWindowWithIndexGatherer<>(windowSize, valueMapper, mapper, false);
+    }
+
+    /**
+     * Returns fixed-size windows of values mapped to primitive {@code long} along with their indices.
+     * Values are buffered without boxing, and every window is passed to the mapper as a new {@code long[]}.
+     * If the stream contains fewer elements than the window size, a single window containing all of them is emitted.
+     * The index starts from 0.
+     *
+     * <pre>
+     *   var sums = Stream.of(1L, 2L, 3L, 4L)
+     *       .gather(windowSlidingLongWithIndex(3, e -> e, (index, window) -> Arrays.stream(window).sum()))
+     *       .toList();
+     *   System.out.println(sums);
+     *
+     *   [6, 9]
+     * </pre>
+     *
+     * @param windowSize the size of each window
+     * @param valueMapper function that maps an element to a {@code long} value
+     * @param mapper the function to map each window with its index to a result
+     * @param <T> element type
+     * @param <R> result type
+     * @return a gatherer that produces sliding windows of primitive values along with their indices, mapped using the provided function
+     * @throws IllegalArgumentException if windowSize is not positive
+     * @throws NullPointerException if any of the mappers is null
+     * @see #windowSlidingWithIndex(int, BiFunction)
+     */
+    @NonNull
+    public static <T, R> Gatherer<T, ?, R> windowSlidingLongWithIndex(int windowSize, @NonNull ToLongFunction<? super T> valueMapper, @NonNull LongObjFunction<long[], ? extends R> mapper) {
+        return new LongWindowWithIndexGatherer<>(windowSize, valueMapper, mapper, true);
+    }
+
+    /**
+     * Returns fixed-size non-overlapping windows of values mapped to primitive {@code long} along with their indices.
+     * Values are buffered without boxing, and every window is passed to the mapper as a new {@code long[]}.
+     * The final window may contain fewer values if the stream size is not a multiple of the window size.
+     * The index starts from 0.
+     *
+     * <pre>
+     *   var sums = Stream.of(1L, 2L, 3L, 4L)
+     *       .gather(windowFixedLongWithIndex(2, e -> e, (index, window) -> Arrays.stream(window).sum()))
+     *       .toList();
+     *   System.out.println(sums);
+     *
+     *   [3, 7]
+     * </pre>
+     *
+     * @param windowSize the size of each window
+     * @param valueMapper function that maps an element to a {@code long} value
+     * @param mapper the function to map each window with its index to a result
+     * @param <T> element type
+     * @param <R> result type
+     * @return a gatherer that produces non-overlapping windows of primitive values along with their indices, mapped using the provided function
+     * @throws IllegalArgumentException if windowSize is not positive
+     * @throws NullPointerException if any of the mappers is null
+     * @see #windowFixedWithIndex(int, BiFunction)
+     */
+    @NonNull
+    public static <T, R> Gatherer<T, ?, R> windowFixedLongWithIndex(int windowSize, @NonNull ToLongFunction<? super T> valueMapper, @NonNull LongObjFunction<long[], ? extends R> mapper) {
+        return new LongWindowWithIndexGatherer<>(windowSize, valueMapper, mapper, false);
+    }
+
+    /**
+     * Returns fixed-size windows of values mapped to primitive {@code int} along with their indices.
+     * Values are buffered without boxing, and every window is passed to the mapper as a new {@code int[]}.
+     * If the stream contains fewer elements than the window size, a single window containing all of them is emitted.
+     * The index starts from 0.
+     *
+     * <pre>
+     *   var sums = Stream.of("a", "bb", "ccc", "dddd")
+     *       .gather(windowSlidingIntWithIndex(3, String::length, (index, window) -> Arrays.stream(window).sum()))
+     *       .toList();
+     *   System.out.println(sums);
+     *
+     *   [6, 9]
+     * </pre>
+     *
+     * @param windowSize the size of each window
+     * @param valueMapper function that maps an element to a {@code int} value
+     * @param mapper the function to map each window with its index to a result
+     * @param <T> element type
+     * @param <R> result type
+     * @return a gatherer that produces sliding windows of primitive values along with their indices, mapped using the provided function
      * @throws IllegalArgumentException if windowSize is not positive
-     * @throws NullPointerException if the mapper is null
+     * @throws NullPointerException if any of the mappers is null
+     * @see #windowSlidingWithIndex(int, BiFunction)
      */
     @NonNull
-    public static <T, R> Gatherer<T, ?, R> windowSlidingWithIndex(int windowSize, @NonNull BiFunction<Long, List<T>, ? extends R> mapper) {
-        return windowSlidingWithIndex(windowSize, mapper, 0);
+    public static <T, R> Gatherer<T, ?, R> windowSlidingIntWithIndex(int windowSize, @NonNull ToIntFunction<? super T> valueMapper, @NonNull LongObjFunction<int[], ? extends R> mapper) {
+        return new IntWindowWithIndexGatherer<>(windowSize, valueMapper, mapper, true);
     }
 
     /**
-     * Returns fixed-size windows of elements along with their indices.
-     * Each window contains a fixed number of elements.
-     * If the stream contains fewer elements than the window size, a single window containing all of them is emitted.
-     * The index starts from the specified startIndex.
+     * Returns fixed-size non-overlapping windows of values mapped to primitive {@code int} along with their indices.
+     * Values are buffered without boxing, and every window is passed to the mapper as a new {@code int[]}.
+     * The final window may contain fewer values if the stream size is not a multiple of the window size.
+     * The index starts from 0.
+     *
+     * <pre>
+     *   var sums = Stream.of("a", "bb", "ccc", "dddd")
+     *       .gather(windowFixedIntWithIndex(2, String::length, (index, window) -> Arrays.stream(window).sum()))
+     *       .toList();
+     *   System.out.println(sums);
+     *
+     *   [3, 7]
+     * </pre>
      *
      * @param windowSize the size of each window
+     * @param valueMapper function that maps an element to a {@code int} value
      * @param mapper the function to map each window with its index to a result
-     * @param startIndex the starting index
      * @param <T> element type
      * @param <R> result type
-     * @return a gatherer that produces fixed-size windows of elements along with their indices starting from the specified index,
-     * mapped using the provided function
+     * @return a gatherer that produces non-overlapping windows of primitive values along with their indices, mapped using the provided function
      * @throws IllegalArgumentException if windowSize is not positive
-     * @throws NullPointerException if the mapper is null
+     * @throws NullPointerException if any of the mappers is null
+     * @see #windowFixedWithIndex(int, BiFunction)
      */
     @NonNull
-    public static <T, R> Gatherer<T, ?, R> windowSlidingWithIndex(int windowSize, @NonNull BiFunction<Long, List<T>, ? extends R> mapper, long startIndex) {
-        return new WindowSlidingWithIndexGatherer<>(windowSize, mapper, startIndex);
+    public static <T, R> Gatherer<T, ?, R> windowFixedIntWithIndex(int windowSize, @NonNull ToIntFunction<? super T> valueMapper, @NonNull LongObjFunction<int[], ? extends R> mapper) {
+        return new IntWindowWithIndexGatherer<>(windowSize, valueMapper, mapper, false);
     }
 
     /**
-     * Returns fixed-size non-overlapping windows of elements along with their indices.
-     * Each window contains a fixed number of elements and is emitted as a list.
-     * Windows are not sliding but go one after another with a step equal to the window's size.
-     * The final window may contain fewer elements if the stream size is not a multiple of the window size.
-     * The index starts from 0.
+     * Returns non-overlapping windows of elements by their event time.
+     * The timestamps are in milliseconds, and windows of the specified size start at its multiples counted from the epoch.
+     * A window is emitted as soon as an element with a timestamp at or past its end arrives,
+     * so only the elements of the current window are kept. Windows without elements are skipped.
+     * <p>
+     * The stream is expected to be ordered by timestamp: an element belonging to a window that was already emitted is dropped.
      *
-     * @param windowSize the size of each window
+     * <pre>
+     *   var windows = Stream.of(0L, 400L, 999L, 1000L, 3500L)
+     *       .gather(windowTumblingByTime(t -> t, Duration.ofSeconds(1)))
+     *       .toList();
+     *   System.out.println(windows);
+     *
+     *   [[0, 400, 999], [1000], [3500]]
+     * </pre>
+     *
+     * @param timestampExtractor function that returns the timestamp of an element in milliseconds
+     * @param size the duration of each window
      * @param <T> element type
-     * @return a gatherer that produces fixed-size non-overlapping windows of elements along with their indices
-     * @throws IllegalArgumentException if windowSize is not positive
+     * @return a gatherer that produces non-overlapping windows of elements by their timestamps
+     * @throws IllegalArgumentException if size is shorter than one millisecond
+     * @throws NullPointerException if any of the arguments is null
      */
     @NonNull
-    public static <T> Gatherer<T, ?, Map.Entry<Long, List<T>>> windowFixedWithIndex(int windowSize) {
-        return windowFixedWithIndex(windowSize, Map::entry);
+    public static <T> Gatherer<T, ?, List<T>> windowTumblingByTime(@NonNull ToLongFunction<? super T> timestampExtractor, @NonNull Duration size) {
+        return new TimeWindowGatherer<>(timestampExtractor, size, size);
     }
 
     /**
-     * Returns fixed-size non-overlapping windows of elements along with their indices.
-     * Each window contains a fixed number of elements and is emitted as a list.
-     * Windows are not sliding but go one after another with a step equal to the window's size.
-     * The final window may contain fewer elements if the stream size is not a multiple of the window size.
+     * Returns sliding windows of elements by their event time.
+     * The timestamps are in milliseconds, and windows of the specified size start at multiples of the step counted from the epoch,
+     * so they overlap when the step is shorter than the size, and leave gaps between them when it is longer.
+     * A window is emitted as soon as an element with a timestamp at or past its end arrives,
+     * so only the elements of the currently open windows are kept. Windows without elements are skipped.
+     * <p>
+     * The stream is expected to be ordered by timestamp: an element belonging only to windows that were already emitted is dropped.
      *
-     * @param windowSize the size of each window
-     * @param startIndex the starting index
+     * <pre>
+     *   var windows = Stream.of(0L, 400L, 999L, 1000L, 1600L)
+     *       .gather(windowSlidingByTime(t -> t, Duration.ofSeconds(1), Duration.ofMillis(500)))
+     *       .toList();
+     *   System.out.println(windows);
+     *
+     *   [[0, 400], [0, 400, 999], [999, 1000], [1000, 1600], [1600]]
+     * </pre>
+     *
+     * @param timestampExtractor function that returns the timestamp of an element in milliseconds
+     * @param size the duration of each window
+     * @param step the duration between the starts of consecutive windows
      * @param <T> element type
-     * @return a gatherer
-     * that produces fixed-size non-overlapping windows of elements along with their indices starting from the specified index
-     * @throws IllegalArgumentException if windowSize is not positive
+     * @return a gatherer that produces sliding windows of elements by their timestamps
+     * @throws IllegalArgumentException if size or step is shorter than one millisecond
+     * @throws NullPointerException if any of the arguments is null
      */
     @NonNull
-    public static <T> Gatherer<T, ?, Map.Entry<Long, List<T>>> windowFixedWithIndex(int windowSize, long startIndex) {
-        return windowFixedWithIndex(windowSize, Map::entry, startIndex);
+    public static <T> Gatherer<T, ?, List<T>> windowSlidingByTime(@NonNull ToLongFunction<? super T> timestampExtractor, @NonNull Duration size, @NonNull Duration step) {
+        return new TimeWindowGatherer<>(timestampExtractor, size, step);
     }
 
     /**
-     * Returns fixed-size non-overlapping windows of elements along with their indices.
-     * Each window contains a fixed number of elements and is emitted as a list.
-     * Windows are not sliding but go one after another with a step equal to the window's size.
-     * The final window may contain fewer elements if the stream size is not a multiple of the window size.
-     * The index starts from 0.
+     * Returns sessions of elements with the same key, where a session ends once the specified gap passes
+     * without elements of its key. The timestamps are in milliseconds.
+     * A session is emitted as soon as an element of any key shows that its gap has elapsed,
+     * the sessions still open at the end of the stream are emitted in the order of their last activity.
+     * <p>
+     * The stream is expected to be ordered by timestamp.
      *
-     * @param windowSize the size of each window
-     * @param mapper the function to map each window with its index to a result
+     * <pre>
+     *   record Click(String user, long time) {}
+     *
+     *   var sessions = Stream.of(new Click("ann", 0), new Click("bob", 10), new Click("ann", 20), new Click("bob", 500))
+     *       .gather(sessionWindows(Click::user, Click::time, Duration.ofMillis(100)))
+     *       .map(session -> session.getFirst().user() + " x" + session.size())
+     *       .toList();
+     *   System.out.println(sessions);
+     *
+     *   [bob x1, ann x2, bob x1]
+     * </pre>
+     *
+     * @param keyMapper function that returns the session key of an element
+     * @param timestampExtractor function that returns the timestamp of an element in milliseconds
+     * @param gap the inactivity period that ends a session
      * @param <T> element type
-     * @param <R> result type
-     * @return a gatherer that produces fixed-size non-overlapping windows of elements along with their indices,
-     * mapped using the provided function
-     * @throws IllegalArgumentException if windowSize is not positive
-     * @throws NullPointerException if the mapper is null
+     * @param <K> key type
+     * @return a gatherer that produces sessions of elements with the same key
+     * @throws IllegalArgumentException if gap is shorter than one millisecond
+     * @throws NullPointerException if any of the arguments is null
      */
     @NonNull
-    public static <T, R> Gatherer<T, ?, R> windowFixedWithIndex(int windowSize, @NonNull BiFunction<Long, List<T>, ? extends R> mapper) {
-        return windowFixedWithIndex(windowSize, mapper, 0);
+    public static <T, K> Gatherer<T, ?, List<T>> sessionWindows(@NonNull Function<? super T, ? extends K> keyMapper,
+                                                               @NonNull ToLongFunction<? super T> timestampExtractor,
+                                                               @NonNull Duration gap) {
+        return new SessionWindowGatherer<>(keyMapper, timestampExtractor, gap, Integer.MAX_VALUE, SessionEviction.EMIT);
     }
 
     /**
-     * Returns fixed-size non-overlapping windows of elements along with their indices.
-     * Each window contains a fixed number of elements and is emitted as a list.
-     * Windows are not sliding but go one after another with a step equal to the window's size.
-     * The final window may contain fewer elements if the stream size is not a multiple of the window size.
+     * Returns sessions of elements with the same key, where a session ends once the specified gap passes
+     * without elements of its key, keeping at most <code>maxSessions</code> sessions open.
+     * When an element starts a new session while the limit is reached, the least recently active session
+     * is emitted early or dropped, depending on the <code>eviction</code> policy.
+     * See {@link #sessionWindows(Function, ToLongFunction, Duration)} for details.
      *
-     * @param windowSize the size of each window
-     * @param mapper the function to map each window with its index to a result
-     * @param startIndex the starting index
+     * @param keyMapper function that returns the session key of an element
+     * @param timestampExtractor function that returns the timestamp of an element in milliseconds
+     * @param gap the inactivity period that ends a session
+     * @param maxSessions the maximum number of open sessions
+     * @param eviction what to do with the least recently active session when the limit is reached
      * @param <T> element type
-     * @param <R> result type
-     * @return a gatherer that produces fixed-size non-overlapping windows of elements along with their indices starting from the specified index,
-     * mapped using the provided function
-     * @throws IllegalArgumentException if windowSize is not greater than zero
-     * @throws NullPointerException if the mapper is null
+     * @param <K> key type
+     * @return a gatherer that produces sessions of elements with the same key
+     * @throws IllegalArgumentException if gap is shorter than one millisecond or maxSessions is not positive
+     * @throws NullPointerException if any of the arguments is null
      */
     @NonNull
-    public static <T, R> Gatherer<T, ?, R> windowFixedWithIndex(int windowSize, @NonNull BiFunction<Long, List<T>, ? extends R> mapper, long startIndex) {
-        return new WindowFixedWithIndexGatherer<>(windowSize, mapper, startIndex);
+    public static <T, K> Gatherer<T, ?, List<T>> sessionWindows(@NonNull Function<? super T, ? extends K> keyMapper,
+                                                               @NonNull ToLongFunction<? super T> timestampExtractor,
+                                                               @NonNull Duration gap, int maxSessions,
+                                                               @NonNull SessionEviction eviction) {
+        return new SessionWindowGatherer<>(keyMapper, timestampExtractor, gap, maxSessions, eviction);
     }
 
     /**
@@ -1126,6 +2499,37 @@ public final class Packrat {
      */
     @NonNull
     public static <T> Gatherer<T, ?, T> peekWithIndex(@NonNull BiConsumer<Long, ? super T> consumer, long startIndex) {
+        Objects.requireNonNull(consumer, "consumer cannot be null");
+        return new PeekWithIndexGatherer<T>(consumer::accept, startIndex);
+    }
+
+    /**
+     * Peeks at each element along with its index but passes the original element downstream.
+     * The index starts from 0 and is passed to the consumer as a primitive <code>long</code>.
+     *
+     * @param consumer consumer function that accepts index and element
+     * @param <T> element type
+     * @return a gatherer that peeks at each element with its index and passes the original element downstream
+     * @throws NullPointerException if the consumer is null
+     */
+    @NonNull
+    public static <T> Gatherer<T, ?, T> peekWithLongIndex(@NonNull LongObjConsumer<? super T> consumer) {
+        return peekWithLongIndex(consumer, 0);
+    }
+
+    /**
+     * Peeks at each element along with its index but passes the original element downstream.
+     * The index is passed to the consumer as a primitive <code>long</code>.
+     *
+     * @param consumer consumer function that accepts index and element
+     * @param startIndex starting index
+     * @param <T> element type
+     * @return a gatherer that peeks at each element with its index starting from the specified index
+     * and passes the original element downstream
+     * @throws NullPointerException if the consumer is null
+     */
+    @NonNull
+    public static <T> Gatherer<T, ?, T> peekWithLongIndex(@NonNull LongObjConsumer<? super T> consumer, long startIndex) {
         return new PeekWithIndexGatherer<>(consumer, startIndex);
     }
 
@@ -1154,6 +2558,36 @@ public final class Packrat {
      */
     @NonNull
     public static <T> Gatherer<T, ?, T> filterWithIndex(@NonNull BiPredicate<Long, ? super T> predicate, long startIndex) {
+        Objects.requireNonNull(predicate, "predicate cannot be null");
+        return new FilteringWithIndexGatherer<T>(predicate::test, startIndex);
+    }
+
+    /**
+     * Filters elements based on their index and a predicate.
+     * The index starts from 0 and is passed to the predicate as a primitive <code>long</code>.
+     *
+     * @param predicate predicate function that accepts index and element
+     * @param <T> element type
+     * @return a gatherer that filters elements based on their index and the predicate
+     * @throws NullPointerException if the predicate is null
+     */
+    @NonNull
+    public static <T> Gatherer<T, ?, T> filterWithLongIndex(@NonNull LongObjPredicate<? super T> predicate) {
+        return filterWithLongIndex(predicate, 0);
+    }
+
+    /**
+     * Filters elements based on their index and a predicate.
+     * The index is passed to the predicate as a primitive <code>long</code>.
+     *
+     * @param predicate predicate function that accepts index and element
+     * @param startIndex starting index
+     * @param <T> element type
+     * @return a gatherer that filters elements based on their index starting from the specified index and the predicate
+     * @throws NullPointerException if the predicate is null
+     */
+    @NonNull
+    public static <T> Gatherer<T, ?, T> filterWithLongIndex(@NonNull LongObjPredicate<? super T> predicate, long startIndex) {
         return new FilteringWithIndexGatherer<>(predicate, startIndex);
     }
 
@@ -1182,7 +2616,8 @@ public final class Packrat {
      */
     @NonNull
     public static <T> Gatherer<T, ?, T> removeWithIndex(@NonNull BiPredicate<Long, ? super T> predicate, long startIndex) {
-        return new FilteringWithIndexGatherer<>(predicate, startIndex, true);
+        Objects.requireNonNull(predicate, "predicate cannot be null");
+        return new FilteringWithIndexGatherer<T>(predicate::test, startIndex, true);
     }
 
     /**
@@ -1283,7 +2718,38 @@ public final class Packrat {
      */
     @NonNull
     public static <T> Gatherer<T, ?, T> reverse() {
-        return new IntoListGatherer<>(Collections::reverse);
+        return new ReverseGatherer<>();
+    }
+
+    /**
+     * Reverses the element stream.
+     * Elements beyond the threshold of the {@link SpillPolicy} are spilled to a temporary file,
+     * so the stream can be larger than the heap.
+     *
+     * <pre>
+     *   var policy = new Packrat.SpillPolicy&lt;Integer&gt;(100_000, new Packrat.SpillSerializer&lt;&gt;() {
+     *       public void write(Integer element, DataOutput output) throws IOException {
+     *           output.writeInt(element);
+     *       }
+     *
+     *       public Integer read(DataInput input) throws IOException {
+     *           return input.readInt();
+     *       }
+     *   });
+     *   var reverseOrdered = IntStream.range(0, 1_000_000).boxed().gather(reverse(policy)).limit(3).toList();
+     *   System.out.println(reverseOrdered);
+     *
+     *   [999999, 999998, 999997]
+     * </pre>
+     *
+     * @param policy spill policy
+     * @param <T> element type
+     * @return reverse gatherer
+     * @throws NullPointerException if the policy is null
+     */
+    @NonNull
+    public static <T> Gatherer<T, ?, T> reverse(@NonNull SpillPolicy<T> policy) {
+        return new SpillingGatherer<>(policy, SpillingGatherer::reverse);
     }
 
     /**
@@ -1319,6 +2785,30 @@ public final class Packrat {
         }
     }
 
+    /**
+     * Rotates the element stream.
+     * Elements beyond the threshold of the {@link SpillPolicy} are spilled to a temporary file,
+     * so the stream can be larger than the heap.
+     *
+     * @see java.util.Collections#rotate
+     * @param distance rotation distance, any number
+     * @param policy spill policy
+     * @param <T> element type
+     * @return rotation gatherer
+     * @throws NullPointerException if the policy is null
+     */
+    @NonNull
+    public static <T> Gatherer<T, ?, T> rotate(int distance, @NonNull SpillPolicy<T> policy) {
+        Objects.requireNonNull(policy, "policy cannot be null");
+        if (distance == 0) {
+            return new IdentityGatherer<>();
+        } else if (distance < 0 && distance >= -policy.threshold()) {
+            return new RotateLeftGatherer<>(-distance);
+        } else {
+            return new SpillingGatherer<>(policy, (buffer, downstream) -> SpillingGatherer.rotate(buffer, distance, downstream));
+        }
+    }
+
     /**
      * Shuffles the element stream.
      *
@@ -1334,7 +2824,84 @@ public final class Packrat {
      */
     @NonNull
     public static <T> Gatherer<T, ?, T> shuffle() {
-        return new IntoListGatherer<>(Collections::shuffle);
+        return new ShuffleGatherer<>(SplittableRandom::new);
+    }
+
+    /**
+     * Shuffles the element stream, the same seed and the same stream always give the same order,
+     * no matter whether the stream is sequential or parallel.
+     *
+     * <pre>
+     *   var first = IntStream.range(0, 10).boxed().gather(shuffle(42)).toList();
+     *   var second = IntStream.range(0, 10).boxed().parallel().gather(shuffle(42)).toList();
+     *   System.out.println(first.equals(second));
+     *
+     *   true
+     * </pre>
+     *
+     * @param seed random seed
+     * @param <T> element type
+     * @return shuffle gatherer
+     */
+    @NonNull
+    public static <T> Gatherer<T, ?, T> shuffle(long seed) {
+        return new ShuffleGatherer<>(() -> new SplittableRandom(seed));
+    }
+
+    /**
+     * Shuffles the element stream.
+     * Elements beyond the threshold of the {@link SpillPolicy} are spilled to a temporary file,
+     * so the stream can be larger than the heap. Spilled elements are scattered into random buckets
+     * of about the threshold size, and each bucket is shuffled on the heap on its own.
+     *
+     * @param policy spill policy
+     * @param <T> element type
+     * @return shuffle gatherer
+     * @throws NullPointerException if the policy is null
+     */
+    @NonNull
+    public static <T> Gatherer<T, ?, T> shuffle(@NonNull SpillPolicy<T> policy) {
+        return new SpillingGatherer<>(policy, (buffer, downstream) -> SpillingGatherer.shuffle(buffer, policy, downstream));
+    }
+
+    /**
+     * Shuffles the element stream locally, keeping at most <code>bufferSize</code> elements in memory.
+     * <p>
+     * The buffer is filled first, then every incoming element takes the place of a randomly chosen buffered one,
+     * which is passed down the stream. Elements flow as soon as the buffer is full, so the gatherer works on infinite streams,
+     * but the larger the buffer, the closer the result is to a full shuffle.
+     *
+     * <pre>
+     *   var locallyShuffled = IntStream.range(0, 10).boxed().gather(shuffleBuffered(3)).toList();
+     *   System.out.println(locallyShuffled);
+     *
+     *   [1, 3, 0, 5, 2, 7, 6, 9, 4, 8]
+     * </pre>
+     *
+     * @param bufferSize maximum number of buffered elements
+     * @param <T> element type
+     * @return buffered shuffle gatherer
+     * @throws IllegalArgumentException if <code>bufferSize</code> is not positive
+     */
+    @NonNull
+    public static <T> Gatherer<T, ?, T> shuffleBuffered(int bufferSize) {
+        return new ShuffleBufferGatherer<>(bufferSize, SplittableRandom::new);
+    }
+
+    /**
+     * Shuffles the element stream locally, keeping at most <code>bufferSize</code> elements in memory.
+     * The same seed and the same stream always give the same order.
+     *
+     * @see #shuffleBuffered(int)
+     * @param bufferSize maximum number of buffered elements
+     * @param seed random seed
+     * @param <T> element type
+     * @return buffered shuffle gatherer
+     * @throws IllegalArgumentException if <code>bufferSize</code> is not positive
+     */
+    @NonNull
+    public static <T> Gatherer<T, ?, T> shuffleBuffered(int bufferSize, long seed) {
+        return new ShuffleBufferGatherer<>(bufferSize, () -> new SplittableRandom(seed));
     }
 
     /**
@@ -1414,7 +2981,7 @@ public final class Packrat {
      */
     @NonNull
     public static <T> Gatherer<T, ?, T> even() {
-        return filterWithIndex((index, _) -> index % 2 == 0);
+        return filterWithLongIndex((index, _) -> index % 2 == 0);
     }
 
     /**
@@ -1432,7 +2999,7 @@ public final class Packrat {
      */
     @NonNull
     public static <T> Gatherer<T, ?, T> odd() {
-        return filterWithIndex((index, _) -> index % 2 != 0);
+        return filterWithLongIndex((index, _) -> index % 2 != 0);
     }
 
     /**
@@ -1515,6 +3082,31 @@ public final class Packrat {
         return new DropLastNGatherer<>(n);
     }
 
+    /**
+     * Drops last <code>n</code> elements, evaluating in parallel when the stream is parallel.
+     * <p>
+     * Unlike {@link #dropLast(long)}, which emits elements as soon as <code>n</code> more elements follow them,
+     * this gatherer collects the whole stream before emitting anything, since a split of a parallel stream
+     * cannot know how many elements follow it.
+     *
+     * @param n count of last elements to drop
+     * @param <T> element type
+     * @return a gatherer that drops the last <code>n</code> elements from the stream, supporting parallel evaluation
+     * @throws IllegalArgumentException if <code>n</code> is negative
+     */
+    @NonNull
+    public static <T> Gatherer<T, ?, T> parallelDropLast(long n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be a non-negative number");
+        }
+
+        if (n == 0) {
+            return identity();
+        }
+
+        return new IntoListGatherer<>(list -> list.subList((int) Math.max(0, list.size() - n), list.size()).clear());
+    }
+
     /**
      * Drops the last <code>n</code> unique elements.
      * The final occurrence of each of the last <code>n</code> unique elements in the stream is removed,
@@ -1893,5 +3485,142 @@ public final class Packrat {
         );
     }
 
+    /**
+     * Represents a function that accepts a primitive <code>long</code> index and an object,
+     * and produces a result.
+     *
+     * @param <T> object type
+     * @param <R> result type
+     */
+    @FunctionalInterface
+    public interface LongObjFunction<T, R> {
+        /**
+         * Applies this function to the given arguments.
+         *
+         * @param index the index
+         * @param t the object
+         * @return the function result
+         */
+        R apply(long index, T t);
+    }
+
+    /**
+     * Represents a predicate of a primitive <code>long</code> index and an object.
+     *
+     * @param <T> object type
+     */
+    @FunctionalInterface
+    public interface LongObjPredicate<T> {
+        /**
+         * Evaluates this predicate on the given arguments.
+         *
+         * @param index the index
+         * @param t the object
+         * @return <code>true</code> if the arguments match the predicate
+         */
+        boolean test(long index, T t);
+    }
+
+    /**
+     * Represents an operation that accepts a primitive <code>long</code> index and an object,
+     * and returns no result.
+     *
+     * @param <T> object type
+     */
+    @FunctionalInterface
+    public interface LongObjConsumer<T> {
+        /**
+         * Performs this operation on the given arguments.
+         *
+         * @param index the index
+         * @param t the object
+         */
+        void accept(long index, T t);
+    }
+
+    /**
+     * What {@link #sessionWindows(Function, ToLongFunction, Duration, int, SessionEviction)} does
+     * with the least recently active session when the limit of open sessions is reached.
+     */
+    public enum SessionEviction {
+        /**
+         * The session is emitted before it ends, later elements of its key start a new session.
+         */
+        EMIT,
+        /**
+         * The session is discarded along with its elements.
+         */
+        DROP
+    }
+
+    /**
+     * Writes elements to and reads them back from the temporary files of a {@link SpillPolicy}.
+     *
+     * @param <T> element type
+     */
+    public interface SpillSerializer<T> {
+        /**
+         * Writes the element.
+         *
+         * @param element the element
+         * @param output the output to write to
+         * @throws IOException if an I/O error occurs
+         */
+        void write(T element, DataOutput output) throws IOException;
+
+        /**
+         * Reads the element written by {@link #write}.
+         *
+         * @param input the input to read from
+         * @return the element
+         * @throws IOException if an I/O error occurs
+         */
+        T read(DataInput input) throws IOException;
+    }
+
+    /**
+     * Tells the gatherers that need the whole stream, like {@link #reverse(SpillPolicy)},
+     * how many elements to keep on the heap before spilling them to a temporary file.
+     * Spilled elements are read back segment by segment from the file, which is deleted afterwards.
+     * <p>
+     * The file is also deleted when the serializer fails. If the stream fails elsewhere, e.g. in an upstream operation,
+     * the gatherer is not notified and the file stays open until the JVM exits, and so do the files of the other splits
+     * of a parallel stream that fails. Its name is removed from the directory
+     * as soon as it is opened on file systems that allow deleting open files, like those of Linux and macOS,
+     * while elsewhere the file itself stays there until then.
+     *
+     * @param threshold maximum number of elements kept on the heap
+     * @param serializer serializer for the spilled elements
+     * @param directory directory for the temporary files
+     * @param <T> element type
+     */
+    public record SpillPolicy<T>(int threshold, @NonNull SpillSerializer<T> serializer, @NonNull Path directory) {
+        /**
+         * Creates a spill policy.
+         *
+         * @throws IllegalArgumentException if the threshold is not positive
+         * @throws NullPointerException if the serializer or directory is null
+         */
+        public SpillPolicy {
+            if (threshold <= 0) {
+                throw new IllegalArgumentException("threshold must be a positive number");
+            }
+            Objects.requireNonNull(serializer, "serializer cannot be null");
+            Objects.requireNonNull(directory, "directory cannot be null");
+        }
+
+        /**
+         * Creates a spill policy that writes to the default temporary-file directory.
+         *
+         * @param threshold maximum number of elements kept on the heap
+         * @param serializer serializer for the spilled elements
+         * @throws IllegalArgumentException if the threshold is not positive
+         * @throws NullPointerException if the serializer is null
+         */
+        public SpillPolicy(int threshold, @NonNull SpillSerializer<T> serializer) {
+            this(threshold, serializer, Path.of(System.getProperty("java.io.tmpdir")));
+        }
+    }
+
     private Packrat() {}
 }
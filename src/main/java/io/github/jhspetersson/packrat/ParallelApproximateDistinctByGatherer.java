@@ -0,0 +1,126 @@
+package io.github.jhspetersson.packrat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Gatherer;
+
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Returns elements with distinct values that result from a mapping by the supplied function,
+ * remembering the seen mapped values in a {@link BloomFilter} and evaluating in parallel when the stream is parallel.
+ * <p>
+ * Every split keeps the passed elements along with the hashes of their mapped values.
+ * A split remembers the hashes in a {@link LongHashSet} first, which costs memory in proportion
+ * to the elements it keeps anyway, and switches to a Bloom filter only once the set would outgrow the filter.
+ * Splits are merged left to right, elements of the right split are checked against the filter of the left one,
+ * which is built at that moment if the left split has none yet, and the right split is discarded.
+ * So the mapper is called once per element and the first occurrence wins as with sequential evaluation,
+ * while full-size filters exist only for the splits that are big enough or have been merged.
+ * Elements are emitted by the finisher once the whole stream has been consumed.
+ *
+ * @param <T> element type
+ * @param <U> mapped element type
+ * @author jhspetersson
+ */
+class ParallelApproximateDistinctByGatherer<T, U> implements Gatherer<T, ParallelApproximateDistinctByGatherer.State<T>, T> {
+    private final Function<? super T, ? extends U> mapper;
+    private final ToLongFunction<? super U> hasher;
+    private final long expectedInsertions;
+    private final double fpp;
+    private final int wordCount;
+
+    ParallelApproximateDistinctByGatherer(@NonNull Function<? super T, ? extends U> mapper, @NonNull ToLongFunction<? super U> hasher, long expectedInsertions, double fpp) {
+        Objects.requireNonNull(mapper, "mapper cannot be null");
+        Objects.requireNonNull(hasher, "hasher cannot be null");
+        var wordCount = BloomFilter.wordCount(expectedInsertions, fpp);
+
+        this.mapper = mapper;
+        this.hasher = hasher;
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+        this.wordCount = wordCount;
+    }
+
+    @Override
+    public Supplier<State<T>> initializer() {
+        return State::new;
+    }
+
+    @Override
+    public Integrator<State<T>, T, T> integrator() {
+        return Integrator.ofGreedy((state, element, downstream) -> {
+            var hash = hasher.applyAsLong(mapper.apply(element));
+            if (state.put(hash)) {
+                state.add(element, hash);
+                if (state.set != null && state.set.size() > wordCount) {
+                    // the set takes more than a word per hash, so a filter of wordCount words is smaller by now
+                    state.toFilter(expectedInsertions, fpp);
+                }
+            }
+            return !downstream.isRejecting();
+        });
+    }
+
+    @Override
+    public BinaryOperator<State<T>> combiner() {
+        return (left, right) -> {
+            left.toFilter(expectedInsertions, fpp);
+            for (var i = 0; i < right.elements.size(); i++) {
+                var hash = right.hashes[i];
+                if (left.filter.put(hash)) {
+                    left.add(right.elements.get(i), hash);
+                }
+            }
+            return left;
+        };
+    }
+
+    @Override
+    public BiConsumer<State<T>, Downstream<? super T>> finisher() {
+        return (state, downstream) -> {
+            for (var element : state.elements) {
+                if (!downstream.push(element)) {
+                    return;
+                }
+            }
+        };
+    }
+
+    static class State<T> {
+        LongHashSet set = new LongHashSet();
+        BloomFilter filter;
+        final List<T> elements = new ArrayList<>();
+        long[] hashes = new long[16];
+
+        boolean put(long hash) {
+            return filter != null ? filter.put(hash) : set.add(hash);
+        }
+
+        void toFilter(long expectedInsertions, double fpp) {
+            if (filter == null) {
+                filter = new BloomFilter(expectedInsertions, fpp);
+                for (var i = 0; i < elements.size(); i++) {
+                    filter.put(hashes[i]);
+                }
+                set = null;
+            }
+        }
+
+        void add(T element, long hash) {
+            var size = elements.size();
+            if (size == hashes.length) {
+                hashes = Arrays.copyOf(hashes, size << 1);
+            }
+            hashes[size] = hash;
+            elements.add(element);
+        }
+    }
+}
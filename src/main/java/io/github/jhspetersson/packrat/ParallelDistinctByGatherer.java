@@ -0,0 +1,73 @@
+package io.github.jhspetersson.packrat;
+
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Gatherer;
+
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Returns elements with distinct values that result from a mapping by the supplied function,
+ * evaluating in parallel when the stream is parallel.
+ * <p>
+ * Every split keeps the first element for each mapped value in encounter order,
+ * splits are merged left to right, so the first occurrence wins exactly as with sequential evaluation.
+ * Elements are emitted by the finisher once the whole stream has been consumed.
+ *
+ * @param <T> element type
+ * @param <U> mapped element type
+ * @author jhspetersson
+ */
+class ParallelDistinctByGatherer<T, U> implements Gatherer<T, LinkedHashMap<U, T>, T> {
+    private final Function<? super T, ? extends U> mapper;
+
+    ParallelDistinctByGatherer(@NonNull Function<? super T, ? extends U> mapper) {
+        Objects.requireNonNull(mapper, "mapper cannot be null");
+
+        this.mapper = mapper;
+    }
+
+    @Override
+    public Supplier<LinkedHashMap<U, T>> initializer() {
+        return LinkedHashMap::new;
+    }
+
+    @Override
+    public Integrator<LinkedHashMap<U, T>, T, T> integrator() {
+        return Integrator.ofGreedy((state, element, downstream) -> {
+            var mappedValue = mapper.apply(element);
+            // containsKey rather than putIfAbsent, since null elements are valid values
+            if (!state.containsKey(mappedValue)) {
+                state.put(mappedValue, element);
+            }
+            return !downstream.isRejecting();
+        });
+    }
+
+    @Override
+    public BinaryOperator<LinkedHashMap<U, T>> combiner() {
+        return (left, right) -> {
+            for (var entry : right.entrySet()) {
+                if (!left.containsKey(entry.getKey())) {
+                    left.put(entry.getKey(), entry.getValue());
+                }
+            }
+            return left;
+        };
+    }
+
+    @Override
+    public BiConsumer<LinkedHashMap<U, T>, Downstream<? super T>> finisher() {
+        return (state, downstream) -> {
+            for (var element : state.values()) {
+                if (!downstream.push(element)) {
+                    return;
+                }
+            }
+        };
+    }
+}
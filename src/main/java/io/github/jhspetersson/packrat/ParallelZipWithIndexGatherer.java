@@ -0,0 +1,103 @@
+package io.github.jhspetersson.packrat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.Gatherer;
+import java.util.stream.IntStream;
+
+import io.github.jhspetersson.packrat.Packrat.LongObjFunction;
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Returns elements mapped ("zipped") with an increasing index, evaluating in parallel when the stream is parallel.
+ * <p>
+ * A split cannot know how many elements precede it, so the indices are assigned in two phases.
+ * First, every split buffers its elements as a segment, and the combiner concatenates the lists of segments
+ * without copying the elements. Then the finisher computes the starting index of every segment
+ * as a prefix sum of the segment sizes and maps the segments in parallel, each of them independently.
+ *
+ * @param <T> element type
+ * @param <U> mapped element type
+ * @author jhspetersson
+ */
+class ParallelZipWithIndexGatherer<T, U> implements Gatherer<T, ParallelZipWithIndexGatherer.State<T>, U> {
+    private final LongObjFunction<? super T, ? extends U> mapper;
+    private final long startIndex;
+
+    ParallelZipWithIndexGatherer(@NonNull LongObjFunction<? super T, ? extends U> mapper, long startIndex) {
+        Objects.requireNonNull(mapper, "mapper cannot be null");
+
+        this.mapper = mapper;
+        this.startIndex = startIndex;
+    }
+
+    @Override
+    public Supplier<State<T>> initializer() {
+        return State::new;
+    }
+
+    @Override
+    public Integrator<State<T>, T, U> integrator() {
+        return Integrator.ofGreedy((state, element, downstream) -> {
+            state.segments.getLast().add(element);
+            return !downstream.isRejecting();
+        });
+    }
+
+    @Override
+    public BinaryOperator<State<T>> combiner() {
+        return (left, right) -> {
+            left.segments.addAll(right.segments);
+            return left;
+        };
+    }
+
+    @Override
+    public BiConsumer<State<T>, Downstream<? super U>> finisher() {
+        return (state, downstream) -> {
+            var segments = state.segments;
+            var offsets = new long[segments.size()];
+            var offset = startIndex;
+            for (var i = 0; i < segments.size(); i++) {
+                offsets[i] = offset;
+                offset += segments.get(i).size();
+            }
+
+            // every segment is written to its own slot, no structural modification happens concurrently
+            var mapped = new ArrayList<List<U>>(Collections.nCopies(segments.size(), null));
+            var range = IntStream.range(0, segments.size());
+            (segments.size() > 1 ? range.parallel() : range).forEach(i -> mapped.set(i, mapSegment(segments.get(i), offsets[i])));
+
+            for (var segment : mapped) {
+                for (var element : segment) {
+                    if (!downstream.push(element)) {
+                        return;
+                    }
+                }
+            }
+        };
+    }
+
+    private List<U> mapSegment(List<T> segment, long offset) {
+        var result = new ArrayList<U>(segment.size());
+        for (var element : segment) {
+            result.add(mapper.apply(offset++, element));
+        }
+        // the source segment is not needed anymore
+        segment.clear();
+        return result;
+    }
+
+    static class State<T> {
+        final List<List<T>> segments = new ArrayList<>();
+
+        State() {
+            segments.add(new ArrayList<>());
+        }
+    }
+}
@@ -1,23 +1,24 @@
 package io.github.jhspetersson.packrat;
 
 import java.util.Objects;
-import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 import java.util.stream.Gatherer;
 
+import io.github.jhspetersson.packrat.Packrat.LongObjConsumer;
 import org.jspecify.annotations.NonNull;
 
 /**
  * Peeks at each element along with its index, but passes the original element downstream.
+ * The index is passed to the consumer as a primitive {@code long}.
  *
  * @param <T> element type
  * @author jhspetersson
  */
 class PeekWithIndexGatherer<T> implements Gatherer<T, long[], T> {
-    private final BiConsumer<Long, ? super T> consumer;
+    private final LongObjConsumer<? super T> consumer;
     private final long startIndex;
 
-    PeekWithIndexGatherer(@NonNull BiConsumer<Long, ? super T> consumer, long startIndex) {
+    PeekWithIndexGatherer(@NonNull LongObjConsumer<? super T> consumer, long startIndex) {
         Objects.requireNonNull(consumer, "consumer cannot be null");
 
         this.consumer = consumer;
@@ -0,0 +1,149 @@
+package io.github.jhspetersson.packrat;
+
+import java.util.NoSuchElementException;
+
+/**
+ * The index bookkeeping shared by the ring buffers of primitive values: the capacity and the mask
+ * of the backing array, the head and the size, and the lazy growth up to the maximum size.
+ * Subclasses only create the typed backing array and read or write the positions handed out here.
+ * The capacity is a power of two unless the maximum size is above the largest one, see {@link RingBuffer}.
+ *
+ * @param <A> the type of the backing array, such as {@code long[]}
+ * @author jhspetersson
+ */
+abstract class PrimitiveRingBuffer<A> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final long maxSize;
+    A elements;
+    private int capacity;
+    private int mask;
+    private int head;
+    private int size;
+
+    /**
+     * Creates a new ring buffer with the specified maximum size.
+     *
+     * @param maxSize the maximum size of the buffer
+     */
+    PrimitiveRingBuffer(long maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+
+        this.maxSize = maxSize;
+        this.capacity = RingBuffer.capacityFor(Math.min(maxSize, INITIAL_CAPACITY));
+        this.elements = newArray(capacity);
+        this.mask = RingBuffer.maskFor(capacity);
+    }
+
+    /**
+     * Creates a backing array of the given length.
+     */
+    abstract A newArray(int length);
+
+    boolean isFull() {
+        return size >= maxSize;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the position for a value appended to the end of the buffer, growing the backing array if needed,
+     * so {@link #elements} must be read after this call. The caller must remove a value beforehand when the buffer is full.
+     */
+    int addPosition() {
+        if (size == capacity) {
+            grow();
+        }
+        return wrap(size++);
+    }
+
+    /**
+     * Returns the position of the first value and removes it from the buffer.
+     * The value stays in the backing array until it is overwritten.
+     */
+    int removeFirstPosition() {
+        var position = firstPosition();
+        head = wrap(1);
+        size--;
+        return position;
+    }
+
+    /**
+     * Returns the position of the last value and removes it from the buffer.
+     * The value stays in the backing array until it is overwritten.
+     */
+    int removeLastPosition() {
+        var position = lastPosition();
+        size--;
+        return position;
+    }
+
+    int firstPosition() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return head;
+    }
+
+    int lastPosition() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return wrap(size - 1);
+    }
+
+    int position(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return wrap(index);
+    }
+
+    /**
+     * Copies the values into a new array, from the first to the last one.
+     */
+    A toArray() {
+        var result = newArray(size);
+        copyTo(result);
+        return result;
+    }
+
+    void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    private void copyTo(A target) {
+        var firstSegment = Math.min(size, capacity - head);
+        System.arraycopy(elements, head, target, 0, firstSegment);
+        System.arraycopy(elements, 0, target, firstSegment, size - firstSegment);
+    }
+
+    /**
+     * Returns the position in the backing array that lies the given distance after the head.
+     */
+    private int wrap(int distance) {
+        return RingBuffer.wrap(head, distance, capacity, mask);
+    }
+
+    private void grow() {
+        if (capacity >= RingBuffer.capacityFor(maxSize)) {
+            throw new IllegalStateException("buffer is full");
+        }
+        var newCapacity = RingBuffer.capacityFor(Math.min(capacity * 2L, maxSize));
+        var newElements = newArray(newCapacity);
+        copyTo(newElements);
+        elements = newElements;
+        capacity = newCapacity;
+        mask = RingBuffer.maskFor(capacity);
+        head = 0;
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.jhspetersson.packrat;
+
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Gatherer;
+
+import io.github.jhspetersson.packrat.Packrat.LongObjFunction;
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Returns sliding or fixed windows of values mapped to a primitive type along with their indices.
+ * Values are kept in a {@link PrimitiveRingBuffer}, so they are never boxed, and every window
+ * is passed to the mapper as a fresh primitive array the mapper is free to keep.
+ * Subclasses only create the buffer and map an element into it.
+ * <p>
+ * Sliding windows behave like {@link WindowSlidingWithIndexGatherer}, fixed windows
+ * like {@link WindowFixedWithIndexGatherer}, including the trailing partial window.
+ *
+ * @param <T> element type
+ * @param <A> the type of the window array, such as {@code long[]}
+ * @param <B> the type of the buffer
+ * @param <R> result type
+ * @author jhspetersson
+ */
+abstract class PrimitiveWindowWithIndexGatherer<T, A, B extends PrimitiveRingBuffer<A>, R> implements Gatherer<T, PrimitiveWindowWithIndexGatherer.State<B>, R> {
+    private final int windowSize;
+    private final LongObjFunction<A, ? extends R> mapper;
+    private final boolean sliding;
+
+    /**
+     * Creates a new PrimitiveWindowWithIndexGatherer.
+     *
+     * @param windowSize the size of each window
+     * @param mapper the function to map each window with its index to a result
+     * @param sliding whether windows slide by one element or follow each other without overlap
+     */
+    PrimitiveWindowWithIndexGatherer(int windowSize, @NonNull LongObjFunction<A, ? extends R> mapper, boolean sliding) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("windowSize must be positive");
+        }
+        Objects.requireNonNull(mapper, "mapper cannot be null");
+
+        this.windowSize = windowSize;
+        this.mapper = mapper;
+        this.sliding = sliding;
+    }
+
+    /**
+     * Creates an empty buffer holding a single window.
+     */
+    abstract B newWindow(int windowSize);
+
+    /**
+     * Maps the element to a primitive value and appends it to the window.
+     */
+    abstract void add(B window, T element);
+
+    @Override
+    public Supplier<State<B>> initializer() {
+        return () -> new State<>(newWindow(windowSize));
+    }
+
+    @Override
+    public Integrator<State<B>, T, R> integrator() {
+        return Integrator.ofGreedy((state, element, downstream) -> {
+            if (state.window.isFull()) {
+                if (sliding) {
+                    state.window.removeFirstPosition();
+                } else {
+                    state.window.clear();
+                }
+            }
+            add(state.window, element);
+
+            if (state.window.isFull()) {
+                return downstream.push(mapper.apply(state.index++, state.window.toArray()));
+            }
+
+            return !downstream.isRejecting();
+        });
+    }
+
+    @Override
+    public BiConsumer<State<B>, Downstream<? super R>> finisher() {
+        return (state, downstream) -> {
+            // a sliding window stays full once it filled up, so a partial one is only left
+            // when the stream is shorter than the window or after the last full fixed window
+            if (!state.window.isEmpty() && !state.window.isFull()) {
+                downstream.push(mapper.apply(state.index, state.window.toArray()));
+            }
+        };
+    }
+
+    static class State<B extends PrimitiveRingBuffer<?>> {
+        private final B window;
+        private long index;
+
+        State(B window) {
+            this.window = window;
+        }
+    }
+}
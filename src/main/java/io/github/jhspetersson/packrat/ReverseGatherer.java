@@ -0,0 +1,94 @@
+package io.github.jhspetersson.packrat;
+
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.Gatherer;
+
+/**
+ * Reverses the element stream.
+ * <p>
+ * Elements are collected into chunks of doubling size, up to {@link #MAX_CHUNK_SIZE}, and every chunk links
+ * to the previous one, so growing the buffer never copies elements already collected.
+ * The finisher walks the chunks from the last to the first, releasing each chunk after it has been emitted.
+ * Partial results of a parallel stream are concatenated by linking the chunks of the right result after the left ones.
+ *
+ * @param <T> element type
+ * @author jhspetersson
+ */
+class ReverseGatherer<T> implements Gatherer<T, ReverseGatherer.State, T> {
+    private static final int MIN_CHUNK_SIZE = 16;
+    private static final int MAX_CHUNK_SIZE = 4096;
+
+    @Override
+    public Supplier<State> initializer() {
+        return State::new;
+    }
+
+    @Override
+    public Integrator<State, T, T> integrator() {
+        return Integrator.ofGreedy((state, element, downstream) -> {
+            state.add(element);
+            return !downstream.isRejecting();
+        });
+    }
+
+    @Override
+    public BinaryOperator<State> combiner() {
+        return (left, right) -> {
+            if (right.head == null) {
+                return left;
+            }
+            if (left.head == null) {
+                return right;
+            }
+            right.head.previous = left.tail;
+            left.tail = right.tail;
+            return left;
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public BiConsumer<State, Downstream<? super T>> finisher() {
+        return (state, downstream) -> {
+            var chunk = state.tail;
+            state.head = null;
+            state.tail = null;
+            while (chunk != null) {
+                var elements = chunk.elements;
+                for (var i = chunk.size - 1; i >= 0; i--) {
+                    if (!downstream.push((T) elements[i])) {
+                        return;
+                    }
+                }
+                chunk = chunk.previous;
+            }
+        };
+    }
+
+    static class State {
+        Chunk head;
+        Chunk tail;
+
+        void add(Object element) {
+            if (tail == null) {
+                head = tail = new Chunk(MIN_CHUNK_SIZE, null);
+            } else if (tail.size == tail.elements.length) {
+                tail = new Chunk(Math.min(tail.elements.length << 1, MAX_CHUNK_SIZE), tail);
+            }
+            tail.elements[tail.size++] = element;
+        }
+    }
+
+    static class Chunk {
+        final Object[] elements;
+        int size;
+        Chunk previous;
+
+        Chunk(int capacity, Chunk previous) {
+            this.elements = new Object[capacity];
+            this.previous = previous;
+        }
+    }
+}
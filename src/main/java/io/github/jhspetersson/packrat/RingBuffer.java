@@ -1,23 +1,35 @@
 package io.github.jhspetersson.packrat;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.stream.Gatherer;
 
 /**
  * A FIFO buffer backed by a circular {@code Object} array with a fixed maximum size.
  * Permits {@code null} elements. The backing array grows lazily up to the maximum size.
+ * <p>
+ * The capacity of the backing array is a power of two, so positions wrap around
+ * with a bit mask instead of a division, at the cost of up to twice as many slots
+ * as the maximum size. Above the largest power of two an array can hold, the capacity is the maximum size itself,
+ * limited only by the maximum array size, and positions wrap around with a comparison instead.
  *
  * @param <E> the type of elements held in this buffer
  * @author jhspetersson
  */
 class RingBuffer<E> implements Iterable<E> {
     private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+    private static final int MAX_POWER_OF_TWO = 1 << 30;
     private static final int INITIAL_CAPACITY = 16;
 
     private final long maxSize;
     private Object[] elements;
+    private int mask;
     private int head;
     private int size;
 
@@ -32,7 +44,38 @@ class RingBuffer<E> implements Iterable<E> {
         }
 
         this.maxSize = maxSize;
-        this.elements = new Object[(int) Math.min(maxSize, INITIAL_CAPACITY)];
+        this.elements = new Object[capacityFor(Math.min(maxSize, INITIAL_CAPACITY))];
+        this.mask = maskFor(elements.length);
+    }
+
+    /**
+     * Returns the smallest power of two not less than the given size,
+     * or the size itself, limited to the maximum array size, if it is larger than the largest power of two.
+     */
+    static int capacityFor(long size) {
+        if (size > MAX_POWER_OF_TWO) {
+            return (int) Math.min(size, MAX_ARRAY_SIZE);
+        }
+        return Math.max(1, Integer.highestOneBit((int) size - 1) << 1);
+    }
+
+    /**
+     * Returns the bit mask that wraps positions around the given capacity, or -1 if it is not a power of two.
+     */
+    static int maskFor(int capacity) {
+        return Integer.bitCount(capacity) == 1 ? capacity - 1 : -1;
+    }
+
+    /**
+     * Returns the position in the backing array that lies the given distance, at most the capacity, after the head.
+     * Without a mask the position is wrapped with a comparison, since the sum of the head and the distance
+     * may not fit into an {@code int}.
+     */
+    static int wrap(int head, int distance, int capacity, int mask) {
+        if (mask >= 0) {
+            return (head + distance) & mask;
+        }
+        return distance < capacity - head ? head + distance : distance - (capacity - head);
     }
 
     boolean isFull() {
@@ -51,10 +94,28 @@ class RingBuffer<E> implements Iterable<E> {
         if (size == elements.length) {
             grow();
         }
-        elements[(head + size) % elements.length] = element;
+        elements[wrap(size)] = element;
         size++;
     }
 
+    /**
+     * Appends an element to the end of the buffer, overwriting the first element when the buffer is full.
+     * Once the backing array has reached its final capacity, this is a single array store.
+     */
+    void addEvicting(E element) {
+        if (size < maxSize) {
+            add(element);
+            return;
+        }
+        var tail = wrap(size);
+        if (tail != head) {
+            // the backing array is larger than the maximum size
+            elements[head] = null;
+        }
+        elements[tail] = element;
+        head = wrap(1);
+    }
+
     @SuppressWarnings("unchecked")
     E removeFirst() {
         if (size == 0) {
@@ -62,31 +123,94 @@ class RingBuffer<E> implements Iterable<E> {
         }
         var element = (E) elements[head];
         elements[head] = null;
-        head = (head + 1) % elements.length;
+        head = wrap(1);
         size--;
         return element;
     }
 
+    /**
+     * Copies the elements, from the first to the last one, into a new list.
+     * The list is filled straight from the two contiguous segments of the backing array, so the elements are copied once.
+     */
     @SuppressWarnings("unchecked")
     List<E> toList() {
         var list = new ArrayList<E>(size);
-        for (var i = 0; i < size; i++) {
-            list.add((E) elements[(head + i) % elements.length]);
+        var firstSegmentEnd = head + Math.min(size, elements.length - head);
+        for (var i = head; i < firstSegmentEnd; i++) {
+            list.add((E) elements[i]);
+        }
+        for (var i = 0; i < size - (firstSegmentEnd - head); i++) {
+            list.add((E) elements[i]);
         }
         return list;
     }
 
+    /**
+     * Copies the elements, from the first to the last one, into the array starting at the specified position.
+     *
+     * @param target the array to copy into
+     * @param offset the position in the array of the first element
+     * @throws IndexOutOfBoundsException if the elements do not fit into the array
+     */
+    void copyTo(Object[] target, int offset) {
+        var firstSegment = Math.min(size, elements.length - head);
+        System.arraycopy(elements, head, target, offset, firstSegment);
+        System.arraycopy(elements, 0, target, offset + firstSegment, size - firstSegment);
+    }
+
+    /**
+     * Pushes the elements, from the first to the last one, downstream and empties the buffer.
+     * The elements are read from the two contiguous segments of the backing array, so no position is wrapped.
+     *
+     * @param downstream the downstream to push into
+     * @return {@code false} if the downstream rejected further elements, the buffer is emptied nonetheless
+     */
+    @SuppressWarnings("unchecked")
+    boolean drainTo(Gatherer.Downstream<? super E> downstream) {
+        var firstSegmentEnd = head + Math.min(size, elements.length - head);
+        var secondSegmentEnd = size - (firstSegmentEnd - head);
+        var accepting = true;
+        for (var i = head; accepting && i < firstSegmentEnd; i++) {
+            accepting = downstream.push((E) elements[i]);
+        }
+        for (var i = 0; accepting && i < secondSegmentEnd; i++) {
+            accepting = downstream.push((E) elements[i]);
+        }
+        clear();
+        return accepting;
+    }
+
+    void clear() {
+        var firstSegmentEnd = head + Math.min(size, elements.length - head);
+        Arrays.fill(elements, head, firstSegmentEnd, null);
+        Arrays.fill(elements, 0, size - (firstSegmentEnd - head), null);
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns a read-only list backed by this buffer. The list reflects all later changes of the buffer,
+     * so it has to be copied if its contents must outlive the next modification.
+     */
+    List<E> view() {
+        return new View();
+    }
+
+    /**
+     * Returns the position in the backing array that lies the given distance after the head.
+     */
+    private int wrap(int distance) {
+        return wrap(head, distance, elements.length, mask);
+    }
+
     private void grow() {
-        var limit = Math.min(maxSize, MAX_ARRAY_SIZE);
-        if (elements.length >= limit) {
+        if (elements.length >= capacityFor(maxSize)) {
             throw new IllegalStateException("buffer is full");
         }
-        var newCapacity = (int) Math.min(Math.max(elements.length * 2L, INITIAL_CAPACITY), limit);
-        var newElements = new Object[newCapacity];
-        var firstSegment = Math.min(size, elements.length - head);
-        System.arraycopy(elements, head, newElements, 0, firstSegment);
-        System.arraycopy(elements, 0, newElements, firstSegment, size - firstSegment);
+        var newElements = new Object[capacityFor(Math.min(elements.length * 2L, maxSize))];
+        copyTo(newElements, 0);
         elements = newElements;
+        mask = maskFor(elements.length);
         head = 0;
     }
 
@@ -106,8 +230,29 @@ class RingBuffer<E> implements Iterable<E> {
                 if (position >= size) {
                     throw new NoSuchElementException();
                 }
-                return (E) elements[(head + position++) % elements.length];
+                return (E) elements[wrap(position++)];
             }
         };
     }
+
+    private class View extends AbstractList<E> implements RandomAccess {
+        @Override
+        @SuppressWarnings("unchecked")
+        public E get(int index) {
+            Objects.checkIndex(index, size);
+            return (E) elements[wrap(index)];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Object[] toArray() {
+            var array = new Object[size];
+            copyTo(array, 0);
+            return array;
+        }
+    }
 }
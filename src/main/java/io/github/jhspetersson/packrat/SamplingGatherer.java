@@ -5,11 +5,19 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
 import java.util.function.Supplier;
 import java.util.stream.Gatherer;
 
 /**
  * Returns a sample of the specified size from the stream.
+ * <p>
+ * Every state keeps a reservoir of at most <code>n</code> elements along with their indices.
+ * Reservoirs of parallel splits are merged by drawing <code>n</code> elements one by one,
+ * each time from the left or the right reservoir with the probability proportional to the number of elements
+ * that side has seen and not yet given to the merged sample. The result is a uniform sample of both splits.
+ * Indices of the right split are shifted by the number of elements seen by the left one,
+ * so the sample can still be returned in the encounter order.
  *
  * @param <T> element type
  * @author jhspetersson
@@ -32,12 +40,11 @@ class SamplingGatherer<T> implements Gatherer<T, SamplingGatherer.State<T>, T> {
 
     @Override
     public Integrator<State<T>, T, T> integrator() {
-        var random = ThreadLocalRandom.current();
         return Integrator.ofGreedy((state, element, downstream) -> {
             if (state.list.size() < n) {
                 state.list.add(new IndexedElement<>(state.counter, element));
             } else {
-                var j = random.nextLong(state.counter + 1);
+                var j = ThreadLocalRandom.current().nextLong(state.counter + 1);
                 if (j < n) {
                     state.list.set((int) j, new IndexedElement<>(state.counter, element));
                 }
@@ -47,6 +54,34 @@ class SamplingGatherer<T> implements Gatherer<T, SamplingGatherer.State<T>, T> {
         });
     }
 
+    @Override
+    public BinaryOperator<State<T>> combiner() {
+        return (left, right) -> {
+            var random = ThreadLocalRandom.current();
+            var leftRemaining = left.counter;
+            var rightRemaining = right.counter;
+            var size = (int) Math.min(n, leftRemaining + rightRemaining);
+            var merged = new ArrayList<IndexedElement<T>>(size);
+            for (var i = 0; i < size; i++) {
+                if (random.nextLong(leftRemaining + rightRemaining) < leftRemaining) {
+                    merged.add(removeRandom(left.list, random));
+                    leftRemaining--;
+                } else {
+                    var entry = removeRandom(right.list, random);
+                    merged.add(new IndexedElement<>(entry.index() + left.counter, entry.element()));
+                    rightRemaining--;
+                }
+            }
+            return new State<>(merged, left.counter + right.counter);
+        };
+    }
+
+    private static <E> E removeRandom(List<E> list, ThreadLocalRandom random) {
+        var index = random.nextInt(list.size());
+        var last = list.removeLast();
+        return index == list.size() ? last : list.set(index, last);
+    }
+
     @Override
     public BiConsumer<State<T>, Downstream<? super T>> finisher() {
         return (state, downstream) -> {
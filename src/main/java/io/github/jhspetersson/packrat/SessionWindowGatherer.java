@@ -0,0 +1,110 @@
+package io.github.jhspetersson.packrat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Gatherer;
+
+import io.github.jhspetersson.packrat.Packrat.SessionEviction;
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Returns sessions of elements with the same key, where a session ends after the specified gap
+ * without elements of its key. Timestamps are in milliseconds.
+ * <p>
+ * Open sessions are kept in a {@link LinkedHashMap} in the order of their last activity, so every element
+ * closes the sessions that have been quiet for the gap by looking at the head of the map only.
+ * When the number of open sessions would exceed the limit, the least recently active session
+ * is either emitted early or dropped, according to the {@link SessionEviction} policy.
+ * <p>
+ * The stream is expected to be ordered by timestamp, remaining sessions are emitted in the finisher.
+ *
+ * @param <T> element type
+ * @param <K> key type
+ * @author jhspetersson
+ */
+class SessionWindowGatherer<T, K> implements Gatherer<T, LinkedHashMap<K, SessionWindowGatherer.Session<T>>, List<T>> {
+    private final Function<? super T, ? extends K> keyMapper;
+    private final ToLongFunction<? super T> timestampExtractor;
+    private final long gap;
+    private final int maxSessions;
+    private final SessionEviction eviction;
+
+    SessionWindowGatherer(@NonNull Function<? super T, ? extends K> keyMapper, @NonNull ToLongFunction<? super T> timestampExtractor,
+                          @NonNull Duration gap, int maxSessions, @NonNull SessionEviction eviction) {
+        Objects.requireNonNull(keyMapper, "keyMapper cannot be null");
+        Objects.requireNonNull(timestampExtractor, "timestampExtractor cannot be null");
+        Objects.requireNonNull(gap, "gap cannot be null");
+        Objects.requireNonNull(eviction, "eviction cannot be null");
+        if (gap.toMillis() <= 0) {
+            throw new IllegalArgumentException("gap must be at least one millisecond");
+        }
+        if (maxSessions <= 0) {
+            throw new IllegalArgumentException("maxSessions must be a positive number");
+        }
+
+        this.keyMapper = keyMapper;
+        this.timestampExtractor = timestampExtractor;
+        this.gap = gap.toMillis();
+        this.maxSessions = maxSessions;
+        this.eviction = eviction;
+    }
+
+    @Override
+    public Supplier<LinkedHashMap<K, Session<T>>> initializer() {
+        // access order keeps the least recently active session first
+        return () -> new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    @Override
+    public Integrator<LinkedHashMap<K, Session<T>>, T, List<T>> integrator() {
+        return Integrator.ofGreedy((sessions, element, downstream) -> {
+            var timestamp = timestampExtractor.applyAsLong(element);
+
+            while (!sessions.isEmpty() && sessions.firstEntry().getValue().lastTimestamp <= timestamp - gap) {
+                if (!downstream.push(sessions.pollFirstEntry().getValue().elements)) {
+                    return false;
+                }
+            }
+
+            var key = keyMapper.apply(element);
+            var session = sessions.get(key);
+            if (session == null) {
+                if (sessions.size() >= maxSessions) {
+                    var evicted = sessions.pollFirstEntry().getValue();
+                    if (eviction == SessionEviction.EMIT && !downstream.push(evicted.elements)) {
+                        return false;
+                    }
+                }
+                session = new Session<>();
+                sessions.put(key, session);
+            }
+            session.elements.add(element);
+            session.lastTimestamp = Math.max(session.lastTimestamp, timestamp);
+
+            return !downstream.isRejecting();
+        });
+    }
+
+    @Override
+    public BiConsumer<LinkedHashMap<K, Session<T>>, Downstream<? super List<T>>> finisher() {
+        return (sessions, downstream) -> {
+            for (var session : sessions.values()) {
+                if (!downstream.push(session.elements)) {
+                    break;
+                }
+            }
+        };
+    }
+
+    static class Session<T> {
+        final List<T> elements = new ArrayList<>();
+        long lastTimestamp = Long.MIN_VALUE;
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.jhspetersson.packrat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+import java.util.stream.Gatherer;
+
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Shuffles the element stream locally, keeping at most <code>bufferSize</code> elements.
+ * <p>
+ * The buffer is filled first, then every incoming element replaces a random element of the buffer,
+ * which is pushed downstream. The remaining elements are emitted in random order when the stream ends.
+ * Memory stays constant and elements start flowing as soon as the buffer is full, so infinite streams are fine,
+ * but an element can move at most about <code>bufferSize</code> positions towards the beginning of the stream.
+ *
+ * @param <T> element type
+ * @author jhspetersson
+ */
+class ShuffleBufferGatherer<T> implements Gatherer<T, ShuffleBufferGatherer.State<T>, T> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int bufferSize;
+    private final Supplier<? extends RandomGenerator> randomSupplier;
+
+    ShuffleBufferGatherer(int bufferSize, @NonNull Supplier<? extends RandomGenerator> randomSupplier) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be a positive number");
+        }
+        Objects.requireNonNull(randomSupplier, "randomSupplier cannot be null");
+
+        this.bufferSize = bufferSize;
+        this.randomSupplier = randomSupplier;
+    }
+
+    @Override
+    public Supplier<State<T>> initializer() {
+        return () -> new State<>(Math.min(bufferSize, INITIAL_CAPACITY), randomSupplier.get());
+    }
+
+    @Override
+    public Integrator<State<T>, T, T> integrator() {
+        return Integrator.ofGreedy((state, element, downstream) -> {
+            var buffer = state.buffer;
+            if (buffer.size() < bufferSize) {
+                buffer.add(element);
+                return !downstream.isRejecting();
+            }
+
+            return downstream.push(buffer.set(state.random.nextInt(bufferSize), element));
+        });
+    }
+
+    @Override
+    public BiConsumer<State<T>, Downstream<? super T>> finisher() {
+        return (state, downstream) -> {
+            var buffer = state.buffer;
+            for (var size = buffer.size(); size > 0; size--) {
+                var index = state.random.nextInt(size);
+                var element = buffer.get(index);
+                buffer.set(index, buffer.get(size - 1));
+                if (!downstream.push(element)) {
+                    break;
+                }
+            }
+            buffer.clear();
+        };
+    }
+
+    static class State<T> {
+        final List<T> buffer;
+        final RandomGenerator random;
+
+        State(int capacity, RandomGenerator random) {
+            this.buffer = new ArrayList<>(capacity);
+            this.random = random;
+        }
+    }
+}
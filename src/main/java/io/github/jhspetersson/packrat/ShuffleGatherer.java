@@ -0,0 +1,295 @@
+package io.github.jhspetersson.packrat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.Gatherer;
+import java.util.stream.IntStream;
+
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Collects the entire stream and passes the elements down the stream in random order.
+ * <p>
+ * Small streams get a plain Fisher–Yates shuffle. Larger ones are cut into blocks of {@link #BLOCK_SIZE} elements,
+ * every block scatters its elements into random buckets, and then every bucket is shuffled on its own.
+ * Each element picks its bucket independently, so all permutations remain equally likely.
+ * Blocks and buckets get random generators split from the root one in a fixed order, and block boundaries
+ * do not depend on how the stream was split, so the result is the same for the same seed
+ * whether the stream is sequential or parallel. If partial results were combined,
+ * the blocks and the buckets are processed in parallel.
+ * <p>
+ * Every split collects its elements into chunks of at most {@link #CHUNK_SIZE} elements, and the combiner
+ * concatenates the lists of chunks without copying the elements. The blocks are scattered in waves,
+ * the buckets allocate their storage piece by piece as the waves reach it, and the chunks that a wave
+ * has consumed are released, so the elements are held about once rather than twice.
+ *
+ * @param <T> element type
+ * @author jhspetersson
+ */
+class ShuffleGatherer<T> implements Gatherer<T, ShuffleGatherer.State<T>, T> {
+    private static final int BLOCK_SIZE = 1 << 16;
+    private static final int MAX_BUCKETS = 1 << 10;
+    private static final int BLOCKS_PER_WAVE = 32;
+    private static final int CHUNK_SHIFT = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int INITIAL_CHUNK_SIZE = 16;
+    private static final Object[] EMPTY_CHUNK = {};
+
+    private final Supplier<SplittableRandom> randomSupplier;
+
+    ShuffleGatherer(@NonNull Supplier<SplittableRandom> randomSupplier) {
+        Objects.requireNonNull(randomSupplier, "randomSupplier cannot be null");
+
+        this.randomSupplier = randomSupplier;
+    }
+
+    @Override
+    public Supplier<State<T>> initializer() {
+        return State::new;
+    }
+
+    @Override
+    public Integrator<State<T>, T, T> integrator() {
+        return Integrator.ofGreedy((state, element, downstream) -> {
+            state.add(element);
+            return !downstream.isRejecting();
+        });
+    }
+
+    @Override
+    public BinaryOperator<State<T>> combiner() {
+        return (left, right) -> {
+            left.seal();
+            right.seal();
+            left.chunks.addAll(right.chunks);
+            left.size += right.size;
+            left.parallel = true;
+            return left;
+        };
+    }
+
+    @Override
+    public BiConsumer<State<T>, Downstream<? super T>> finisher() {
+        return (state, downstream) -> {
+            state.seal();
+            var chunks = state.chunks.toArray(Object[][]::new);
+            state.chunks.clear();
+            if (state.size <= BLOCK_SIZE) {
+                shuffleSmall(chunks, (int) state.size, randomSupplier.get(), downstream);
+            } else {
+                shuffle(chunks, state.size, randomSupplier.get(), state.parallel, downstream);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void shuffleSmall(Object[][] chunks, int size, SplittableRandom random, Downstream<? super T> downstream) {
+        var elements = new Object[size];
+        var position = 0;
+        for (var chunk : chunks) {
+            System.arraycopy(chunk, 0, elements, position, chunk.length);
+            position += chunk.length;
+        }
+        shuffle(elements, size, random);
+        for (var element : elements) {
+            if (!downstream.push((T) element)) {
+                return;
+            }
+        }
+    }
+
+    private static <T> void shuffle(Object[][] chunks, long size, SplittableRandom random, boolean parallel,
+                                    Downstream<? super T> downstream) {
+        var blockCount = (int) ((size - 1) / BLOCK_SIZE + 1);
+        var bucketCount = Math.min(blockCount, MAX_BUCKETS);
+        var blockSeeds = new long[blockCount];
+        for (var block = 0; block < blockCount; block++) {
+            blockSeeds[block] = random.nextLong();
+        }
+        var bucketSeeds = new long[bucketCount];
+        for (var bucket = 0; bucket < bucketCount; bucket++) {
+            bucketSeeds[bucket] = random.nextLong();
+        }
+
+        // first pass counts how many elements every block sends to every bucket
+        var offsets = new int[blockCount][bucketCount];
+        range(0, blockCount, parallel).forEach(block -> {
+            var blockRandom = new SplittableRandom(blockSeeds[block]);
+            var counts = offsets[block];
+            for (var i = blockLength(block, size); i > 0; i--) {
+                counts[blockRandom.nextInt(bucketCount)]++;
+            }
+        });
+
+        // within a bucket the blocks keep their order
+        var buckets = new Bucket[bucketCount];
+        for (var bucket = 0; bucket < bucketCount; bucket++) {
+            var position = 0;
+            for (var block = 0; block < blockCount; block++) {
+                var count = offsets[block][bucket];
+                offsets[block][bucket] = position;
+                position += count;
+            }
+            buckets[bucket] = new Bucket(position);
+        }
+
+        // the chunk and the position in it where every block starts
+        var blockChunks = new int[blockCount + 1];
+        var blockOffsets = new int[blockCount + 1];
+        var chunkStart = 0L;
+        for (int chunk = 0, block = 0; block < blockCount; chunk++) {
+            var chunkEnd = chunkStart + chunks[chunk].length;
+            while (block < blockCount && (long) block * BLOCK_SIZE < chunkEnd) {
+                blockChunks[block] = chunk;
+                blockOffsets[block] = (int) ((long) block * BLOCK_SIZE - chunkStart);
+                block++;
+            }
+            chunkStart = chunkEnd;
+        }
+        blockChunks[blockCount] = chunks.length;
+
+        // second pass replays the same random numbers and scatters the elements wave by wave
+        for (var wave = 0; wave < blockCount; wave += BLOCKS_PER_WAVE) {
+            var waveEnd = Math.min(wave + BLOCKS_PER_WAVE, blockCount);
+            for (var bucket = 0; bucket < bucketCount; bucket++) {
+                buckets[bucket].allocate(waveEnd < blockCount ? offsets[waveEnd][bucket] : buckets[bucket].size);
+            }
+            range(wave, waveEnd, parallel).forEach(block -> {
+                var blockRandom = new SplittableRandom(blockSeeds[block]);
+                var next = offsets[block];
+                var chunkIndex = blockChunks[block];
+                var chunk = chunks[chunkIndex];
+                var position = blockOffsets[block];
+                for (var i = blockLength(block, size); i > 0; i--) {
+                    if (position == chunk.length) {
+                        chunk = chunks[++chunkIndex];
+                        position = 0;
+                    }
+                    var bucket = blockRandom.nextInt(bucketCount);
+                    buckets[bucket].set(next[bucket]++, chunk[position++]);
+                }
+            });
+            // chunks before the one where the next wave starts have been consumed entirely
+            for (var chunk = blockChunks[wave]; chunk < blockChunks[waveEnd]; chunk++) {
+                chunks[chunk] = null;
+            }
+        }
+
+        range(0, bucketCount, parallel).forEach(bucket -> buckets[bucket].shuffle(new SplittableRandom(bucketSeeds[bucket])));
+
+        for (var bucket = 0; bucket < bucketCount; bucket++) {
+            if (!buckets[bucket].pushTo(downstream)) {
+                return;
+            }
+            buckets[bucket] = null;
+        }
+    }
+
+    private static int blockLength(int block, long size) {
+        return (int) Math.min(size - (long) block * BLOCK_SIZE, BLOCK_SIZE);
+    }
+
+    private static IntStream range(int from, int to, boolean parallel) {
+        var range = IntStream.range(from, to);
+        return parallel ? range.parallel() : range;
+    }
+
+    private static void shuffle(Object[] array, int size, SplittableRandom random) {
+        for (var i = size - 1; i > 0; i--) {
+            var j = random.nextInt(i + 1);
+            var element = array[i];
+            array[i] = array[j];
+            array[j] = element;
+        }
+    }
+
+    /**
+     * Elements of a bucket, stored in pieces of {@link #CHUNK_SIZE} that are allocated as the scattering reaches them.
+     */
+    private static class Bucket {
+        final int size;
+        final Object[][] pieces;
+        int allocated;
+
+        Bucket(int size) {
+            this.size = size;
+            this.pieces = new Object[(size + CHUNK_SIZE - 1) >>> CHUNK_SHIFT][];
+        }
+
+        /**
+         * Allocates the pieces that hold the positions below the given one.
+         */
+        void allocate(int end) {
+            for (var piece = allocated; piece < pieces.length && (long) piece << CHUNK_SHIFT < end; piece++) {
+                pieces[piece] = new Object[Math.min(CHUNK_SIZE, size - (piece << CHUNK_SHIFT))];
+                allocated = piece + 1;
+            }
+        }
+
+        Object get(int position) {
+            return pieces[position >>> CHUNK_SHIFT][position & (CHUNK_SIZE - 1)];
+        }
+
+        void set(int position, Object element) {
+            pieces[position >>> CHUNK_SHIFT][position & (CHUNK_SIZE - 1)] = element;
+        }
+
+        void shuffle(SplittableRandom random) {
+            for (var i = size - 1; i > 0; i--) {
+                var j = random.nextInt(i + 1);
+                var element = get(i);
+                set(i, get(j));
+                set(j, element);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> boolean pushTo(Downstream<? super T> downstream) {
+            for (var piece : pieces) {
+                for (var element : piece) {
+                    if (!downstream.push((T) element)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+
+    static class State<T> {
+        final List<Object[]> chunks = new ArrayList<>();
+        Object[] current = EMPTY_CHUNK;
+        int position;
+        long size;
+        boolean parallel;
+
+        void add(T element) {
+            if (position == current.length) {
+                if (position > 0) {
+                    chunks.add(current);
+                }
+                current = new Object[Math.clamp(current.length * 2L, INITIAL_CHUNK_SIZE, CHUNK_SIZE)];
+                position = 0;
+            }
+            current[position++] = element;
+            size++;
+        }
+
+        /**
+         * Moves the chunk being filled to the list of chunks, trimmed to its size.
+         */
+        void seal() {
+            if (position > 0) {
+                chunks.add(position == current.length ? current : Arrays.copyOf(current, position));
+            }
+            current = EMPTY_CHUNK;
+            position = 0;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.jhspetersson.packrat;
+
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Gatherer;
+
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Returns minimums or maximums of the mapped values over a sliding window.
+ * <p>
+ * Besides the window itself, a monotonic deque of candidate values is maintained:
+ * a new value discards all the candidates it beats from the back of the deque,
+ * and the front of the deque is the current extremum. Every value enters and leaves
+ * the deque at most once, so every element costs amortized constant time regardless of the window size.
+ * As with {@link Math#min(double, double)}, a {@code NaN} in the window makes the result {@code NaN}.
+ * <p>
+ * If the stream contains fewer elements than the window size, a single result over all of them is emitted.
+ *
+ * @param <T> element type
+ * @author jhspetersson
+ */
+class SlidingExtremumGatherer<T> implements Gatherer<T, SlidingExtremumGatherer.State, Double> {
+    private final int windowSize;
+    private final ToDoubleFunction<? super T> mapper;
+    private final boolean max;
+
+    SlidingExtremumGatherer(int windowSize, @NonNull ToDoubleFunction<? super T> mapper, boolean max) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("windowSize must be positive");
+        }
+        Objects.requireNonNull(mapper, "mapper cannot be null");
+
+        this.windowSize = windowSize;
+        this.mapper = mapper;
+        this.max = max;
+    }
+
+    @Override
+    public Supplier<State> initializer() {
+        return () -> new State(windowSize);
+    }
+
+    @Override
+    public Integrator<State, T, Double> integrator() {
+        return Integrator.ofGreedy((state, element, downstream) -> {
+            if (state.window.isFull()) {
+                var evicted = state.window.removeFirst();
+                if (Double.isNaN(evicted)) {
+                    state.nanCount--;
+                } else if (state.candidates.first() == evicted) {
+                    state.candidates.removeFirst();
+                }
+            }
+
+            var value = mapper.applyAsDouble(element);
+            state.window.add(value);
+            if (Double.isNaN(value)) {
+                state.nanCount++;
+            } else {
+                // equal values are kept, so that evicting one of them leaves the others in place
+                while (!state.candidates.isEmpty() && beats(value, state.candidates.last())) {
+                    state.candidates.removeLast();
+                }
+                state.candidates.add(value);
+            }
+
+            if (state.window.isFull()) {
+                return downstream.push(state.result());
+            }
+            return !downstream.isRejecting();
+        });
+    }
+
+    @Override
+    public BiConsumer<State, Downstream<? super Double>> finisher() {
+        return (state, downstream) -> {
+            // a non-empty buffer that never filled up means no result has been emitted yet
+            if (!state.window.isEmpty() && !state.window.isFull()) {
+                downstream.push(state.result());
+            }
+        };
+    }
+
+    private boolean beats(double value, double candidate) {
+        return max ? value > candidate : value < candidate;
+    }
+
+    static class State {
+        final DoubleRingBuffer window;
+        final DoubleRingBuffer candidates;
+        int nanCount;
+
+        State(int windowSize) {
+            this.window = new DoubleRingBuffer(windowSize);
+            this.candidates = new DoubleRingBuffer(windowSize);
+        }
+
+        double result() {
+            return nanCount > 0 ? Double.NaN : candidates.first();
+        }
+    }
+}
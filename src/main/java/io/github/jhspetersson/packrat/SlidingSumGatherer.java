@@ -0,0 +1,138 @@
+package io.github.jhspetersson.packrat;
+
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Gatherer;
+
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Returns sums or averages of the mapped values over a sliding window.
+ * <p>
+ * The sum is maintained incrementally: the value entering the window is added and the value
+ * leaving it is subtracted, so every element costs constant time regardless of the window size.
+ * Compensated (Neumaier) summation keeps the rounding error from accumulating over long streams.
+ * Non-finite values are counted separately and never enter the running sum,
+ * so the result recovers once they leave the window.
+ * <p>
+ * If the stream contains fewer elements than the window size, a single result over all of them is emitted.
+ *
+ * @param <T> element type
+ * @author jhspetersson
+ */
+class SlidingSumGatherer<T> implements Gatherer<T, SlidingSumGatherer.State, Double> {
+    private final int windowSize;
+    private final ToDoubleFunction<? super T> mapper;
+    private final boolean average;
+
+    SlidingSumGatherer(int windowSize, @NonNull ToDoubleFunction<? super T> mapper, boolean average) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("windowSize must be positive");
+        }
+        Objects.requireNonNull(mapper, "mapper cannot be null");
+
+        this.windowSize = windowSize;
+        this.mapper = mapper;
+        this.average = average;
+    }
+
+    @Override
+    public Supplier<State> initializer() {
+        return () -> new State(windowSize);
+    }
+
+    @Override
+    public Integrator<State, T, Double> integrator() {
+        return Integrator.ofGreedy((state, element, downstream) -> {
+            if (state.window.isFull()) {
+                state.remove(state.window.removeFirst());
+            }
+            var value = mapper.applyAsDouble(element);
+            state.window.add(value);
+            state.add(value);
+
+            if (state.window.isFull()) {
+                return downstream.push(result(state));
+            }
+            return !downstream.isRejecting();
+        });
+    }
+
+    @Override
+    public BiConsumer<State, Downstream<? super Double>> finisher() {
+        return (state, downstream) -> {
+            // a non-empty buffer that never filled up means no result has been emitted yet
+            if (!state.window.isEmpty() && !state.window.isFull()) {
+                downstream.push(result(state));
+            }
+        };
+    }
+
+    private double result(State state) {
+        var sum = state.sum();
+        return average ? sum / state.window.size() : sum;
+    }
+
+    static class State {
+        final DoubleRingBuffer window;
+        private double sum;
+        private double compensation;
+        private int nanCount;
+        private int positiveInfinityCount;
+        private int negativeInfinityCount;
+
+        State(int windowSize) {
+            this.window = new DoubleRingBuffer(windowSize);
+        }
+
+        void add(double value) {
+            if (!count(value, 1)) {
+                accumulate(value);
+            }
+        }
+
+        void remove(double value) {
+            if (!count(value, -1)) {
+                accumulate(-value);
+            }
+        }
+
+        double sum() {
+            if (nanCount > 0 || positiveInfinityCount > 0 && negativeInfinityCount > 0) {
+                return Double.NaN;
+            }
+            if (positiveInfinityCount > 0) {
+                return Double.POSITIVE_INFINITY;
+            }
+            if (negativeInfinityCount > 0) {
+                return Double.NEGATIVE_INFINITY;
+            }
+            return sum + compensation;
+        }
+
+        private boolean count(double value, int delta) {
+            if (Double.isNaN(value)) {
+                nanCount += delta;
+            } else if (value == Double.POSITIVE_INFINITY) {
+                positiveInfinityCount += delta;
+            } else if (value == Double.NEGATIVE_INFINITY) {
+                negativeInfinityCount += delta;
+            } else {
+                return false;
+            }
+            return true;
+        }
+
+        private void accumulate(double value) {
+            var total = sum + value;
+            if (Math.abs(sum) >= Math.abs(value)) {
+                compensation += (sum - total) + value;
+            } else {
+                compensation += (value - total) + sum;
+            }
+            sum = total;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package io.github.jhspetersson.packrat;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.jhspetersson.packrat.Packrat.SpillPolicy;
+
+/**
+ * A temporary file that elements are appended to in runs and read back from run by run.
+ * <p>
+ * A run is described by its offset, its length in bytes and the number of its elements.
+ * Runs are written through a single buffered stream at the end of the file, so their length is not limited,
+ * and read back with positional reads into a buffer that is reused for all reads.
+ * The file is created on the first write and deleted when closed.
+ *
+ * @param <T> element type
+ * @author jhspetersson
+ */
+class SpillFile<T> implements AutoCloseable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final SpillPolicy<T> policy;
+    private FileChannel channel;
+    // every write appends at the position of the channel and is flushed before returning,
+    // so the position always marks the end of the file
+    private DataOutputStream output;
+    private ByteBuffer readBuffer;
+
+    SpillFile(SpillPolicy<T> policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * Appends the elements as a new run.
+     *
+     * @return offset, length in bytes and number of elements of the run
+     */
+    long[] write(List<T> elements) {
+        try {
+            var target = channel();
+            var offset = target.position();
+            for (var element : elements) {
+                policy.serializer().write(element, output);
+            }
+            output.flush();
+            return new long[] {offset, target.position() - offset, elements.size()};
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads the elements of a run.
+     */
+    List<T> read(long[] run) {
+        try {
+            var input = new DataInputStream(new RunInputStream(run[0], run[1]));
+            var elements = new ArrayList<T>((int) run[2]);
+            for (var i = 0L; i < run[2]; i++) {
+                elements.add(policy.serializer().read(input));
+            }
+            return elements;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Copies a run of another file to the end of this one, from file to file.
+     *
+     * @return the run in this file
+     */
+    long[] transfer(SpillFile<T> source, long[] run) {
+        try {
+            var target = channel();
+            var offset = target.position();
+            var transferred = 0L;
+            while (transferred < run[1]) {
+                transferred += source.channel.transferTo(run[0] + transferred, run[1] - transferred, target);
+            }
+            return new long[] {offset, run[1], run[2]};
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        output = null;
+        readBuffer = null;
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                channel = null;
+            }
+        }
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null) {
+            var file = Files.createTempFile(policy.directory(), "packrat", ".spill");
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+            output = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+        }
+        return channel;
+    }
+
+    private class RunInputStream extends InputStream {
+        private long position;
+        private final long end;
+
+        RunInputStream(long offset, long length) {
+            this.position = offset;
+            this.end = offset + length;
+            if (readBuffer == null) {
+                readBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+            }
+            readBuffer.clear().limit(0);
+        }
+
+        @Override
+        public int read() throws IOException {
+            return fill() ? readBuffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            var count = Math.min(length, readBuffer.remaining());
+            readBuffer.get(bytes, offset, count);
+            return count;
+        }
+
+        private boolean fill() throws IOException {
+            while (!readBuffer.hasRemaining()) {
+                if (position >= end) {
+                    return false;
+                }
+                readBuffer.clear().limit((int) Math.min(BUFFER_SIZE, end - position));
+                var count = channel.read(readBuffer, position);
+                if (count < 0) {
+                    throw new IOException("unexpected end of spill file");
+                }
+                position += count;
+                readBuffer.flip();
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.jhspetersson.packrat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Gatherer;
+
+import io.github.jhspetersson.packrat.Packrat.SpillPolicy;
+
+/**
+ * An append-only buffer that keeps at most <code>threshold</code> elements on the heap.
+ * Whenever the in-memory segment fills up, it is appended as a run to a {@link SpillFile},
+ * and spilled segments are read back from it one at a time.
+ * <p>
+ * The temporary file is deleted when the buffer is closed, which also happens when spilling fails.
+ *
+ * @param <T> element type
+ * @author jhspetersson
+ */
+class SpillingBuffer<T> implements AutoCloseable {
+    private final int threshold;
+    private final SpillFile<T> file;
+    private final List<T> current = new ArrayList<>();
+    // offset, length in bytes and number of elements of every spilled segment
+    private final List<long[]> segments = new ArrayList<>();
+    private long size;
+
+    SpillingBuffer(SpillPolicy<T> policy) {
+        this.threshold = policy.threshold();
+        this.file = new SpillFile<>(policy);
+    }
+
+    void add(T element) {
+        current.add(element);
+        size++;
+        if (current.size() >= threshold) {
+            spill();
+        }
+    }
+
+    long size() {
+        return size;
+    }
+
+    boolean isSpilled() {
+        return !segments.isEmpty();
+    }
+
+    /**
+     * Returns the number of segments, including the one still in memory.
+     */
+    int segmentCount() {
+        return segments.size() + (current.isEmpty() ? 0 : 1);
+    }
+
+    /**
+     * Returns the elements of the segment, reading them back from the file if it was spilled.
+     * The in-memory segment is returned as is.
+     */
+    List<T> segment(int index) {
+        if (index == segments.size()) {
+            return current;
+        }
+        return file.read(segments.get(index));
+    }
+
+    /**
+     * Pushes the elements with indices in the range from <code>from</code>, inclusive, to <code>to</code>, exclusive,
+     * reading only the segments that overlap the range.
+     *
+     * @return {@code false} if the downstream rejected further elements
+     */
+    boolean pushRange(long from, long to, Gatherer.Downstream<? super T> downstream) {
+        var segmentStart = 0L;
+        var count = segmentCount();
+        for (var i = 0; i < count && segmentStart < to; i++) {
+            var segmentSize = i == segments.size() ? current.size() : segments.get(i)[2];
+            var segmentEnd = segmentStart + segmentSize;
+            if (segmentEnd > from) {
+                var elements = segment(i);
+                var end = (int) (Math.min(to, segmentEnd) - segmentStart);
+                for (var j = (int) Math.max(0, from - segmentStart); j < end; j++) {
+                    if (!downstream.push(elements.get(j))) {
+                        return false;
+                    }
+                }
+            }
+            segmentStart = segmentEnd;
+        }
+        return true;
+    }
+
+    /**
+     * Appends all elements of another buffer, copying its spilled segments from file to file,
+     * and closes it. If copying fails, this buffer is closed as well.
+     */
+    void addAll(SpillingBuffer<T> other) {
+        try {
+            if (other.isSpilled()) {
+                if (!current.isEmpty()) {
+                    spill();
+                }
+                for (var segment : other.segments) {
+                    segments.add(file.transfer(other.file, segment));
+                    size += segment[2];
+                }
+            }
+            for (var element : other.current) {
+                add(element);
+            }
+        } catch (RuntimeException | Error e) {
+            close();
+            throw e;
+        } finally {
+            other.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        current.clear();
+        segments.clear();
+        file.close();
+    }
+
+    private void spill() {
+        try {
+            segments.add(file.write(current));
+        } catch (RuntimeException | Error e) {
+            // the finisher will not run, so the file has to be released here
+            close();
+            throw e;
+        }
+        current.clear();
+    }
+}
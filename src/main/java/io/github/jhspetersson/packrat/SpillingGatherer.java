@@ -0,0 +1,198 @@
+package io.github.jhspetersson.packrat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+import java.util.stream.Gatherer;
+
+import io.github.jhspetersson.packrat.Packrat.SpillPolicy;
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Collects the entire stream into a {@link SpillingBuffer}, which spills to a temporary file
+ * according to the {@link SpillPolicy}, and replays the elements in the finisher.
+ * The static methods of this class implement the replays for the operations that need the whole stream,
+ * each of them reads the spilled segments sequentially and keeps about one segment on the heap.
+ * <p>
+ * The temporary files are deleted once the finisher completes.
+ *
+ * @param <T> element type
+ * @author jhspetersson
+ */
+class SpillingGatherer<T> implements Gatherer<T, SpillingBuffer<T>, T> {
+    private static final int MAX_FANOUT = 64;
+
+    private final SpillPolicy<T> policy;
+    private final BiConsumer<SpillingBuffer<T>, Downstream<? super T>> replay;
+
+    SpillingGatherer(@NonNull SpillPolicy<T> policy, @NonNull BiConsumer<SpillingBuffer<T>, Downstream<? super T>> replay) {
+        Objects.requireNonNull(policy, "policy cannot be null");
+        Objects.requireNonNull(replay, "replay cannot be null");
+
+        this.policy = policy;
+        this.replay = replay;
+    }
+
+    @Override
+    public Supplier<SpillingBuffer<T>> initializer() {
+        return () -> new SpillingBuffer<>(policy);
+    }
+
+    @Override
+    public Integrator<SpillingBuffer<T>, T, T> integrator() {
+        return Integrator.ofGreedy((buffer, element, downstream) -> {
+            buffer.add(element);
+            return !downstream.isRejecting();
+        });
+    }
+
+    @Override
+    public BinaryOperator<SpillingBuffer<T>> combiner() {
+        return (left, right) -> {
+            left.addAll(right);
+            return left;
+        };
+    }
+
+    @Override
+    public BiConsumer<SpillingBuffer<T>, Downstream<? super T>> finisher() {
+        return (buffer, downstream) -> {
+            try {
+                replay.accept(buffer, downstream);
+            } finally {
+                buffer.close();
+            }
+        };
+    }
+
+    /**
+     * Pushes the segments from the last one to the first one, each of them backwards.
+     */
+    static <T> void reverse(SpillingBuffer<T> buffer, Downstream<? super T> downstream) {
+        for (var i = buffer.segmentCount() - 1; i >= 0; i--) {
+            var elements = buffer.segment(i);
+            for (var j = elements.size() - 1; j >= 0; j--) {
+                if (!downstream.push(elements.get(j))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Pushes the elements in the order of {@link Collections#rotate}.
+     */
+    static <T> void rotate(SpillingBuffer<T> buffer, int distance, Downstream<? super T> downstream) {
+        var size = buffer.size();
+        if (size == 0) {
+            return;
+        }
+        // the element at index i moves to (i + distance) mod size, so the output starts at -distance mod size
+        var start = Math.floorMod(-(long) distance, size);
+        if (buffer.pushRange(start, size, downstream)) {
+            buffer.pushRange(0, start, downstream);
+        }
+    }
+
+    static <T> void repeat(SpillingBuffer<T> buffer, long n, Downstream<? super T> downstream) {
+        for (var i = 0L; i < n; i++) {
+            if (!buffer.pushRange(0, buffer.size(), downstream)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Shuffles the elements. Elements are scattered into random buckets, and every bucket that fits
+     * into the threshold is loaded and shuffled on its own, larger buckets are scattered again.
+     * Since every element picks its bucket independently, every permutation stays equally likely.
+     */
+    static <T> void shuffle(SpillingBuffer<T> buffer, SpillPolicy<T> policy, Downstream<? super T> downstream) {
+        shuffle(buffer.segmentCount(), buffer::segment, buffer.size(), buffer::close, policy, ThreadLocalRandom.current(), downstream);
+    }
+
+    /**
+     * Shuffles the elements read chunk by chunk.
+     * The buckets of one pass share a single spill file, at most {@link #MAX_FANOUT} of them are filled at once,
+     * and their pending elements are written out together whenever the threshold is reached,
+     * so the heap holds about one threshold of elements and every pass keeps only one file open.
+     *
+     * @param release called once the chunks have been scattered and are no longer needed
+     * @return {@code false} if the downstream rejected further elements
+     */
+    private static <T> boolean shuffle(int chunkCount, IntFunction<List<T>> chunks, long count, Runnable release,
+                                       SpillPolicy<T> policy, RandomGenerator random, Downstream<? super T> downstream) {
+        var threshold = policy.threshold();
+        if (count <= threshold) {
+            var elements = new ArrayList<T>((int) count);
+            for (var i = 0; i < chunkCount; i++) {
+                elements.addAll(chunks.apply(i));
+            }
+            release.run();
+            Collections.shuffle(elements, random);
+            for (var element : elements) {
+                if (!downstream.push(element)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        var fanout = (int) Math.min(MAX_FANOUT, (count - 1) / threshold + 1);
+        var pending = new ArrayList<List<T>>(fanout);
+        var runs = new ArrayList<List<long[]>>(fanout);
+        var counts = new long[fanout];
+        for (var i = 0; i < fanout; i++) {
+            pending.add(new ArrayList<>());
+            runs.add(new ArrayList<>());
+        }
+
+        try (var file = new SpillFile<>(policy)) {
+            var pendingCount = 0;
+            for (var i = 0; i < chunkCount; i++) {
+                for (var element : chunks.apply(i)) {
+                    var bucket = random.nextInt(fanout);
+                    pending.get(bucket).add(element);
+                    counts[bucket]++;
+                    if (++pendingCount >= threshold) {
+                        flush(file, pending, runs);
+                        pendingCount = 0;
+                    }
+                }
+            }
+            release.run();
+            // buckets that are scattered again open their own file, so nothing else should stay on the heap meanwhile
+            if (Arrays.stream(counts).anyMatch(bucketCount -> bucketCount > threshold)) {
+                flush(file, pending, runs);
+            }
+
+            for (var bucket = 0; bucket < fanout; bucket++) {
+                var bucketRuns = runs.get(bucket);
+                var bucketPending = pending.get(bucket);
+                IntFunction<List<T>> bucketChunks = i -> i < bucketRuns.size() ? file.read(bucketRuns.get(i)) : bucketPending;
+                if (!shuffle(bucketRuns.size() + 1, bucketChunks, counts[bucket], bucketPending::clear, policy, random, downstream)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static <T> void flush(SpillFile<T> file, List<List<T>> pending, List<List<long[]>> runs) {
+        for (var i = 0; i < pending.size(); i++) {
+            var elements = pending.get(i);
+            if (!elements.isEmpty()) {
+                runs.get(i).add(file.write(elements));
+                elements.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package io.github.jhspetersson.packrat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Gatherer;
+
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Returns windows of elements grouped by their timestamps in milliseconds.
+ * Windows of the specified size start at every multiple of the step, counted from the epoch,
+ * so a step equal to the size makes tumbling windows, a smaller one makes sliding windows.
+ * <p>
+ * A window is emitted as soon as an element with a timestamp at or past its end arrives,
+ * so only the elements of the currently open windows are buffered. Windows without elements are skipped.
+ * The stream is expected to be ordered by timestamp: an element belonging only to windows
+ * that were already emitted is dropped.
+ *
+ * @param <T> element type
+ * @author jhspetersson
+ */
+class TimeWindowGatherer<T> implements Gatherer<T, TimeWindowGatherer.State<T>, List<T>> {
+    private final ToLongFunction<? super T> timestampExtractor;
+    private final long size;
+    private final long step;
+
+    TimeWindowGatherer(@NonNull ToLongFunction<? super T> timestampExtractor, @NonNull Duration size, @NonNull Duration step) {
+        Objects.requireNonNull(timestampExtractor, "timestampExtractor cannot be null");
+        Objects.requireNonNull(size, "size cannot be null");
+        Objects.requireNonNull(step, "step cannot be null");
+        if (size.toMillis() <= 0) {
+            throw new IllegalArgumentException("size must be at least one millisecond");
+        }
+        if (step.toMillis() <= 0) {
+            throw new IllegalArgumentException("step must be at least one millisecond");
+        }
+
+        this.timestampExtractor = timestampExtractor;
+        this.size = size.toMillis();
+        this.step = step.toMillis();
+    }
+
+    @Override
+    public Supplier<State<T>> initializer() {
+        return State::new;
+    }
+
+    @Override
+    public Integrator<State<T>, T, List<T>> integrator() {
+        return Integrator.ofGreedy((state, element, downstream) -> {
+            var timestamp = timestampExtractor.applyAsLong(element);
+
+            while (!state.timestamps.isEmpty() && state.windowStart + size <= timestamp) {
+                if (!emitWindow(state, downstream)) {
+                    return false;
+                }
+            }
+            if (state.timestamps.isEmpty()) {
+                // skips the empty windows in between
+                state.windowStart = Math.max(state.windowStart, firstWindowStart(timestamp));
+            }
+            if (timestamp >= state.windowStart) {
+                state.elements.add(element);
+                state.timestamps.add(timestamp);
+            }
+
+            return !downstream.isRejecting();
+        });
+    }
+
+    @Override
+    public BiConsumer<State<T>, Downstream<? super List<T>>> finisher() {
+        return (state, downstream) -> {
+            while (!state.timestamps.isEmpty()) {
+                if (!emitWindow(state, downstream)) {
+                    break;
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns the start of the earliest window containing the timestamp.
+     */
+    private long firstWindowStart(long timestamp) {
+        return Math.floorDiv(timestamp - size, step) * step + step;
+    }
+
+    /**
+     * Emits the current window, then moves to the next one and evicts the elements that fall behind it.
+     */
+    private boolean emitWindow(State<T> state, Downstream<? super List<T>> downstream) {
+        var windowEnd = state.windowStart + size;
+        var window = new ArrayList<T>();
+        var elements = state.elements.view();
+        for (var i = 0; i < elements.size(); i++) {
+            var timestamp = state.timestamps.get(i);
+            if (timestamp >= state.windowStart && timestamp < windowEnd) {
+                window.add(elements.get(i));
+            }
+        }
+
+        state.windowStart += step;
+        while (!state.timestamps.isEmpty() && state.timestamps.first() < state.windowStart) {
+            state.timestamps.removeFirst();
+            state.elements.removeFirst();
+        }
+
+        return window.isEmpty() || downstream.push(window);
+    }
+
+    static class State<T> {
+        final RingBuffer<T> elements = new RingBuffer<>(Long.MAX_VALUE);
+        final LongRingBuffer timestamps = new LongRingBuffer(Long.MAX_VALUE);
+        long windowStart = Long.MIN_VALUE;
+    }
+}
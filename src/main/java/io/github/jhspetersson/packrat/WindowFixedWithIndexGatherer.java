@@ -1,6 +1,7 @@
 package io.github.jhspetersson.packrat;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.BiConsumer;
@@ -16,6 +17,9 @@ import org.jspecify.annotations.NonNull;
  * Windows are not sliding but go one after another with a step equal to the window's size.
  * The final window may contain fewer elements if the stream size is not a multiple of the window size,
  * matching the behavior of {@link java.util.stream.Gatherers#windowFixed}.
+ * <p>
+ * By default every window is a copy. In the borrowed mode, the mapper receives a read-only view
+ * over the internal list, which is cleared once the result has been pushed downstream.
  *
  * @param <T> element type
  * @param <R> result type
@@ -25,6 +29,7 @@ class WindowFixedWithIndexGatherer<T, R> implements Gatherer<T, WindowFixedWithI
     private final int windowSize;
     private final BiFunction<Long, List<T>, ? extends R> mapper;
     private final long startIndex;
+    private final boolean borrowed;
 
     /**
      * Creates a new WindowFixedWithIndexGatherer with the specified window size and mapper function.
@@ -34,6 +39,18 @@ class WindowFixedWithIndexGatherer<T, R> implements Gatherer<T, WindowFixedWithI
      * @param startIndex the starting index
      */
     WindowFixedWithIndexGatherer(int windowSize, @NonNull BiFunction<Long, List<T>, ? extends R> mapper, long startIndex) {
+        this(windowSize, mapper, startIndex, false);
+    }
+
+    /**
+     * Creates a new WindowFixedWithIndexGatherer with the specified window size and mapper function.
+     *
+     * @param windowSize the size of each window
+     * @param mapper the function to map each window with its index to a result
+     * @param startIndex the starting index
+     * @param borrowed whether the mapper receives a view over the internal list instead of a copy
+     */
+    WindowFixedWithIndexGatherer(int windowSize, @NonNull BiFunction<Long, List<T>, ? extends R> mapper, long startIndex, boolean borrowed) {
         if (windowSize <= 0) {
             throw new IllegalArgumentException("windowSize must be greater than zero");
         }
@@ -42,6 +59,7 @@ class WindowFixedWithIndexGatherer<T, R> implements Gatherer<T, WindowFixedWithI
         this.windowSize = windowSize;
         this.mapper = mapper;
         this.startIndex = startIndex;
+        this.borrowed = borrowed;
     }
 
     @Override
@@ -55,6 +73,12 @@ class WindowFixedWithIndexGatherer<T, R> implements Gatherer<T, WindowFixedWithI
             state.window.add(element);
             
             if (state.window.size() == windowSize) {
+                if (borrowed) {
+                    var accepted = downstream.push(mapper.apply(state.index++, state.view));
+                    state.window.clear();
+                    return accepted;
+                }
+
                 var windowCopy = new ArrayList<>(state.window);
                 var result = mapper.apply(state.index++, windowCopy);
                 state.window.clear();
@@ -70,8 +94,9 @@ class WindowFixedWithIndexGatherer<T, R> implements Gatherer<T, WindowFixedWithI
     public BiConsumer<State<T>, Downstream<? super R>> finisher() {
         return (state, downstream) -> {
             if (!state.window.isEmpty()) {
-                var result = mapper.apply(state.index, new ArrayList<>(state.window));
+                var result = mapper.apply(state.index, borrowed ? state.view : new ArrayList<>(state.window));
                 downstream.push(result);
+                state.window.clear();
             }
         };
     }
@@ -83,10 +108,12 @@ class WindowFixedWithIndexGatherer<T, R> implements Gatherer<T, WindowFixedWithI
      */
     static class State<T> {
         private final List<T> window;
+        private final List<T> view;
         private long index;
 
         State(int windowSize, long startIndex) {
             this.window = new ArrayList<>(windowSize);
+            this.view = Collections.unmodifiableList(window);
             this.index = startIndex;
         }
     }
@@ -15,6 +15,12 @@ import org.jspecify.annotations.NonNull;
  * If the stream contains fewer elements than the window size, a single window
  * containing all of them is emitted, matching the behavior of
  * {@link java.util.stream.Gatherers#windowSliding}.
+ * <p>
+ * By default every window is a copy. Without copying, the mapper receives a read-only view
+ * over the internal buffer, which is only valid during the call.
+ * <p>
+ * With a step greater than one, only every step-th window is emitted, the elements in between
+ * still pass through the buffer but are never copied.
  *
  * @param <T> element type
  * @param <R> result type
@@ -24,6 +30,8 @@ class WindowSlidingWithIndexGatherer<T, R> implements Gatherer<T, WindowSlidingW
     private final int windowSize;
     private final BiFunction<Long, List<T>, ? extends R> mapper;
     private final long startIndex;
+    private final boolean copy;
+    private final int step;
 
     /**
      * Creates a new WindowSlidingWithIndexGatherer with the specified window size and mapper function.
@@ -33,14 +41,44 @@ class WindowSlidingWithIndexGatherer<T, R> implements Gatherer<T, WindowSlidingW
      * @param startIndex the starting index
      */
     WindowSlidingWithIndexGatherer(int windowSize, @NonNull BiFunction<Long, List<T>, ? extends R> mapper, long startIndex) {
+        this(windowSize, 1, mapper, startIndex, true);
+    }
+
+    /**
+     * Creates a new WindowSlidingWithIndexGatherer with the specified window size and mapper function.
+     *
+     * @param windowSize the size of each window
+     * @param mapper the function to map each window with its index to a result
+     * @param startIndex the starting index
+     * @param copy whether every window is copied, or the mapper receives a view over the internal buffer
+     */
+    WindowSlidingWithIndexGatherer(int windowSize, @NonNull BiFunction<Long, List<T>, ? extends R> mapper, long startIndex, boolean copy) {
+        this(windowSize, 1, mapper, startIndex, copy);
+    }
+
+    /**
+     * Creates a new WindowSlidingWithIndexGatherer with the specified window size, step and mapper function.
+     *
+     * @param windowSize the size of each window
+     * @param step the number of elements between the starts of emitted windows
+     * @param mapper the function to map each window with its index to a result
+     * @param startIndex the starting index
+     * @param copy whether every window is copied, or the mapper receives a view over the internal buffer
+     */
+    WindowSlidingWithIndexGatherer(int windowSize, int step, @NonNull BiFunction<Long, List<T>, ? extends R> mapper, long startIndex, boolean copy) {
         if (windowSize <= 0) {
             throw new IllegalArgumentException("windowSize must be positive");
         }
+        if (step <= 0) {
+            throw new IllegalArgumentException("step must be positive");
+        }
         Objects.requireNonNull(mapper, "mapper cannot be null");
 
         this.windowSize = windowSize;
         this.mapper = mapper;
         this.startIndex = startIndex;
+        this.copy = copy;
+        this.step = step;
     }
 
     @Override
@@ -51,14 +89,12 @@ class WindowSlidingWithIndexGatherer<T, R> implements Gatherer<T, WindowSlidingW
     @Override
     public Integrator<State<T>, T, R> integrator() {
         return Integrator.ofGreedy((state, element, downstream) -> {
-            if (state.window.isFull()) {
-                state.window.removeFirst();
-            }
-            state.window.add(element);
+            state.window.addEvicting(element);
 
-            if (state.window.isFull()) {
-                var windowCopy = state.window.toList();
-                var result = mapper.apply(state.index++, windowCopy);
+            // counts down the elements to skip after the first full window
+            if (state.window.isFull() && state.skip-- == 0) {
+                state.skip = step - 1;
+                var result = mapper.apply(state.index++, window(state));
 
                 return downstream.push(result);
             }
@@ -72,12 +108,16 @@ class WindowSlidingWithIndexGatherer<T, R> implements Gatherer<T, WindowSlidingW
         return (state, downstream) -> {
             // a non-empty buffer that never filled up means no window has been emitted yet
             if (state.window.size() > 0 && !state.window.isFull()) {
-                var result = mapper.apply(state.index, state.window.toList());
+                var result = mapper.apply(state.index, window(state));
                 downstream.push(result);
             }
         };
     }
 
+    private List<T> window(State<T> state) {
+        return copy ? state.window.toList() : state.view;
+    }
+
     /**
      * State class for the WindowSlidingWithIndexGatherer.
      *
@@ -85,10 +125,13 @@ class WindowSlidingWithIndexGatherer<T, R> implements Gatherer<T, WindowSlidingW
      */
     static class State<T> {
         private final RingBuffer<T> window;
+        private final List<T> view;
         private long index;
+        private int skip;
 
         State(int windowSize, long startIndex) {
             this.window = new RingBuffer<>(windowSize);
+            this.view = window.view();
             this.index = startIndex;
         }
     }
@@ -1,24 +1,25 @@
 package io.github.jhspetersson.packrat;
 
 import java.util.Objects;
-import java.util.function.BiFunction;
 import java.util.function.Supplier;
 import java.util.stream.Gatherer;
 
+import io.github.jhspetersson.packrat.Packrat.LongObjFunction;
 import org.jspecify.annotations.NonNull;
 
 /**
  * Returns elements mapped ("zipped") with an increasing index.
+ * The index is passed to the mapper as a primitive {@code long}.
  *
  * @param <T> element type
  * @param <U> mapped element type
  * @author jhspetersson
  */
 class ZipWithIndexGatherer<T, U> implements Gatherer<T, long[], U> {
-    private final BiFunction<Long, ? super T, ? extends U> mapper;
+    private final LongObjFunction<? super T, ? extends U> mapper;
     private final long startIndex;
 
-    ZipWithIndexGatherer(@NonNull BiFunction<Long, ? super T, ? extends U> mapper, long startIndex) {
+    ZipWithIndexGatherer(@NonNull LongObjFunction<? super T, ? extends U> mapper, long startIndex) {
         Objects.requireNonNull(mapper, "mapper cannot be null");
 
         this.mapper = mapper;
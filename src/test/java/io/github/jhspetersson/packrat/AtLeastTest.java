@@ -2,11 +2,15 @@ package io.github.jhspetersson.packrat;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class AtLeastTest {
@@ -89,4 +93,71 @@ public class AtLeastTest {
         assertEquals(List.of("aa", "bb", "dd"), result);
         assertEquals(4, calls.get());
     }
+
+    @Test
+    void eagerAtLeastTest() {
+        var result = Stream.of(1, 2, 1, 3, 2, 1, 2).gather(Packrat.eagerAtLeast(2)).toList();
+        assertEquals(List.of(1, 1, 2, 2, 1, 2), result);
+    }
+
+    @Test
+    void eagerAtLeastKeepsSameElementsAsAtLeast() {
+        var numbers = List.of(1, 10, 3, 2, 3, 8, 4, 9, 5, 6, 7, 8, 3, 8, 8, 5);
+        var eager = numbers.stream().gather(Packrat.eagerAtLeast(3)).sorted().toList();
+        var buffered = numbers.stream().gather(Packrat.atLeast(3)).sorted().toList();
+        assertEquals(buffered, eager);
+    }
+
+    @Test
+    void eagerAtLeastShouldStreamInfiniteInput() {
+        var result = org.junit.jupiter.api.Assertions.assertTimeoutPreemptively(java.time.Duration.ofSeconds(2), () ->
+                Stream.iterate(0, i -> i + 1).gather(Packrat.eagerAtLeastBy(3, i -> i % 2)).limit(5).toList());
+
+        assertEquals(List.of(0, 2, 4, 1, 3), result);
+    }
+
+    @Test
+    void eagerAtLeastByShouldInvokeMapperOncePerElement() {
+        var calls = new AtomicInteger();
+        var result = Stream.of("aa", "c", "bb", "dd", "e")
+                .gather(Packrat.eagerAtLeastBy(2, s -> {
+                    calls.incrementAndGet();
+                    return s.length();
+                }))
+                .toList();
+        assertEquals(List.of("aa", "bb", "dd", "c", "e"), result);
+        assertEquals(5, calls.get());
+    }
+
+    @Test
+    void eagerAtLeastNullElementsTest() {
+        var result = Stream.of(null, "a", null, "b")
+                .gather(Packrat.eagerAtLeast(2))
+                .toList();
+        assertEquals(Arrays.asList(null, null), result);
+    }
+
+    @Test
+    void eagerAtLeastInvalidArgumentsThrow() {
+        assertThrows(IllegalArgumentException.class, () -> Packrat.eagerAtLeast(-1));
+        assertThrows(NullPointerException.class, () -> Packrat.eagerAtLeastBy(2, null));
+    }
+
+    @Test
+    void atLeastParallelShouldMatchSequential() {
+        var numbers = IntStream.range(0, 100_000).map(i -> (i * 7919) % 5_000 + (i % 3 == 0 ? i : 0)).boxed().toList();
+        var sequential = numbers.stream().gather(Packrat.atLeastBy(20, i -> i % 7_000)).toList();
+        var parallel = numbers.parallelStream().gather(Packrat.atLeastBy(20, i -> i % 7_000)).toList();
+        assertEquals(sequential, parallel);
+        assertFalse(sequential.isEmpty());
+    }
+
+    @Test
+    void atLeastParallelSmallTest() {
+        var result = Stream.of(1, 10, 3, 2, 3, 8, 4, 9, 5, 6, 7, 8, 3, 8, 8, 5)
+                .parallel()
+                .gather(Packrat.atLeast(3))
+                .toList();
+        assertEquals(List.of(3, 3, 8, 8, 3, 8, 8), result);
+    }
 }
@@ -6,9 +6,11 @@ import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class AtMostTest {
@@ -108,4 +110,22 @@ public class AtMostTest {
         assertEquals(List.of("c"), result);
         assertEquals(4, calls.get());
     }
+
+    @Test
+    void atMostParallelShouldMatchSequential() {
+        var numbers = IntStream.range(0, 100_000).map(i -> (i * 7919) % 5_000 + (i % 3 == 0 ? i : 0)).boxed().toList();
+        var sequential = numbers.stream().gather(Packrat.atMostBy(20, i -> i % 7_000)).toList();
+        var parallel = numbers.parallelStream().gather(Packrat.atMostBy(20, i -> i % 7_000)).toList();
+        assertEquals(sequential, parallel);
+        assertFalse(sequential.isEmpty());
+    }
+
+    @Test
+    void atMostParallelSmallTest() {
+        var result = Stream.of(1, 2, 3, 3, 3, 4, 5, 5, 6, 7, 8, 8, 8, 8, 9, 10)
+                .parallel()
+                .gather(Packrat.atMost(2))
+                .toList();
+        assertEquals(List.of(1, 2, 4, 5, 5, 6, 7, 9, 10), result);
+    }
 }
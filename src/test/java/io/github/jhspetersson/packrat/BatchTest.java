@@ -0,0 +1,84 @@
+package io.github.jhspetersson.packrat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BatchTest {
+    @Test
+    void batchTest() {
+        var result = Stream.of("a", "bb", "ccc", "dddd", "e", "f", "g")
+                .gather(Packrat.batch(3, String::length, 5))
+                .toList();
+
+        assertEquals(List.of(List.of("a", "bb"), List.of("ccc"), List.of("dddd", "e"), List.of("f", "g")), result);
+    }
+
+    @Test
+    void batchClosesOnCount() {
+        var result = IntStream.range(0, 10).boxed()
+                .gather(Packrat.batch(4, _ -> 1, Long.MAX_VALUE))
+                .toList();
+
+        assertEquals(List.of(List.of(0, 1, 2, 3), List.of(4, 5, 6, 7), List.of(8, 9)), result);
+    }
+
+    @Test
+    void batchClosesExactlyAtMaxWeight() {
+        var result = Stream.of(2, 3, 5, 1, 4)
+                .gather(Packrat.batch(100, i -> i, 5))
+                .toList();
+
+        assertEquals(List.of(List.of(2, 3), List.of(5), List.of(1, 4)), result);
+    }
+
+    @Test
+    void heavyElementMakesItsOwnBatch() {
+        var result = Stream.of(1, 10, 1, 1)
+                .gather(Packrat.batch(100, i -> i, 3))
+                .toList();
+
+        assertEquals(List.of(List.of(1), List.of(10), List.of(1, 1)), result);
+    }
+
+    @Test
+    void batchShortCircuitTest() {
+        var result = Stream.iterate(0, i -> i + 1)
+                .gather(Packrat.batch(3, _ -> 0, 1))
+                .limit(2)
+                .toList();
+
+        assertEquals(List.of(List.of(0, 1, 2), List.of(3, 4, 5)), result);
+    }
+
+    @Test
+    void emptyStreamTest() {
+        var result = Stream.<String>empty().gather(Packrat.batch(3, String::length, 5)).toList();
+
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void invalidArgumentsThrow() {
+        assertThrows(IllegalArgumentException.class, () -> Packrat.<String>batch(0, String::length, 5));
+        assertThrows(IllegalArgumentException.class, () -> Packrat.<String>batch(3, String::length, 0));
+        assertThrows(NullPointerException.class, () -> Packrat.<String>batch(3, null, 5));
+        assertThrows(IllegalArgumentException.class, () -> Stream.of(1).gather(Packrat.batch(3, _ -> -1, 5)).toList());
+    }
+
+    @Test
+    void batchesAreReadOnly() {
+        var result = Stream.of(1, 2, 3)
+                .gather(Packrat.batch(2, _ -> 1, 10))
+                .toList();
+
+        assertThrows(UnsupportedOperationException.class, () -> result.getFirst().add(4));
+        assertThrows(UnsupportedOperationException.class, () -> result.getLast().clear());
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.jhspetersson.packrat;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BloomFilterTest {
+    @Test
+    void putReportsNewValues() {
+        var filter = new BloomFilter(100, 0.01);
+
+        assertFalse(filter.mightContain(BloomFilter.hash("a")));
+        assertTrue(filter.put(BloomFilter.hash("a")));
+        assertFalse(filter.put(BloomFilter.hash("a")));
+        assertTrue(filter.mightContain(BloomFilter.hash("a")));
+        assertTrue(filter.put(BloomFilter.hash(null)));
+        assertTrue(filter.mightContain(BloomFilter.hash(null)));
+    }
+
+    @Test
+    void noFalseNegatives() {
+        var filter = new BloomFilter(10_000, 0.01);
+        for (var i = 0; i < 10_000; i++) {
+            filter.put(BloomFilter.hash(i));
+        }
+        for (var i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain(BloomFilter.hash(i)));
+        }
+    }
+
+    @Test
+    void falsePositiveRateIsCloseToExpected() {
+        var filter = new BloomFilter(10_000, 0.01);
+        for (var i = 0; i < 10_000; i++) {
+            filter.put(BloomFilter.hash(i));
+        }
+        var falsePositives = 0;
+        for (var i = 10_000; i < 110_000; i++) {
+            if (filter.mightContain(BloomFilter.hash(i))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "too many false positives: " + falsePositives);
+    }
+
+    @Test
+    void valuesWithCollidingHashCodesGetDifferentHashes() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        assertNotEquals(BloomFilter.hash("Aa"), BloomFilter.hash("BB"));
+        assertEquals(Long.valueOf(0L).hashCode(), Long.valueOf(0x1_0000_0001L).hashCode());
+        assertNotEquals(BloomFilter.hash(0L), BloomFilter.hash(0x1_0000_0001L));
+        assertEquals(BloomFilter.hash(new String("abc")), BloomFilter.hash("abc"));
+        assertEquals(BloomFilter.hash(1.5), BloomFilter.hash(Double.valueOf(1.5)));
+    }
+
+    @Test
+    void invalidArgumentsThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 0.0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(Long.MAX_VALUE, 0.01));
+    }
+}
@@ -2,8 +2,21 @@ package io.github.jhspetersson.packrat;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Gatherer;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
 import static io.github.jhspetersson.packrat.TestUtils.getEmployees;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class DistinctByTest {
     @Test
@@ -13,4 +26,271 @@ public class DistinctByTest {
         var distinctAge = getEmployees().gather(Packrat.distinctBy(Employee::age)).count();
         assertEquals(4, distinctAge);
     }
+
+    @Test
+    void distinctByMaxKeysTest() {
+        var result = Stream.of(1, 2, 1, 3, 1, 4, 2, 5)
+                .gather(Packrat.distinctBy(i -> i, 2))
+                .toList();
+        // 1 stays remembered because it keeps being seen, 2 is evicted by 3
+        assertEquals(List.of(1, 2, 3, 4, 2, 5), result);
+    }
+
+    @Test
+    void distinctByMaxKeysBehavesLikeDistinctByWhenLargeEnough() {
+        var result = getEmployees().gather(Packrat.distinctBy(Employee::age, 100)).count();
+        assertEquals(4, result);
+    }
+
+    @Test
+    void distinctByMaxKeysShouldStreamInfiniteInput() {
+        var result = Stream.iterate(0, i -> i + 1)
+                .gather(Packrat.distinctBy(i -> i % 10, 5))
+                .limit(30)
+                .toList();
+        assertEquals(IntStream.range(0, 30).boxed().toList(), result);
+    }
+
+    @Test
+    void distinctByWithinTest() {
+        var result = Stream.of(1, 2, 1, 3, 4, 1).gather(Packrat.distinctByWithin(i -> i, 2)).toList();
+        assertEquals(List.of(1, 2, 3, 4, 1), result);
+    }
+
+    @Test
+    void distinctByWithinOneRemovesConsecutiveDuplicates() {
+        var result = Stream.of("a", "a", "b", "a", null, null, "b")
+                .gather(Packrat.distinctByWithin(s -> s, 1))
+                .toList();
+        assertEquals(Arrays.asList("a", "b", "a", null, "b"), result);
+    }
+
+    @Test
+    void distinctByWithinRepeatingKeysInWindow() {
+        var result = Stream.of(1, 1, 1, 2, 3, 1, 4, 5, 6, 1)
+                .gather(Packrat.distinctByWithin(i -> i, 3))
+                .toList();
+        // the second to last 1 is within three elements from the previous one, the last 1 is not
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 1), result);
+    }
+
+    @Test
+    void boundedDistinctByInvalidArgumentsThrow() {
+        assertThrows(IllegalArgumentException.class, () -> Packrat.distinctBy(i -> i, 0));
+        assertThrows(IllegalArgumentException.class, () -> Packrat.distinctByWithin(i -> i, 0));
+        assertThrows(NullPointerException.class, () -> Packrat.distinctBy(null, 1));
+        assertThrows(NullPointerException.class, () -> Packrat.distinctByWithin(null, 1));
+    }
+
+    @Test
+    void distinctByLongTest() {
+        var result = getEmployees().gather(Packrat.distinctByLong(Employee::age)).toList();
+        assertEquals(4, result.size());
+        assertEquals(new Employee("Mark Bloom", 21), result.get(2));
+    }
+
+    @Test
+    void distinctByLongZeroAndNegativeKeysTest() {
+        var result = Stream.of(0L, -1L, 0L, Long.MIN_VALUE, -1L, Long.MIN_VALUE, 5L)
+                .gather(Packrat.distinctByLong(l -> l))
+                .toList();
+        assertEquals(List.of(0L, -1L, Long.MIN_VALUE, 5L), result);
+    }
+
+    @Test
+    void distinctByIntTest() {
+        var result = IntStream.range(0, 100_000).boxed()
+                .gather(Packrat.distinctByInt(i -> i % 1_000))
+                .toList();
+        assertEquals(IntStream.range(0, 1_000).boxed().toList(), result);
+    }
+
+    @Test
+    void distinctByIntShortCircuitTest() {
+        var result = Stream.iterate(0, i -> i + 1)
+                .gather(Packrat.distinctByInt(i -> i / 2))
+                .limit(3)
+                .toList();
+        assertEquals(List.of(0, 2, 4), result);
+    }
+
+    @Test
+    void parallelDistinctByTest() {
+        var result = getEmployees().gather(Packrat.parallelDistinctBy(Employee::age)).toList();
+        assertEquals(List.of(
+                new Employee("Ann Smith", 35),
+                new Employee("John Rodgers", 40),
+                new Employee("Mark Bloom", 21),
+                new Employee("Rebecca Schneider", 24)
+        ), result);
+    }
+
+    @Test
+    void parallelDistinctByShouldKeepFirstOccurrenceInEncounterOrder() {
+        var expected = IntStream.range(0, 1_000).boxed().toList();
+        var result = IntStream.range(0, 100_000).boxed()
+                .parallel()
+                .gather(Packrat.parallelDistinctBy(i -> i % 1_000))
+                .toList();
+        assertEquals(expected, result);
+    }
+
+    @Test
+    void parallelDistinctByNullElementsTest() {
+        var result = Stream.of("a", null, "b", null, "a")
+                .gather(Packrat.parallelDistinctBy(s -> s))
+                .toList();
+        assertEquals(Arrays.asList("a", null, "b"), result);
+    }
+
+    @Test
+    void unorderedDistinctByTest() {
+        var result = getEmployees().gather(Packrat.unorderedDistinctBy(Employee::age)).toList();
+        assertEquals(4, result.size());
+    }
+
+    @Test
+    void unorderedDistinctByParallelShouldKeepOneElementPerKey() {
+        var result = IntStream.range(0, 100_000).boxed()
+                .parallel()
+                .gather(Packrat.unorderedDistinctBy(i -> i % 1_000))
+                .toList();
+        assertEquals(1_000, result.size());
+        assertEquals(1_000, new HashSet<>(result.stream().map(i -> i % 1_000).toList()).size());
+    }
+
+    @Test
+    void unorderedDistinctByNullKeysTest() {
+        var result = Stream.of("a", "bb", "c", "dd")
+                .gather(Packrat.unorderedDistinctBy(s -> s.length() == 1 ? null : s.length()))
+                .toList();
+        assertEquals(List.of("a", "bb"), result);
+    }
+
+    @Test
+    void unorderedDistinctByGathererCanBeReused() {
+        var gatherer = Packrat.<Integer, Integer>unorderedDistinctBy(i -> i % 2);
+        assertEquals(List.of(1, 2), Stream.of(1, 2, 3, 4).gather(gatherer).toList());
+        assertEquals(List.of(1, 2), Stream.of(1, 2, 3, 4).gather(gatherer).toList());
+    }
+
+    @Test
+    void unorderedDistinctByCompositeCanBeReused() {
+        var composite = Packrat.<Integer, Integer>unorderedDistinctBy(i -> i % 10).andThen(Packrat.mapWithIndex((index, i) -> index + ":" + i));
+
+        assertEquals(List.of("0:1", "1:2", "2:3"), Stream.of(1, 2, 11, 3, 12).gather(composite).toList());
+        assertEquals(List.of("0:2", "1:1"), Stream.of(2, 12, 1).gather(composite).toList());
+    }
+
+    @Test
+    void approximateDistinctByTest() {
+        var result = getEmployees().gather(Packrat.approximateDistinctBy(Employee::age, 100, 0.001)).toList();
+        assertEquals(4, result.size());
+        assertEquals(new Employee("Mark Bloom", 21), result.get(2));
+    }
+
+    @Test
+    void approximateDistinctByNeverPassesDuplicates() {
+        var result = IntStream.range(0, 100_000).boxed()
+                .gather(Packrat.approximateDistinctBy(i -> i % 1_000, 1_000, 0.01))
+                .toList();
+        assertEquals(result.size(), new HashSet<>(result).size());
+        assertTrue(result.size() > 950, "too many false positives: " + result.size());
+        assertTrue(result.stream().allMatch(i -> i < 1_000));
+    }
+
+    @Test
+    void approximateDistinctByShouldStreamInfiniteInput() {
+        var result = Stream.iterate(0, i -> i + 1)
+                .gather(Packrat.approximateDistinctBy(i -> i / 2, 100, 0.0001))
+                .limit(3)
+                .toList();
+        assertEquals(List.of(0, 2, 4), result);
+    }
+
+    @Test
+    void parallelApproximateDistinctByTest() {
+        var result = getEmployees().gather(Packrat.parallelApproximateDistinctBy(Employee::age, 100, 0.001)).toList();
+        assertEquals(List.of(
+                new Employee("Ann Smith", 35),
+                new Employee("John Rodgers", 40),
+                new Employee("Mark Bloom", 21),
+                new Employee("Rebecca Schneider", 24)
+        ), result);
+    }
+
+    @Test
+    void parallelApproximateDistinctByShouldKeepFirstOccurrenceInEncounterOrder() {
+        var result = IntStream.range(0, 100_000).boxed()
+                .parallel()
+                .gather(Packrat.parallelApproximateDistinctBy(i -> i % 1_000, 1_000, 0.01))
+                .toList();
+        assertEquals(result.size(), new HashSet<>(result).size());
+        assertTrue(result.size() > 950, "too many false positives: " + result.size());
+        // first occurrences are the numbers below 1000, in ascending order
+        assertEquals(result.stream().sorted().toList(), result);
+        assertTrue(result.stream().allMatch(i -> i < 1_000));
+    }
+
+    @Test
+    void approximateDistinctByWithHasherTest() {
+        var result = LongStream.range(0, 10_000).boxed()
+                .gather(Packrat.approximateDistinctBy(i -> i % 1_000, Long::longValue, 1_000, 0.001))
+                .toList();
+        assertEquals(result.size(), new HashSet<>(result).size());
+        assertTrue(result.size() > 990, "too many false positives: " + result.size());
+
+        var parallelResult = LongStream.range(0, 10_000).boxed()
+                .parallel()
+                .gather(Packrat.parallelApproximateDistinctBy(i -> i % 1_000, Long::longValue, 1_000, 0.001))
+                .toList();
+        assertEquals(parallelResult.stream().sorted().toList(), parallelResult);
+        assertTrue(parallelResult.size() > 990, "too many false positives: " + parallelResult.size());
+    }
+
+    @Test
+    void parallelApproximateDistinctBySplitSwitchesToFilter() {
+        var gatherer = new ParallelApproximateDistinctByGatherer<Integer, Integer>(i -> i, BloomFilter::hash, 1_000, 0.01);
+        var integrator = gatherer.integrator();
+        Gatherer.Downstream<Integer> downstream = _ -> true;
+
+        var left = gatherer.initializer().get();
+        for (var i = 0; i < 10; i++) {
+            integrator.integrate(left, i % 5, downstream);
+        }
+        assertEquals(5, left.elements.size());
+        assertNull(left.filter);
+
+        var right = gatherer.initializer().get();
+        for (var i = 0; i < 1_000; i++) {
+            integrator.integrate(right, i, downstream);
+        }
+        assertNotNull(right.filter);
+        assertNull(right.set);
+
+        var merged = gatherer.combiner().apply(left, right);
+        assertNotNull(merged.filter);
+        assertEquals(List.of(0, 1, 2, 3, 4), merged.elements.subList(0, 5));
+        assertTrue(merged.elements.size() <= 1_000);
+        assertTrue(merged.elements.size() > 950, "too many false positives: " + merged.elements.size());
+    }
+
+    @Test
+    void approximateDistinctByInvalidArgumentsThrow() {
+        assertThrows(IllegalArgumentException.class, () -> Packrat.approximateDistinctBy(i -> i, 0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> Packrat.approximateDistinctBy(i -> i, 10, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> Packrat.parallelApproximateDistinctBy(i -> i, 10, 0.0));
+        assertThrows(NullPointerException.class, () -> Packrat.approximateDistinctBy(null, 10, 0.01));
+        assertThrows(NullPointerException.class, () -> Packrat.parallelApproximateDistinctBy(null, 10, 0.01));
+        assertThrows(NullPointerException.class, () -> Packrat.<Integer, Integer>approximateDistinctBy(i -> i, null, 10, 0.01));
+        assertThrows(NullPointerException.class, () -> Packrat.<Integer, Integer>parallelApproximateDistinctBy(i -> i, null, 10, 0.01));
+    }
+
+    @Test
+    void nullMapperThrows() {
+        assertThrows(NullPointerException.class, () -> Packrat.parallelDistinctBy(null));
+        assertThrows(NullPointerException.class, () -> Packrat.unorderedDistinctBy(null));
+        assertThrows(NullPointerException.class, () -> Packrat.distinctByLong(null));
+        assertThrows(NullPointerException.class, () -> Packrat.distinctByInt(null));
+    }
 }
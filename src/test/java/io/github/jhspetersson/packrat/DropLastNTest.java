@@ -10,6 +10,7 @@ import java.util.stream.Stream;
 
 import static io.github.jhspetersson.packrat.TestUtils.isOrderedSequence;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class DropLastNTest {
@@ -115,4 +116,23 @@ public class DropLastNTest {
         assertEquals(0, result.getFirst());
         assertEquals(29, result.getLast());
     }
+
+    @Test
+    void parallelDropLastTest() {
+        for (var n : new int[] {0, 1, 7, 5_000, 20_000}) {
+            var result = IntStream.range(0, 10_000).boxed().parallel().gather(Packrat.parallelDropLast(n)).toList();
+            assertEquals(IntStream.range(0, Math.max(0, 10_000 - n)).boxed().toList(), result);
+        }
+    }
+
+    @Test
+    void parallelDropLastSequentialTest() {
+        var result = Stream.of(1, 2, 3, 4, 5).gather(Packrat.parallelDropLast(2)).toList();
+        assertEquals(List.of(1, 2, 3), result);
+    }
+
+    @Test
+    void parallelDropLastNegativeThrows() {
+        assertThrows(IllegalArgumentException.class, () -> Packrat.parallelDropLast(-1));
+    }
 }
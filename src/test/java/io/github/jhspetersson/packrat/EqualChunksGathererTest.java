@@ -2,13 +2,16 @@ package io.github.jhspetersson.packrat;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class EqualChunksGathererTest {
     @Test
@@ -146,4 +149,65 @@ public class EqualChunksGathererTest {
         var result2 = Stream.of(1, 1, 2, 2).gather(gatherer).toList();
         assertEquals(List.of(List.of(1, 1), List.of(2, 2)), result2);
     }
+
+    @Test
+    void equalChunksViewByTest() {
+        var chunks = new ArrayList<List<String>>();
+        Stream.of("apple", "avocado", "banana", "blueberry", "cherry")
+                .gather(Packrat.equalChunksViewBy(s -> s.charAt(0)))
+                .forEach(chunk -> chunks.add(List.copyOf(chunk)));
+
+        assertEquals(List.of(List.of("apple", "avocado"), List.of("banana", "blueberry"), List.of("cherry")), chunks);
+    }
+
+    @Test
+    void equalChunksViewByPassesSameClearedBuffer() {
+        var result = Stream.of(1, 1, 2, 3, 3)
+                .gather(Packrat.equalChunksViewBy(i -> i))
+                .toList();
+
+        assertEquals(3, result.size());
+        assertSame(result.get(0), result.get(2));
+        assertTrue(result.getFirst().isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> result.getFirst().add(1));
+    }
+
+    @Test
+    void equalChunksViewByShortCircuitTest() {
+        var sizes = Stream.iterate(0, i -> i + 1)
+                .gather(Packrat.equalChunksViewBy(i -> i / 3))
+                .map(List::size)
+                .limit(2)
+                .toList();
+
+        assertEquals(List.of(3, 3), sizes);
+    }
+
+    @Test
+    void equalChunksViewTest() {
+        var chunks = new ArrayList<List<Integer>>();
+        Stream.of(1, 1, 2, 3, 3).gather(Packrat.<Integer>equalChunksView()).forEach(chunk -> chunks.add(List.copyOf(chunk)));
+
+        assertEquals(List.of(List.of(1, 1), List.of(2), List.of(3, 3)), chunks);
+    }
+
+    @Test
+    void equalChunksViewWithComparatorTest() {
+        var chunks = new ArrayList<List<String>>();
+        Stream.of("a", "A", "b", "B", "c")
+                .gather(Packrat.equalChunksView(String.CASE_INSENSITIVE_ORDER))
+                .forEach(chunk -> chunks.add(List.copyOf(chunk)));
+
+        assertEquals(List.of(List.of("a", "A"), List.of("b", "B"), List.of("c")), chunks);
+    }
+
+    @Test
+    void equalChunksViewByWithComparatorTest() {
+        var chunks = new ArrayList<List<String>>();
+        Stream.of("A123", "a456", "B789", "c012")
+                .gather(Packrat.equalChunksViewBy(s -> s.substring(0, 1), String.CASE_INSENSITIVE_ORDER))
+                .forEach(chunk -> chunks.add(List.copyOf(chunk)));
+
+        assertEquals(List.of(List.of("A123", "a456"), List.of("B789"), List.of("c012")), chunks);
+    }
 }
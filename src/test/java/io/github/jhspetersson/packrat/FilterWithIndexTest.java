@@ -125,4 +125,18 @@ public class FilterWithIndexTest {
         var result = List.of(1, 2).stream().gather(Packrat.odd()).toList();
         assertEquals(List.of(2), result);
     }
+
+    @Test
+    public void filterWithLongIndexTest() {
+        var numbers = Stream.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+        var result = numbers.gather(Packrat.filterWithLongIndex((index, element) -> index % 3 == 0 || element == 5)).toList();
+        assertEquals(List.of(1, 4, 5, 7, 10), result);
+    }
+
+    @Test
+    public void filterWithLongIndexStartIndexTest() {
+        var numbers = Stream.of(1, 2, 3, 4, 5);
+        var result = numbers.gather(Packrat.filterWithLongIndex((index, _) -> index >= 12, 10)).toList();
+        assertEquals(List.of(3, 4, 5), result);
+    }
 }
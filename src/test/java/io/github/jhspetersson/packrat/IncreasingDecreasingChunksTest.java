@@ -2,12 +2,14 @@ package io.github.jhspetersson.packrat;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class IncreasingDecreasingChunksTest {
     @Test
@@ -80,4 +82,60 @@ public class IncreasingDecreasingChunksTest {
         var result2 = Stream.of(2, 1, 2, 1).gather(gatherer).toList();
         assertEquals(List.of(List.of(2, 1), List.of(2, 1)), result2);
     }
+
+    @Test
+    void chunksViewTest() {
+        var increasing = new ArrayList<List<Integer>>();
+        Stream.of(1, 2, 2, 5, 4, 2, 6)
+                .gather(Packrat.increasingChunksView(Comparator.<Integer>naturalOrder()))
+                .forEach(chunk -> increasing.add(List.copyOf(chunk)));
+        assertEquals(List.of(List.of(1, 2), List.of(2, 5), List.of(4), List.of(2, 6)), increasing);
+
+        var increasingOrEqual = new ArrayList<List<Integer>>();
+        Stream.of(1, 2, 2, 5, 4, 2, 6)
+                .gather(Packrat.increasingOrEqualChunksView(Comparator.<Integer>naturalOrder()))
+                .forEach(chunk -> increasingOrEqual.add(List.copyOf(chunk)));
+        assertEquals(List.of(List.of(1, 2, 2, 5), List.of(4), List.of(2, 6)), increasingOrEqual);
+
+        var decreasing = new ArrayList<List<Integer>>();
+        Stream.of(5, 3, 3, 1, 4)
+                .gather(Packrat.decreasingChunksView(Comparator.<Integer>naturalOrder()))
+                .forEach(chunk -> decreasing.add(List.copyOf(chunk)));
+        assertEquals(List.of(List.of(5, 3), List.of(3, 1), List.of(4)), decreasing);
+
+        var decreasingOrEqual = new ArrayList<List<Integer>>();
+        Stream.of(5, 3, 3, 1, 4)
+                .gather(Packrat.decreasingOrEqualChunksView(Comparator.<Integer>naturalOrder()))
+                .forEach(chunk -> decreasingOrEqual.add(List.copyOf(chunk)));
+        assertEquals(List.of(List.of(5, 3, 3, 1), List.of(4)), decreasingOrEqual);
+    }
+
+    @Test
+    void chunksViewIsClearedAfterPush() {
+        var result = Stream.of(1, 2, 1, 2)
+                .gather(Packrat.increasingChunksView(Comparator.<Integer>naturalOrder()))
+                .toList();
+
+        assertEquals(2, result.size());
+        assertTrue(result.getFirst().isEmpty());
+    }
+
+    @Test
+    void naturalOrderChunksViewTest() {
+        var increasing = new ArrayList<List<Integer>>();
+        Stream.of(1, 2, 2, 5, 4).gather(Packrat.<Integer>increasingChunksView()).forEach(chunk -> increasing.add(List.copyOf(chunk)));
+        assertEquals(List.of(List.of(1, 2), List.of(2, 5), List.of(4)), increasing);
+
+        var increasingOrEqual = new ArrayList<List<Integer>>();
+        Stream.of(1, 2, 2, 5, 4).gather(Packrat.<Integer>increasingOrEqualChunksView()).forEach(chunk -> increasingOrEqual.add(List.copyOf(chunk)));
+        assertEquals(List.of(List.of(1, 2, 2, 5), List.of(4)), increasingOrEqual);
+
+        var decreasing = new ArrayList<List<Integer>>();
+        Stream.of(5, 3, 3, 1, 4).gather(Packrat.<Integer>decreasingChunksView()).forEach(chunk -> decreasing.add(List.copyOf(chunk)));
+        assertEquals(List.of(List.of(5, 3), List.of(3, 1), List.of(4)), decreasing);
+
+        var decreasingOrEqual = new ArrayList<List<Integer>>();
+        Stream.of(5, 3, 3, 1, 4).gather(Packrat.<Integer>decreasingOrEqualChunksView()).forEach(chunk -> decreasingOrEqual.add(List.copyOf(chunk)));
+        assertEquals(List.of(List.of(5, 3, 3, 1), List.of(4)), decreasingOrEqual);
+    }
 }
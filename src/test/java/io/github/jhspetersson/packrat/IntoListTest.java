@@ -12,6 +12,8 @@ import static io.github.jhspetersson.packrat.TestUtils.isOrderedSequence;
 import static io.github.jhspetersson.packrat.TestUtils.isReverseOrderedSequence;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class IntoListTest {
@@ -43,6 +45,83 @@ public class IntoListTest {
         assertEquals(size, Set.copyOf(after).size());
     }
 
+    @Test
+    void parallelShuffleAcrossBlocksTest() {
+        var size = 300_000;
+        var after = IntStream.range(0, size).boxed().parallel().gather(Packrat.shuffle()).toList();
+
+        assertFalse(isOrderedSequence(after));
+        assertEquals(IntStream.range(0, size).boxed().toList(), after.stream().sorted().toList());
+    }
+
+    @Test
+    void shuffleWithSeedIsReproducible() {
+        for (var size : new int[] {10, 300_000}) {
+            var sequential = IntStream.range(0, size).boxed().gather(Packrat.shuffle(42)).toList();
+            var parallel = IntStream.range(0, size).boxed().parallel().gather(Packrat.shuffle(42)).toList();
+            var otherSeed = IntStream.range(0, size).boxed().gather(Packrat.shuffle(43)).toList();
+
+            assertEquals(sequential, parallel);
+            assertNotEquals(sequential, otherSeed);
+            assertEquals(IntStream.range(0, size).boxed().toList(), sequential.stream().sorted().toList());
+        }
+    }
+
+    @Test
+    void shuffleWithSeedIsReproducibleAcrossUnevenSplits() {
+        var size = 3_000_000;
+        var sequential = IntStream.range(0, size).boxed().gather(Packrat.shuffle(42)).toList();
+        var parallel = IntStream.range(0, size).boxed().parallel().filter(i -> i >= 0).gather(Packrat.shuffle(42)).toList();
+
+        assertEquals(sequential, parallel);
+        assertEquals(IntStream.range(0, size).boxed().toList(), parallel.stream().sorted().toList());
+    }
+
+    @Test
+    void shuffleShortCircuitTest() {
+        var after = IntStream.range(0, 100).boxed().gather(Packrat.shuffle(7)).limit(5).toList();
+
+        assertEquals(5, after.size());
+        assertTrue(Stream.empty().gather(Packrat.shuffle(7)).toList().isEmpty());
+    }
+
+    @Test
+    void shuffleBufferedTest() {
+        var after = IntStream.range(0, 1000).boxed().gather(Packrat.shuffleBuffered(100)).toList();
+
+        assertFalse(isOrderedSequence(after));
+        assertEquals(IntStream.range(0, 1000).boxed().toList(), after.stream().sorted().toList());
+    }
+
+    @Test
+    void shuffleBufferedKeepsElementsNearby() {
+        var after = IntStream.range(0, 1000).boxed().gather(Packrat.shuffleBuffered(10)).toList();
+
+        for (var i = 0; i < after.size(); i++) {
+            assertTrue(after.get(i) <= i + 10, "element " + after.get(i) + " at position " + i);
+        }
+    }
+
+    @Test
+    void shuffleBufferedWithSeedIsReproducible() {
+        var first = IntStream.range(0, 1000).boxed().gather(Packrat.shuffleBuffered(50, 42)).toList();
+        var second = IntStream.range(0, 1000).boxed().gather(Packrat.shuffleBuffered(50, 42)).toList();
+        var third = IntStream.range(0, 1000).boxed().gather(Packrat.shuffleBuffered(50, 43)).toList();
+
+        assertEquals(first, second);
+        assertNotEquals(first, third);
+    }
+
+    @Test
+    void shuffleBufferedInfiniteStreamTest() {
+        var after = Stream.iterate(0, i -> i + 1).gather(Packrat.shuffleBuffered(5)).limit(20).toList();
+
+        assertEquals(20, after.size());
+        assertEquals(20, Set.copyOf(after).size());
+        assertTrue(Stream.empty().gather(Packrat.shuffleBuffered(5)).toList().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> Packrat.shuffleBuffered(0));
+    }
+
     @Test
     void reverseTest() {
         var before = new ArrayList<Integer>();
@@ -55,6 +134,28 @@ public class IntoListTest {
         assertTrue(isReverseOrderedSequence(after));
     }
 
+    @Test
+    void reverseAcrossChunksTest() {
+        var after = IntStream.range(0, 100_000).boxed().gather(Packrat.reverse()).toList();
+
+        assertEquals(IntStream.range(0, 100_000).map(i -> 99_999 - i).boxed().toList(), after);
+    }
+
+    @Test
+    void parallelReverseTest() {
+        var after = IntStream.range(0, 100_000).boxed().parallel().gather(Packrat.reverse()).toList();
+
+        assertEquals(IntStream.range(0, 100_000).map(i -> 99_999 - i).boxed().toList(), after);
+    }
+
+    @Test
+    void reverseShortCircuitTest() {
+        var after = IntStream.range(0, 100).boxed().gather(Packrat.reverse()).limit(3).toList();
+
+        assertEquals(List.of(99, 98, 97), after);
+        assertTrue(Stream.empty().gather(Packrat.reverse()).toList().isEmpty());
+    }
+
     @Test
     void rotateTest() {
         var before = new ArrayList<Integer>();
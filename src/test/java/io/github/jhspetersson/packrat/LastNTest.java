@@ -85,6 +85,22 @@ public class LastNTest {
         assertEquals(List.of(7, 8, 9), result);
     }
 
+    @Test
+    public void lastWindowLargerThanInitialCapacity() {
+        var result = IntStream.range(0, 1_000).boxed()
+                .gather(new LastingGatherer<>(100))
+                .toList();
+
+        assertEquals(IntStream.range(900, 1_000).boxed().toList(), result);
+    }
+
+    @Test
+    public void lastZeroReturnsNothing() {
+        var result = Stream.of(1, 2, 3).gather(new LastingGatherer<>(0)).toList();
+
+        assertEquals(List.of(), result);
+    }
+
     @Test
     public void negativeNThrows() {
         assertThrows(IllegalArgumentException.class, () -> new LastingGatherer<Integer>(-1));
@@ -163,4 +179,22 @@ public class LastNTest {
 
         assertEquals(List.of(2, 1, 3), result);
     }
+
+    @Test
+    public void lastParallelTest() {
+        for (var n : new int[] {1, 7, 100, 5_000, 20_000}) {
+            var result = IntStream.range(0, 10_000).boxed().parallel().gather(Packrat.last(n)).toList();
+            assertEquals(IntStream.range(Math.max(0, 10_000 - n), 10_000).boxed().toList(), result);
+        }
+    }
+
+    @Test
+    public void lastUniqueByParallelTest() {
+        var data = IntStream.range(0, 10_000).map(i -> (i * 31) % 1_000).boxed().toList();
+        for (var n : new int[] {1, 10, 999, 2_000}) {
+            var sequential = data.stream().gather(Packrat.lastUniqueBy(n, i -> i % 100)).toList();
+            var parallel = data.parallelStream().gather(Packrat.lastUniqueBy(n, i -> i % 100)).toList();
+            assertEquals(sequential, parallel);
+        }
+    }
 }
@@ -0,0 +1,75 @@
+package io.github.jhspetersson.packrat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LongHashSetTest {
+    @Test
+    void addReportsNewValues() {
+        var set = new LongHashSet();
+
+        assertTrue(set.add(1));
+        assertTrue(set.add(2));
+        assertFalse(set.add(1));
+        assertEquals(2, set.size());
+        assertTrue(set.contains(1));
+        assertTrue(set.contains(2));
+        assertFalse(set.contains(3));
+    }
+
+    @Test
+    void zeroIsTrackedSeparately() {
+        var set = new LongHashSet();
+
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertTrue(set.contains(0));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void extremeValues() {
+        var set = new LongHashSet();
+
+        assertTrue(set.add(Long.MIN_VALUE));
+        assertTrue(set.add(Long.MAX_VALUE));
+        assertTrue(set.add(-1));
+        assertFalse(set.add(Long.MIN_VALUE));
+        assertEquals(3, set.size());
+    }
+
+    @Test
+    void growsAndKeepsAllValues() {
+        var set = new LongHashSet();
+        for (var i = 0L; i < 100_000; i++) {
+            assertTrue(set.add(i * 31));
+        }
+
+        assertEquals(100_000, set.size());
+        for (var i = 0L; i < 100_000; i++) {
+            assertTrue(set.contains(i * 31));
+            assertFalse(set.add(i * 31));
+        }
+        assertFalse(set.contains(1));
+    }
+
+    @Test
+    void behavesLikeHashSet() {
+        var random = new SplittableRandom(42);
+        var set = new LongHashSet();
+        var expected = new HashSet<Long>();
+        for (var i = 0; i < 50_000; i++) {
+            var value = random.nextLong(10_000) - 5_000;
+            assertEquals(expected.add(value), set.add(value));
+        }
+
+        assertEquals(expected.size(), set.size());
+    }
+}
@@ -30,4 +30,66 @@ public class MapWithIndexTest {
     }
 
     record User(long index, String name) {}
-}
\ No newline at end of file
+
+    @Test
+    public void longIndexMapperTest() {
+        var names = List.of("Anna", "Mike", "Sandra", "Rudolf", "Monica");
+
+        var users = names.stream().gather(Packrat.mapWithLongIndex(User::new)).toList();
+
+        assertEquals(new User(0L, "Anna"), users.getFirst());
+        assertEquals(new User(4L, "Monica"), users.getLast());
+    }
+
+    @Test
+    public void longIndexMapperWithStartIndexTest() {
+        var names = List.of("Anna", "Mike", "Sandra", "Rudolf", "Monica");
+
+        var users = names.stream().gather(Packrat.mapWithLongIndex(User::new, 10)).toList();
+
+        assertEquals(new User(10L, "Anna"), users.getFirst());
+        assertEquals(new User(14L, "Monica"), users.getLast());
+    }
+
+    @Test
+    public void parallelMapperTest() {
+        var names = List.of("Anna", "Mike", "Sandra", "Rudolf", "Monica");
+
+        var users = names.parallelStream().gather(Packrat.parallelMapWithIndex(User::new)).toList();
+
+        assertEquals(names.size(), users.size());
+        assertEquals(new User(0L, "Anna"), users.getFirst());
+        assertEquals(new User(4L, "Monica"), users.getLast());
+    }
+
+    @Test
+    public void parallelMapperWithStartIndexTest() {
+        var names = List.of("Anna", "Mike", "Sandra", "Rudolf", "Monica");
+
+        var users = names.parallelStream().gather(Packrat.parallelMapWithIndex(User::new, 10)).toList();
+
+        assertEquals(new User(10L, "Anna"), users.getFirst());
+        assertEquals(new User(12L, "Sandra"), users.get(2));
+        assertEquals(new User(14L, "Monica"), users.getLast());
+    }
+
+    @Test
+    public void parallelLongIndexMapperTest() {
+        var names = List.of("Anna", "Mike", "Sandra", "Rudolf", "Monica");
+
+        var users = names.parallelStream().gather(Packrat.parallelMapWithLongIndex(User::new)).toList();
+
+        assertEquals(new User(0L, "Anna"), users.getFirst());
+        assertEquals(new User(4L, "Monica"), users.getLast());
+    }
+
+    @Test
+    public void parallelLongIndexMapperWithStartIndexTest() {
+        var names = List.of("Anna", "Mike", "Sandra", "Rudolf", "Monica");
+
+        var users = names.parallelStream().gather(Packrat.parallelMapWithLongIndex(User::new, 10)).toList();
+
+        assertEquals(new User(10L, "Anna"), users.getFirst());
+        assertEquals(new User(14L, "Monica"), users.getLast());
+    }
+}
@@ -3,6 +3,7 @@ package io.github.jhspetersson.packrat;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -50,4 +51,30 @@ public class PeekWithIndexTest {
         assertEquals(List.of(10L, 11L, 12L, 13L, 14L), indices);
         assertEquals(names, elements);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void longIndexTest() {
+        var names = List.of("Anna", "Mike", "Sandra");
+        var indices = new long[3];
+
+        var result = names.stream()
+                .gather(Packrat.peekWithLongIndex((index, _) -> indices[(int) index] = index + 1))
+                .toList();
+
+        assertEquals(names, result);
+        assertEquals(List.of(1L, 2L, 3L), Arrays.stream(indices).boxed().toList());
+    }
+
+    @Test
+    public void longIndexWithStartIndexTest() {
+        var names = List.of("Anna", "Mike", "Sandra");
+        var peeked = new ArrayList<String>();
+
+        var result = names.stream()
+                .gather(Packrat.peekWithLongIndex((index, element) -> peeked.add(index + element), 5))
+                .toList();
+
+        assertEquals(names, result);
+        assertEquals(List.of("5Anna", "6Mike", "7Sandra"), peeked);
+    }
+}
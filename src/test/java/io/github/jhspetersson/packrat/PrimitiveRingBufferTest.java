@@ -0,0 +1,110 @@
+package io.github.jhspetersson.packrat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PrimitiveRingBufferTest {
+    @Test
+    void addAndRemoveFromBothEnds() {
+        var buffer = new LongRingBuffer(3);
+        buffer.add(1);
+        buffer.add(2);
+        buffer.add(3);
+
+        assertTrue(buffer.isFull());
+        assertEquals(1, buffer.first());
+        assertEquals(3, buffer.last());
+        assertEquals(3, buffer.removeLast());
+        assertEquals(1, buffer.removeFirst());
+        assertEquals(2, buffer.get(0));
+        assertEquals(1, buffer.size());
+        assertFalse(buffer.isFull());
+    }
+
+    @Test
+    void wrapsAroundAndGrows() {
+        var buffer = new LongRingBuffer(100);
+        for (var i = 0; i < 1_000; i++) {
+            if (buffer.isFull()) {
+                assertEquals(i - 100, buffer.removeFirst());
+            }
+            buffer.add(i);
+        }
+
+        assertEquals(900, buffer.first());
+        assertEquals(999, buffer.last());
+        for (var i = 0; i < 100; i++) {
+            assertEquals(900 + i, buffer.get(i));
+        }
+        assertEquals(100, buffer.toArray().length);
+        assertEquals(900, buffer.toArray()[0]);
+    }
+
+    @Test
+    void toArrayCopiesBothSegments() {
+        var buffer = new LongRingBuffer(4);
+        for (var i = 0; i < 6; i++) {
+            if (buffer.isFull()) {
+                buffer.removeFirst();
+            }
+            buffer.add(i);
+        }
+
+        assertArrayEquals(new long[] {2, 3, 4, 5}, buffer.toArray());
+        buffer.clear();
+        assertTrue(buffer.isEmpty());
+        assertArrayEquals(new long[0], buffer.toArray());
+    }
+
+    @Test
+    void emptyBufferThrows() {
+        var buffer = new LongRingBuffer(1);
+
+        assertTrue(buffer.isEmpty());
+        assertThrows(NoSuchElementException.class, buffer::first);
+        assertThrows(NoSuchElementException.class, buffer::last);
+        assertThrows(NoSuchElementException.class, buffer::removeFirst);
+        assertThrows(NoSuchElementException.class, buffer::removeLast);
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.get(0));
+        assertThrows(IllegalArgumentException.class, () -> new LongRingBuffer(0));
+    }
+
+    @Test
+    void specializationsAgree() {
+        var longs = new LongRingBuffer(100);
+        var ints = new IntRingBuffer(100);
+        var doubles = new DoubleRingBuffer(100);
+        for (var i = 0; i < 1_000; i++) {
+            if (longs.isFull()) {
+                var removed = i % 3 == 0 ? longs.removeLast() : longs.removeFirst();
+                assertEquals(removed, i % 3 == 0 ? ints.removeLast() : ints.removeFirst());
+                assertEquals(removed, i % 3 == 0 ? doubles.removeLast() : doubles.removeFirst());
+            }
+            longs.add(i);
+            ints.add(i);
+            doubles.add(i);
+
+            assertEquals(longs.size(), ints.size());
+            assertEquals(longs.size(), doubles.size());
+            assertEquals(longs.first(), ints.first());
+            assertEquals(longs.first(), doubles.first());
+            assertEquals(longs.last(), ints.last());
+            assertEquals(longs.last(), doubles.last());
+            assertEquals(longs.get(longs.size() / 2), ints.get(ints.size() / 2));
+            assertEquals(longs.get(longs.size() / 2), doubles.get(doubles.size() / 2));
+        }
+
+        assertArrayEquals(longs.toArray(), Arrays.stream(ints.toArray()).asLongStream().toArray());
+        assertArrayEquals(longs.toArray(), Arrays.stream(doubles.toArray()).mapToLong(d -> (long) d).toArray());
+        assertThrows(IllegalArgumentException.class, () -> new IntRingBuffer(0));
+        assertThrows(IllegalArgumentException.class, () -> new DoubleRingBuffer(-1));
+    }
+}
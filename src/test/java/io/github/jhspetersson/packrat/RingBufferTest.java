@@ -6,7 +6,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.stream.Gatherer;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -27,6 +29,36 @@ public class RingBufferTest {
         assertEquals(0, buffer.size());
     }
 
+    @Test
+    void addEvictingOverwritesFirstElementWhenFull() {
+        var buffer = new RingBuffer<Integer>(3);
+        for (var i = 0; i < 100; i++) {
+            buffer.addEvicting(i);
+        }
+
+        assertTrue(buffer.isFull());
+        assertEquals(List.of(97, 98, 99), buffer.toList());
+        assertEquals(97, buffer.removeFirst());
+        buffer.addEvicting(100);
+        buffer.addEvicting(101);
+        assertEquals(List.of(99, 100, 101), buffer.toList());
+    }
+
+    @Test
+    void toListIsIndependentOfBuffer() {
+        var buffer = new RingBuffer<Integer>(4);
+        for (var i = 0; i < 6; i++) {
+            buffer.addEvicting(i);
+        }
+
+        var list = buffer.toList();
+        buffer.addEvicting(6);
+        list.add(7);
+
+        assertEquals(List.of(2, 3, 4, 5, 7), list);
+        assertEquals(List.of(3, 4, 5, 6), buffer.toList());
+    }
+
     @Test
     void wrapsAroundWhenCyclingElements() {
         var buffer = new RingBuffer<Integer>(3);
@@ -110,4 +142,113 @@ public class RingBufferTest {
         assertThrows(IllegalArgumentException.class, () -> new RingBuffer<Integer>(0));
         assertThrows(IllegalArgumentException.class, () -> new RingBuffer<Integer>(-1));
     }
+
+    @Test
+    void viewReflectsBufferChanges() {
+        var buffer = new RingBuffer<Integer>(3);
+        var view = buffer.view();
+        assertTrue(view.isEmpty());
+
+        for (var i = 0; i < 20; i++) {
+            buffer.addEvicting(i);
+        }
+        assertEquals(List.of(17, 18, 19), view);
+        buffer.addEvicting(20);
+        assertEquals(List.of(18, 19, 20), view);
+        assertEquals(18, view.getFirst());
+        assertThrows(IndexOutOfBoundsException.class, () -> view.get(3));
+        assertThrows(UnsupportedOperationException.class, () -> view.set(0, 1));
+    }
+
+    @Test
+    void capacityIsRoundedUpToPowerOfTwo() {
+        assertEquals(1, RingBuffer.capacityFor(1));
+        assertEquals(16, RingBuffer.capacityFor(16));
+        assertEquals(32, RingBuffer.capacityFor(17));
+        assertEquals(1 << 30, RingBuffer.capacityFor(1 << 30));
+    }
+
+    @Test
+    void capacityAboveLargestPowerOfTwoIsNotRounded() {
+        assertEquals((1 << 30) + 1, RingBuffer.capacityFor((1L << 30) + 1));
+        assertEquals(Integer.MAX_VALUE - 8, RingBuffer.capacityFor(Integer.MAX_VALUE));
+        assertEquals(Integer.MAX_VALUE - 8, RingBuffer.capacityFor(Long.MAX_VALUE));
+        assertEquals(-1, RingBuffer.maskFor(Integer.MAX_VALUE - 8));
+        assertEquals(15, RingBuffer.maskFor(16));
+    }
+
+    @Test
+    void wrapWithoutMaskDoesNotOverflow() {
+        var capacity = Integer.MAX_VALUE - 8;
+        var head = capacity - 3;
+
+        assertEquals(capacity - 1, RingBuffer.wrap(head, 2, capacity, -1));
+        assertEquals(0, RingBuffer.wrap(head, 3, capacity, -1));
+        assertEquals(head - 1, RingBuffer.wrap(head, capacity - 1, capacity, -1));
+        assertEquals(head, RingBuffer.wrap(head, capacity, capacity, -1));
+        assertEquals(5, RingBuffer.wrap(3, 2, 10, -1));
+        assertEquals(1, RingBuffer.wrap(7, 4, 10, -1));
+    }
+
+    @Test
+    void addEvictingWithMaxSizeBelowCapacity() {
+        var buffer = new RingBuffer<Integer>(5);
+        for (var i = 0; i < 23; i++) {
+            buffer.addEvicting(i);
+        }
+
+        assertEquals(5, buffer.size());
+        assertEquals(List.of(18, 19, 20, 21, 22), buffer.toList());
+    }
+
+    @Test
+    void copyToCopiesBothSegments() {
+        var buffer = new RingBuffer<Integer>(4);
+        for (var i = 0; i < 6; i++) {
+            buffer.addEvicting(i);
+        }
+
+        var target = new Object[6];
+        buffer.copyTo(target, 1);
+        assertArrayEquals(new Object[] {null, 2, 3, 4, 5, null}, target);
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.copyTo(new Object[3], 0));
+    }
+
+    @Test
+    void drainToPushesInOrderAndEmptiesBuffer() {
+        var buffer = new RingBuffer<Integer>(4);
+        for (var i = 0; i < 7; i++) {
+            buffer.addEvicting(i);
+        }
+
+        var pushed = new ArrayList<Integer>();
+        assertTrue(buffer.drainTo(new Gatherer.Downstream<Integer>() {
+            @Override
+            public boolean push(Integer element) {
+                return pushed.add(element);
+            }
+        }));
+        assertEquals(List.of(3, 4, 5, 6), pushed);
+        assertEquals(0, buffer.size());
+        assertEquals(List.of(), buffer.toList());
+    }
+
+    @Test
+    void drainToStopsWhenDownstreamRejects() {
+        var buffer = new RingBuffer<Integer>(4);
+        for (var i = 0; i < 4; i++) {
+            buffer.add(i);
+        }
+
+        var pushed = new ArrayList<Integer>();
+        assertFalse(buffer.drainTo(new Gatherer.Downstream<Integer>() {
+            @Override
+            public boolean push(Integer element) {
+                pushed.add(element);
+                return pushed.size() < 2;
+            }
+        }));
+        assertEquals(List.of(0, 1), pushed);
+        assertEquals(0, buffer.size());
+    }
 }
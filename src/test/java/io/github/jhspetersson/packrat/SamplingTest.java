@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Set;
 import java.util.stream.Gatherer;
 import java.util.stream.IntStream;
 
@@ -113,4 +114,71 @@ public class SamplingTest {
             assertTrue(value >= 0 && value < 10_000);
         }
     }
+
+    @Test
+    void sampleParallelShouldKeepEncounterOrder() {
+        var result = IntStream.range(0, 1_000_000).boxed()
+                .parallel()
+                .gather(Packrat.sample(1000))
+                .toList();
+
+        assertEquals(1000, result.size());
+        assertTrue(isOrdered(result));
+        assertEquals(1000, Set.copyOf(result).size());
+    }
+
+    @Test
+    void combinerShouldWeightReservoirsByObservedCounts() {
+        var gatherer = new SamplingGatherer<Integer>(10);
+        var integrator = gatherer.integrator();
+        var combiner = gatherer.combiner();
+        Gatherer.Downstream<Integer> downstream = _ -> true;
+
+        var trials = 2000;
+        var fromLeft = 0;
+        for (var trial = 0; trial < trials; trial++) {
+            var left = gatherer.initializer().get();
+            for (var i = 0; i < 100; i++) {
+                integrator.integrate(left, i, downstream);
+            }
+            var right = gatherer.initializer().get();
+            for (var i = 100; i < 1000; i++) {
+                integrator.integrate(right, i, downstream);
+            }
+
+            var merged = combiner.apply(left, right);
+
+            assertEquals(10, merged.list.size());
+            assertEquals(1000, merged.counter);
+            for (var entry : merged.list) {
+                assertEquals(entry.index(), (long) entry.element());
+                if (entry.element() < 100) {
+                    fromLeft++;
+                }
+            }
+        }
+
+        // every element is picked with the probability of 1/100, so about 1 out of 10 comes from the left split
+        var average = (double) fromLeft / trials;
+        assertTrue(average > 0.85 && average < 1.15, "average from left: " + average);
+    }
+
+    @Test
+    void combinerShouldKeepEverythingWhenSplitsAreSmall() {
+        var gatherer = new SamplingGatherer<Integer>(10);
+        var integrator = gatherer.integrator();
+        Gatherer.Downstream<Integer> downstream = _ -> true;
+
+        var left = gatherer.initializer().get();
+        integrator.integrate(left, 0, downstream);
+        integrator.integrate(left, 1, downstream);
+        var right = gatherer.initializer().get();
+        integrator.integrate(right, 2, downstream);
+
+        var merged = gatherer.combiner().apply(left, right);
+
+        assertEquals(3, merged.list.size());
+        assertEquals(3, merged.counter);
+        assertEquals(Set.of(0L, 1L, 2L), Set.copyOf(merged.list.stream().map(SamplingGatherer.IndexedElement::index).toList()));
+    }
 }
@@ -0,0 +1,87 @@
+package io.github.jhspetersson.packrat;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SessionWindowTest {
+    record Click(String user, long time) {}
+
+    private static List<String> describe(List<List<Click>> sessions) {
+        return sessions.stream()
+                .map(session -> session.getFirst().user() + session.stream().map(Click::time).toList())
+                .toList();
+    }
+
+    @Test
+    void sessionWindowsTest() {
+        var result = Stream.of(new Click("ann", 0), new Click("bob", 10), new Click("ann", 20), new Click("bob", 500))
+                .gather(Packrat.sessionWindows(Click::user, Click::time, Duration.ofMillis(100)))
+                .toList();
+
+        assertEquals(List.of("bob[10]", "ann[0, 20]", "bob[500]"), describe(result));
+    }
+
+    @Test
+    void sessionContinuesWhileElementsAreCloserThanGap() {
+        var result = Stream.of(new Click("ann", 0), new Click("ann", 99), new Click("ann", 198), new Click("ann", 298))
+                .gather(Packrat.sessionWindows(Click::user, Click::time, Duration.ofMillis(100)))
+                .toList();
+
+        assertEquals(List.of("ann[0, 99, 198]", "ann[298]"), describe(result));
+    }
+
+    @Test
+    void sessionsAreEmittedBeforeStreamEnds() {
+        var result = LongStream.iterate(0, t -> t + 1_000).mapToObj(t -> new Click("user" + (t % 3), t))
+                .gather(Packrat.sessionWindows(Click::user, Click::time, Duration.ofMillis(500)))
+                .limit(3)
+                .toList();
+
+        assertEquals(List.of("user0[0]", "user1[1000]", "user2[2000]"), describe(result));
+    }
+
+    @Test
+    void evictionEmitsLeastRecentlyActiveSession() {
+        var result = Stream.of(new Click("ann", 0), new Click("bob", 1), new Click("ann", 2), new Click("cid", 3), new Click("ann", 4))
+                .gather(Packrat.sessionWindows(Click::user, Click::time, Duration.ofSeconds(1), 2, Packrat.SessionEviction.EMIT))
+                .toList();
+
+        assertEquals(List.of("bob[1]", "cid[3]", "ann[0, 2, 4]"), describe(result));
+    }
+
+    @Test
+    void evictionDropsLeastRecentlyActiveSession() {
+        var result = Stream.of(new Click("ann", 0), new Click("bob", 1), new Click("cid", 2), new Click("bob", 3))
+                .gather(Packrat.sessionWindows(Click::user, Click::time, Duration.ofSeconds(1), 2, Packrat.SessionEviction.DROP))
+                .toList();
+
+        assertEquals(List.of("cid[2]", "bob[1, 3]"), describe(result));
+    }
+
+    @Test
+    void nullKeysFormTheirOwnSessions() {
+        var result = Stream.of(new Click(null, 0), new Click("ann", 1), new Click(null, 2))
+                .gather(Packrat.sessionWindows(Click::user, Click::time, Duration.ofSeconds(1)))
+                .toList();
+
+        assertEquals(2, result.size());
+        assertEquals(List.of(0L, 2L), result.get(1).stream().map(Click::time).toList());
+    }
+
+    @Test
+    void invalidArgumentsThrow() {
+        assertThrows(IllegalArgumentException.class, () -> Packrat.<Click, String>sessionWindows(Click::user, Click::time, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> Packrat.<Click, String>sessionWindows(Click::user, Click::time, Duration.ofSeconds(1), 0, Packrat.SessionEviction.EMIT));
+        assertThrows(NullPointerException.class, () -> Packrat.<Click, String>sessionWindows(null, Click::time, Duration.ofSeconds(1)));
+        assertThrows(NullPointerException.class, () -> Packrat.<Click, String>sessionWindows(Click::user, null, Duration.ofSeconds(1)));
+        assertThrows(NullPointerException.class, () -> Packrat.<Click, String>sessionWindows(Click::user, Click::time, null));
+        assertThrows(NullPointerException.class, () -> Packrat.<Click, String>sessionWindows(Click::user, Click::time, Duration.ofSeconds(1), 1, null));
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.jhspetersson.packrat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SlidingAggregateTest {
+    @Test
+    void slidingSumTest() {
+        var result = Stream.of(1, 2, 3, 4, 5).gather(Packrat.slidingSum(3, i -> i)).toList();
+        assertEquals(List.of(6.0, 9.0, 12.0), result);
+    }
+
+    @Test
+    void slidingAverageTest() {
+        var result = Stream.of(1, 2, 3, 4, 5).gather(Packrat.slidingAverage(2, i -> i)).toList();
+        assertEquals(List.of(1.5, 2.5, 3.5, 4.5), result);
+    }
+
+    @Test
+    void slidingMinTest() {
+        var result = Stream.of(3, 1, 4, 1, 5, 9, 2).gather(Packrat.slidingMin(3, i -> i)).toList();
+        assertEquals(List.of(1.0, 1.0, 1.0, 1.0, 2.0), result);
+    }
+
+    @Test
+    void slidingMaxTest() {
+        var result = Stream.of(3, 1, 4, 1, 5, 9, 2).gather(Packrat.slidingMax(3, i -> i)).toList();
+        assertEquals(List.of(4.0, 4.0, 5.0, 9.0, 9.0), result);
+    }
+
+    @Test
+    void shortStreamEmitsSingleResult() {
+        assertEquals(List.of(3.0), Stream.of(1, 2).gather(Packrat.slidingSum(5, i -> i)).toList());
+        assertEquals(List.of(1.5), Stream.of(1, 2).gather(Packrat.slidingAverage(5, i -> i)).toList());
+        assertEquals(List.of(1.0), Stream.of(1, 2).gather(Packrat.slidingMin(5, i -> i)).toList());
+        assertEquals(List.of(2.0), Stream.of(1, 2).gather(Packrat.slidingMax(5, i -> i)).toList());
+        assertEquals(List.of(), Stream.<Integer>empty().gather(Packrat.slidingMax(5, i -> i)).toList());
+    }
+
+    @Test
+    void incrementalResultsMatchRecomputation() {
+        var random = new SplittableRandom(42);
+        var values = IntStream.range(0, 5_000).mapToObj(_ -> random.nextInt(-1_000, 1_000)).toList();
+        var windowSize = 37;
+
+        var sums = values.stream().gather(Packrat.slidingSum(windowSize, i -> i)).toList();
+        var minimums = values.stream().gather(Packrat.slidingMin(windowSize, i -> i)).toList();
+        var maximums = values.stream().gather(Packrat.slidingMax(windowSize, i -> i)).toList();
+
+        assertEquals(values.size() - windowSize + 1, sums.size());
+        for (var i = 0; i < sums.size(); i++) {
+            var window = values.subList(i, i + windowSize);
+            assertEquals(window.stream().mapToInt(v -> v).sum(), sums.get(i), 1e-9);
+            assertEquals(window.stream().mapToInt(v -> v).min().orElseThrow(), minimums.get(i));
+            assertEquals(window.stream().mapToInt(v -> v).max().orElseThrow(), maximums.get(i));
+        }
+    }
+
+    @Test
+    void slidingSumDoesNotDrift() {
+        var result = IntStream.range(0, 1_000_000)
+                .mapToObj(i -> i % 2 == 0 ? 1e10 : 0.1)
+                .gather(Packrat.slidingSum(2, d -> d))
+                .toList();
+        assertEquals(1e10 + 0.1, result.getLast(), 1e-6);
+    }
+
+    @Test
+    void nonFiniteValuesLeaveTheWindow() {
+        var sums = Stream.of(1.0, Double.NaN, 2.0, 3.0, Double.POSITIVE_INFINITY, 4.0, 5.0)
+                .gather(Packrat.slidingSum(2, d -> d))
+                .toList();
+        assertTrue(sums.get(0).isNaN());
+        assertTrue(sums.get(1).isNaN());
+        assertEquals(5.0, sums.get(2));
+        assertEquals(Double.POSITIVE_INFINITY, sums.get(3));
+        assertEquals(Double.POSITIVE_INFINITY, sums.get(4));
+        assertEquals(9.0, sums.get(5));
+
+        var minimums = Stream.of(1.0, Double.NaN, 2.0, 3.0)
+                .gather(Packrat.slidingMin(2, d -> d))
+                .toList();
+        assertTrue(minimums.get(0).isNaN());
+        assertTrue(minimums.get(1).isNaN());
+        assertEquals(2.0, minimums.get(2));
+    }
+
+    @Test
+    void invalidArgumentsThrow() {
+        assertThrows(IllegalArgumentException.class, () -> Packrat.slidingSum(0, i -> 0.0));
+        assertThrows(IllegalArgumentException.class, () -> Packrat.slidingMin(-1, i -> 0.0));
+        assertThrows(NullPointerException.class, () -> Packrat.slidingAverage(1, null));
+        assertThrows(NullPointerException.class, () -> Packrat.slidingMax(1, null));
+    }
+}
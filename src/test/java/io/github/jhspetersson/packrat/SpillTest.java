@@ -0,0 +1,232 @@
+package io.github.jhspetersson.packrat;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SpillTest {
+    private static final Packrat.SpillSerializer<Integer> INT_SERIALIZER = new Packrat.SpillSerializer<>() {
+        @Override
+        public void write(Integer element, DataOutput output) throws IOException {
+            output.writeInt(element);
+        }
+
+        @Override
+        public Integer read(DataInput input) throws IOException {
+            return input.readInt();
+        }
+    };
+
+    private static final Packrat.SpillPolicy<Integer> POLICY = new Packrat.SpillPolicy<>(3, INT_SERIALIZER);
+
+    @Test
+    void reverseTest() {
+        var result = IntStream.range(0, 10).boxed().gather(Packrat.reverse(POLICY)).toList();
+
+        assertEquals(List.of(9, 8, 7, 6, 5, 4, 3, 2, 1, 0), result);
+    }
+
+    @Test
+    void reverseShortCircuitTest() {
+        var result = IntStream.range(0, 10).boxed().gather(Packrat.reverse(POLICY)).limit(4).toList();
+
+        assertEquals(List.of(9, 8, 7, 6), result);
+    }
+
+    @Test
+    void reverseParallelTest() {
+        var result = IntStream.range(0, 1000).boxed().parallel().gather(Packrat.reverse(POLICY)).toList();
+
+        assertEquals(IntStream.range(0, 1000).map(i -> 999 - i).boxed().toList(), result);
+    }
+
+    @Test
+    void rotateTest() {
+        for (var distance : new int[] {0, 1, 3, 4, 7, 10, 13, -1, -3, -4, -9, -12, Integer.MAX_VALUE, Integer.MIN_VALUE}) {
+            var expected = IntStream.range(0, 10).boxed().gather(Packrat.rotate(distance)).toList();
+            var result = IntStream.range(0, 10).boxed().gather(Packrat.rotate(distance, POLICY)).toList();
+
+            assertEquals(expected, result, "distance " + distance);
+        }
+    }
+
+    @Test
+    void rotateParallelTest() {
+        var expected = IntStream.range(0, 1000).boxed().gather(Packrat.rotate(250)).toList();
+        var result = IntStream.range(0, 1000).boxed().parallel().gather(Packrat.rotate(250, POLICY)).toList();
+
+        assertEquals(expected, result);
+    }
+
+    @Test
+    void repeatTest() {
+        var result = IntStream.range(0, 5).boxed().gather(Packrat.repeat(3, POLICY)).toList();
+
+        assertEquals(List.of(0, 1, 2, 3, 4, 0, 1, 2, 3, 4, 0, 1, 2, 3, 4), result);
+        assertEquals(List.of(), IntStream.range(0, 5).boxed().gather(Packrat.repeat(0, POLICY)).toList());
+        assertEquals(List.of(0, 1, 2, 3, 4), IntStream.range(0, 5).boxed().gather(Packrat.repeat(1, POLICY)).toList());
+    }
+
+    @Test
+    void repeatShortCircuitTest() {
+        var result = IntStream.range(0, 5).boxed().gather(Packrat.repeat(1000, POLICY)).limit(12).toList();
+
+        assertEquals(List.of(0, 1, 2, 3, 4, 0, 1, 2, 3, 4, 0, 1), result);
+    }
+
+    @Test
+    void shuffleTest() {
+        var source = IntStream.range(0, 1000).boxed().toList();
+        var result = source.stream().gather(Packrat.shuffle(POLICY)).toList();
+
+        assertEquals(1000, result.size());
+        assertNotEquals(source, result);
+        var sorted = new ArrayList<>(result);
+        Collections.sort(sorted);
+        assertEquals(source, sorted);
+    }
+
+    @Test
+    void shuffleWithManySegmentsTest() throws IOException {
+        var directory = Files.createTempDirectory("packrat");
+        try {
+            var policy = new Packrat.SpillPolicy<>(4, INT_SERIALIZER, directory);
+            var source = IntStream.range(0, 20_000).boxed().toList();
+            var result = source.stream().gather(Packrat.shuffle(policy)).toList();
+
+            assertNotEquals(source, result);
+            assertEquals(source, result.stream().sorted().toList());
+            try (var files = Files.list(directory)) {
+                assertEquals(0, files.count());
+            }
+        } finally {
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    void failingSerializerReleasesFile() throws IOException {
+        var directory = Files.createTempDirectory("packrat");
+        try {
+            var serializer = new Packrat.SpillSerializer<Integer>() {
+                @Override
+                public void write(Integer element, DataOutput output) throws IOException {
+                    if (element == 10) {
+                        throw new IOException("disk full");
+                    }
+                    output.writeInt(element);
+                }
+
+                @Override
+                public Integer read(DataInput input) throws IOException {
+                    return input.readInt();
+                }
+            };
+            var policy = new Packrat.SpillPolicy<>(4, serializer, directory);
+
+            assertThrows(UncheckedIOException.class, () -> IntStream.range(0, 100).boxed().gather(Packrat.reverse(policy)).toList());
+            assertThrows(UncheckedIOException.class, () -> IntStream.range(0, 100).boxed().parallel().gather(Packrat.reverse(policy)).toList());
+            try (var files = Files.list(directory)) {
+                assertEquals(0, files.count());
+            }
+            assertEquals(0, openFilesIn(directory));
+        } finally {
+            Files.delete(directory);
+        }
+    }
+
+    /**
+     * Counts the open descriptors of files in the directory, where the platform lists them in /proc.
+     * Open files are removed from the directory on Linux right away, so listing the directory does not reveal them.
+     */
+    private static long openFilesIn(Path directory) throws IOException {
+        var descriptors = Path.of("/proc/self/fd");
+        if (!Files.isDirectory(descriptors)) {
+            return 0;
+        }
+        try (var links = Files.list(descriptors)) {
+            return links.filter(link -> {
+                try {
+                    return Files.readSymbolicLink(link).startsWith(directory);
+                } catch (IOException e) {
+                    // the descriptor of the listing itself is gone by now
+                    return false;
+                }
+            }).count();
+        }
+    }
+
+    @Test
+    void shuffleWithThresholdOfOneTest() {
+        var policy = new Packrat.SpillPolicy<>(1, INT_SERIALIZER);
+        var result = IntStream.range(0, 500).boxed().gather(Packrat.shuffle(policy)).sorted().toList();
+
+        assertEquals(IntStream.range(0, 500).boxed().toList(), result);
+    }
+
+    @Test
+    void repeatManySegmentsTest() throws IOException {
+        var directory = Files.createTempDirectory("packrat");
+        try {
+            var policy = new Packrat.SpillPolicy<>(4, INT_SERIALIZER, directory);
+            var result = IntStream.range(0, 1000).boxed().gather(Packrat.repeat(20, policy)).toList();
+
+            assertEquals(20_000, result.size());
+            assertEquals(IntStream.range(0, 1000).boxed().toList(), result.subList(19_000, 20_000));
+            try (var files = Files.list(directory)) {
+                assertEquals(0, files.count());
+            }
+        } finally {
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    void shuffleParallelTest() {
+        var result = IntStream.range(0, 1000).boxed().parallel().gather(Packrat.shuffle(POLICY)).sorted().toList();
+
+        assertEquals(IntStream.range(0, 1000).boxed().toList(), result);
+    }
+
+    @Test
+    void shuffleWithoutSpillingTest() {
+        var result = IntStream.range(0, 2).boxed().gather(Packrat.shuffle(POLICY)).sorted().toList();
+
+        assertEquals(List.of(0, 1), result);
+    }
+
+    @Test
+    void emptyStreamTest() {
+        assertTrue(Stream.<Integer>empty().gather(Packrat.reverse(POLICY)).toList().isEmpty());
+        assertTrue(Stream.<Integer>empty().gather(Packrat.rotate(5, POLICY)).toList().isEmpty());
+        assertTrue(Stream.<Integer>empty().gather(Packrat.shuffle(POLICY)).toList().isEmpty());
+        assertTrue(Stream.<Integer>empty().gather(Packrat.repeat(5, POLICY)).toList().isEmpty());
+    }
+
+    @Test
+    void invalidArgumentsThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new Packrat.SpillPolicy<>(0, INT_SERIALIZER));
+        assertThrows(NullPointerException.class, () -> new Packrat.SpillPolicy<Integer>(3, null));
+        assertThrows(NullPointerException.class, () -> new Packrat.SpillPolicy<>(3, INT_SERIALIZER, null));
+        assertThrows(NullPointerException.class, () -> Packrat.<Integer>reverse(null));
+        assertThrows(NullPointerException.class, () -> Packrat.<Integer>rotate(1, null));
+        assertThrows(NullPointerException.class, () -> Packrat.<Integer>shuffle(null));
+        assertThrows(NullPointerException.class, () -> Packrat.<Integer>repeat(2, null));
+        assertThrows(IllegalArgumentException.class, () -> Packrat.repeat(-1, POLICY));
+    }
+}
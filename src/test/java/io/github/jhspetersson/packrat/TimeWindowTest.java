@@ -0,0 +1,105 @@
+package io.github.jhspetersson.packrat;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TimeWindowTest {
+    record Event(String name, long timestamp) {}
+
+    @Test
+    void windowTumblingByTimeTest() {
+        var result = Stream.of(0L, 400L, 999L, 1000L, 3500L)
+                .gather(Packrat.windowTumblingByTime(t -> t, Duration.ofSeconds(1)))
+                .toList();
+
+        assertEquals(List.of(List.of(0L, 400L, 999L), List.of(1000L), List.of(3500L)), result);
+    }
+
+    @Test
+    void windowTumblingByTimeAlignsToEpochAndSupportsNegativeTimestamps() {
+        var result = Stream.of(-1500L, -1L, 0L, 1499L, 1500L)
+                .gather(Packrat.windowTumblingByTime(t -> t, Duration.ofMillis(1500)))
+                .toList();
+
+        assertEquals(List.of(List.of(-1500L, -1L), List.of(0L, 1499L), List.of(1500L)), result);
+    }
+
+    @Test
+    void windowTumblingByTimeEmitsBeforeStreamEnds() {
+        var result = LongStream.iterate(0, t -> t + 100).boxed()
+                .gather(Packrat.windowTumblingByTime(t -> t, Duration.ofMillis(250)))
+                .limit(2)
+                .toList();
+
+        assertEquals(List.of(List.of(0L, 100L, 200L), List.of(300L, 400L)), result);
+    }
+
+    @Test
+    void windowTumblingByTimeDropsLateElements() {
+        var result = Stream.of(new Event("a", 100), new Event("b", 1200), new Event("late", 900), new Event("c", 1300))
+                .gather(Packrat.windowTumblingByTime(Event::timestamp, Duration.ofSeconds(1)))
+                .map(window -> window.stream().map(Event::name).toList())
+                .toList();
+
+        assertEquals(List.of(List.of("a"), List.of("b", "c")), result);
+    }
+
+    @Test
+    void windowSlidingByTimeTest() {
+        var result = Stream.of(0L, 400L, 999L, 1000L, 1600L)
+                .gather(Packrat.windowSlidingByTime(t -> t, Duration.ofSeconds(1), Duration.ofMillis(500)))
+                .toList();
+
+        assertEquals(List.of(
+                List.of(0L, 400L),
+                List.of(0L, 400L, 999L),
+                List.of(999L, 1000L),
+                List.of(1000L, 1600L),
+                List.of(1600L)
+        ), result);
+    }
+
+    @Test
+    void windowSlidingByTimeSkipsEmptyWindows() {
+        var result = Stream.of(0L, 1_000_000L)
+                .gather(Packrat.windowSlidingByTime(t -> t, Duration.ofMillis(10), Duration.ofMillis(5)))
+                .toList();
+
+        assertEquals(List.of(List.of(0L), List.of(0L), List.of(1_000_000L), List.of(1_000_000L)), result);
+    }
+
+    @Test
+    void windowSlidingByTimeWithStepLongerThanSizeLeavesGaps() {
+        var result = LongStream.range(0, 10).boxed()
+                .gather(Packrat.windowSlidingByTime(t -> t, Duration.ofMillis(2), Duration.ofMillis(5)))
+                .toList();
+
+        assertEquals(List.of(List.of(0L, 1L), List.of(5L, 6L)), result);
+    }
+
+    @Test
+    void emptyStreamTest() {
+        var result = Stream.<Long>empty()
+                .gather(Packrat.windowTumblingByTime(t -> t, Duration.ofSeconds(1)))
+                .toList();
+
+        assertEquals(List.of(), result);
+    }
+
+    @Test
+    void invalidArgumentsThrow() {
+        assertThrows(IllegalArgumentException.class, () -> Packrat.<Long>windowTumblingByTime(t -> t, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> Packrat.<Long>windowTumblingByTime(t -> t, Duration.ofNanos(1)));
+        assertThrows(IllegalArgumentException.class, () -> Packrat.<Long>windowSlidingByTime(t -> t, Duration.ofSeconds(1), Duration.ofSeconds(-1)));
+        assertThrows(NullPointerException.class, () -> Packrat.windowTumblingByTime(null, Duration.ofSeconds(1)));
+        assertThrows(NullPointerException.class, () -> Packrat.<Long>windowSlidingByTime(t -> t, null, Duration.ofSeconds(1)));
+        assertThrows(NullPointerException.class, () -> Packrat.<Long>windowSlidingByTime(t -> t, Duration.ofSeconds(1), null));
+    }
+}
@@ -2,12 +2,15 @@ package io.github.jhspetersson.packrat;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class WindowFixedWithIndexTest {
     @Test
@@ -114,4 +117,72 @@ public class WindowFixedWithIndexTest {
         assertThrows(IllegalArgumentException.class, () -> Packrat.windowFixedWithIndex(0));
         assertThrows(IllegalArgumentException.class, () -> Packrat.windowFixedWithIndex(-1));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void windowFixedDoubleWithIndexTest() {
+        var result = Stream.of(1.5, 2.5, 3.5, 4.5, 5.5)
+                .gather(Packrat.windowFixedDoubleWithIndex(2, d -> d, (index, window) -> index + ": " + Arrays.toString(window)))
+                .toList();
+
+        assertEquals(List.of("0: [1.5, 2.5]", "1: [3.5, 4.5]", "2: [5.5]"), result);
+    }
+
+    @Test
+    public void windowFixedLongWithIndexTest() {
+        var result = IntStream.rangeClosed(1, 6).boxed()
+                .gather(Packrat.windowFixedLongWithIndex(3, i -> i * 1_000_000_000L, (_, window) -> Arrays.stream(window).sum()))
+                .toList();
+
+        assertEquals(List.of(6_000_000_000L, 15_000_000_000L), result);
+    }
+
+    @Test
+    public void windowFixedIntWithIndexTest() {
+        var result = Stream.of("a", "bb", "ccc", "dddd")
+                .gather(Packrat.windowFixedIntWithIndex(2, String::length, (index, window) -> index + ": " + Arrays.toString(window)))
+                .toList();
+
+        assertEquals(List.of("0: [1, 2]", "1: [3, 4]"), result);
+    }
+
+    @Test
+    public void windowFixedPrimitiveWithIndexInvalidArgumentsTest() {
+        assertThrows(IllegalArgumentException.class, () -> Packrat.windowFixedIntWithIndex(0, i -> 0, (_, window) -> window));
+        assertThrows(NullPointerException.class, () -> Packrat.windowFixedDoubleWithIndex(2, null, (_, window) -> window));
+        assertThrows(NullPointerException.class, () -> Packrat.windowFixedLongWithIndex(2, l -> 0L, null));
+    }
+
+    @Test
+    public void windowFixedViewWithIndexTest() {
+        var result = IntStream.rangeClosed(1, 7).boxed()
+                .gather(Packrat.windowFixedViewWithIndex(3, (index, window) -> index + ": " + window))
+                .toList();
+
+        assertEquals(List.of("0: [1, 2, 3]", "1: [4, 5, 6]", "2: [7]"), result);
+    }
+
+    @Test
+    public void windowFixedViewWithIndexReusesViewTest() {
+        var views = new ArrayList<List<Integer>>();
+        var result = IntStream.rangeClosed(1, 6).boxed()
+                .gather(Packrat.windowFixedViewWithIndex(2, (index, window) -> {
+                    views.add(window);
+                    return window.getFirst() + window.getLast();
+                }, 10))
+                .toList();
+
+        assertEquals(List.of(3, 7, 11), result);
+        assertTrue(views.stream().allMatch(view -> view == views.getFirst()));
+        assertTrue(views.getFirst().isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> views.getFirst().add(1));
+    }
+
+    @Test
+    public void windowFixedViewWithIndexStartIndexTest() {
+        var result = IntStream.rangeClosed(1, 4).boxed()
+                .gather(Packrat.windowFixedViewWithIndex(2, (index, window) -> index, 100))
+                .toList();
+
+        assertEquals(List.of(100L, 101L), result);
+    }
+}
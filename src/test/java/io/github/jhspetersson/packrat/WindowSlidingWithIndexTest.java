@@ -5,10 +5,13 @@ import org.junit.jupiter.api.Test;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class WindowSlidingWithIndexTest {
     @Test
@@ -104,4 +107,166 @@ public class WindowSlidingWithIndexTest {
         assertThrows(IllegalArgumentException.class, () -> Packrat.windowSlidingWithIndex(0));
         assertThrows(IllegalArgumentException.class, () -> Packrat.windowSlidingWithIndex(-1));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void windowSlidingViewWithIndexTest() {
+        var result = IntStream.range(0, 6).boxed()
+                .gather(Packrat.windowSlidingViewWithIndex(3, (index, window) -> index + ":" + window))
+                .toList();
+
+        assertEquals(List.of("0:[0, 1, 2]", "1:[1, 2, 3]", "2:[2, 3, 4]", "3:[3, 4, 5]"), result);
+    }
+
+    @Test
+    public void windowSlidingViewWithIndexMatchesCopyingTest() {
+        var copying = IntStream.range(0, 1_000).boxed()
+                .gather(Packrat.windowSlidingWithIndex(100, (index, window) -> List.copyOf(window), 5))
+                .toList();
+        var viewing = IntStream.range(0, 1_000).boxed()
+                .gather(Packrat.windowSlidingViewWithIndex(100, (index, window) -> List.copyOf(window), 5))
+                .toList();
+
+        assertEquals(copying, viewing);
+    }
+
+    @Test
+    public void windowSlidingViewWithIndexReusesViewTest() {
+        var views = IntStream.range(0, 5).boxed()
+                .gather(Packrat.windowSlidingViewWithIndex(2, (index, window) -> window))
+                .toList();
+
+        // the very same view is passed for every window and shows the last window
+        assertEquals(4, views.size());
+        assertTrue(views.stream().allMatch(view -> view == views.getFirst()));
+        assertEquals(List.of(3, 4), views.getFirst());
+    }
+
+    @Test
+    public void windowSlidingViewWithIndexShortStreamTest() {
+        var result = Stream.of(1, 2)
+                .gather(Packrat.windowSlidingViewWithIndex(3, (index, window) -> index + ":" + window, 10))
+                .toList();
+
+        assertEquals(List.of("10:[1, 2]"), result);
+    }
+
+    @Test
+    public void windowSlidingViewWithIndexViewIsReadOnlyTest() {
+        assertThrows(UnsupportedOperationException.class, () -> Stream.of(1, 2, 3)
+                .gather(Packrat.windowSlidingViewWithIndex(2, (index, window) -> window.remove(0)))
+                .toList());
+    }
+
+    @Test
+    public void windowSlidingDoubleWithIndexTest() {
+        var result = Stream.of(1.5, 2.5, 3.5, 4.5)
+                .gather(Packrat.windowSlidingDoubleWithIndex(3, d -> d, (index, window) -> index + ": " + Arrays.toString(window)))
+                .toList();
+
+        assertEquals(List.of("0: [1.5, 2.5, 3.5]", "1: [2.5, 3.5, 4.5]"), result);
+    }
+
+    @Test
+    public void windowSlidingLongWithIndexKeepsWindowsIndependent() {
+        var result = LongStream.range(0, 5).boxed()
+                .gather(Packrat.windowSlidingLongWithIndex(2, l -> l, (_, window) -> window))
+                .toList();
+
+        assertEquals(4, result.size());
+        assertArrayEquals(new long[] {0, 1}, result.get(0));
+        assertArrayEquals(new long[] {3, 4}, result.get(3));
+    }
+
+    @Test
+    public void windowSlidingIntWithIndexInsufficientElementsTest() {
+        var result = Stream.of("a", "bb")
+                .gather(Packrat.windowSlidingIntWithIndex(3, String::length, (index, window) -> index + ": " + Arrays.toString(window)))
+                .toList();
+
+        assertEquals(List.of("0: [1, 2]"), result);
+        assertEquals(List.of(), Stream.<String>empty().gather(Packrat.windowSlidingIntWithIndex(3, String::length, (_, window) -> window)).toList());
+    }
+
+    @Test
+    public void windowSlidingPrimitiveWithIndexInvalidArgumentsTest() {
+        assertThrows(IllegalArgumentException.class, () -> Packrat.windowSlidingDoubleWithIndex(0, d -> 0.0, (_, window) -> window));
+        assertThrows(NullPointerException.class, () -> Packrat.windowSlidingLongWithIndex(2, null, (_, window) -> window));
+        assertThrows(NullPointerException.class, () -> Packrat.windowSlidingIntWithIndex(2, i -> 0, null));
+    }
+
+    @Test
+    public void windowSlidingWithIndexStepTest() {
+        var result = IntStream.rangeClosed(1, 8).boxed()
+                .gather(Packrat.windowSlidingWithIndex(3, 2, (index, window) -> index + "=" + window))
+                .toList();
+
+        assertEquals(List.of("0=[1, 2, 3]", "1=[3, 4, 5]", "2=[5, 6, 7]"), result);
+    }
+
+    @Test
+    public void windowSlidingWithIndexStepLargerThanWindowTest() {
+        var result = IntStream.rangeClosed(1, 10).boxed()
+                .gather(Packrat.windowSlidingWithIndex(2, 4, (index, window) -> window))
+                .toList();
+
+        assertEquals(List.of(List.of(1, 2), List.of(5, 6), List.of(9, 10)), result);
+    }
+
+    @Test
+    public void windowSlidingWithIndexStepOneMatchesPlainVariant() {
+        var plain = IntStream.range(0, 50).boxed().gather(Packrat.windowSlidingWithIndex(7, (index, window) -> index + "=" + window)).toList();
+        var stepped = IntStream.range(0, 50).boxed().gather(Packrat.windowSlidingWithIndex(7, 1, (index, window) -> index + "=" + window)).toList();
+
+        assertEquals(plain, stepped);
+    }
+
+    @Test
+    public void windowSlidingWithIndexStepInsufficientElementsTest() {
+        var result = Stream.of(1, 2)
+                .gather(Packrat.windowSlidingWithIndex(3, 5, (index, window) -> window))
+                .toList();
+
+        assertEquals(List.of(List.of(1, 2)), result);
+    }
+
+    @Test
+    public void windowSlidingWithIndexInvalidStepTest() {
+        assertThrows(IllegalArgumentException.class, () -> Packrat.windowSlidingWithIndex(3, 0, (index, window) -> window));
+        assertThrows(IllegalArgumentException.class, () -> Packrat.windowSlidingWithIndex(0, 1, (index, window) -> window));
+        assertThrows(NullPointerException.class, () -> Packrat.windowSlidingWithIndex(3, 1, null));
+    }
+
+    @Test
+    public void windowSlidingWithIndexStepStartIndexTest() {
+        var result = IntStream.rangeClosed(1, 8).boxed()
+                .gather(Packrat.windowSlidingWithIndex(3, 2, (index, window) -> index + "=" + window, 10))
+                .toList();
+
+        assertEquals(List.of("10=[1, 2, 3]", "11=[3, 4, 5]", "12=[5, 6, 7]"), result);
+    }
+
+    @Test
+    public void windowSlidingViewWithIndexStepTest() {
+        var result = IntStream.rangeClosed(1, 10).boxed()
+                .gather(Packrat.windowSlidingViewWithIndex(2, 4, (index, window) -> index + "=" + window))
+                .toList();
+
+        assertEquals(List.of("0=[1, 2]", "1=[5, 6]", "2=[9, 10]"), result);
+    }
+
+    @Test
+    public void windowSlidingViewWithIndexStepStartIndexTest() {
+        var result = IntStream.rangeClosed(1, 8).boxed()
+                .gather(Packrat.windowSlidingViewWithIndex(3, 2, (index, window) -> index + "=" + window, 5))
+                .toList();
+
+        assertEquals(List.of("5=[1, 2, 3]", "6=[3, 4, 5]", "7=[5, 6, 7]"), result);
+    }
+
+    @Test
+    public void windowSlidingViewWithIndexInvalidStepTest() {
+        assertThrows(IllegalArgumentException.class, () -> Packrat.windowSlidingViewWithIndex(3, 0, (index, window) -> window));
+        assertThrows(IllegalArgumentException.class, () -> Packrat.windowSlidingViewWithIndex(0, 1, (index, window) -> window, 1));
+        assertThrows(NullPointerException.class, () -> Packrat.windowSlidingViewWithIndex(3, 1, null));
+    }
+}
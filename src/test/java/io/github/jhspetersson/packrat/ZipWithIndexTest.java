@@ -4,6 +4,9 @@ import org.junit.jupiter.api.Test;
 
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -55,4 +58,84 @@ public class ZipWithIndexTest {
     }
 
     record User(long index, String name) {}
-}
\ No newline at end of file
+
+    @Test
+    public void longIndexTest() {
+        var names = List.of("Anna", "Mike", "Sandra", "Rudolf", "Monica");
+
+        var users = names.stream().gather(Packrat.zipWithLongIndex((index, name) -> index + ":" + name)).toList();
+
+        assertEquals(List.of("0:Anna", "1:Mike", "2:Sandra", "3:Rudolf", "4:Monica"), users);
+    }
+
+    @Test
+    public void longIndexWithStartIndexTest() {
+        var names = List.of("Anna", "Mike", "Sandra", "Rudolf", "Monica");
+
+        var users = names.stream().gather(Packrat.zipWithLongIndex(User::new, 1_000)).toList();
+
+        assertEquals(new User(1_000L, "Anna"), users.getFirst());
+        assertEquals(new User(1_004L, "Monica"), users.getLast());
+    }
+
+    @Test
+    public void parallelDefaultTest() {
+        var names = List.of("Anna", "Mike", "Sandra", "Rudolf", "Monica");
+
+        var users = names.parallelStream().gather(Packrat.parallelZipWithIndex()).toList();
+
+        assertEquals(List.of(Map.entry(0L, "Anna"), Map.entry(1L, "Mike"), Map.entry(2L, "Sandra"),
+                Map.entry(3L, "Rudolf"), Map.entry(4L, "Monica")), users);
+    }
+
+    @Test
+    public void parallelShouldMatchSequential() {
+        var numbers = IntStream.range(0, 100_000).boxed().toList();
+
+        var sequential = numbers.stream().gather(Packrat.zipWithIndex((index, element) -> index * 31 + element, 7)).toList();
+        var parallel = numbers.parallelStream().gather(Packrat.parallelZipWithIndex((index, element) -> index * 31 + element, 7)).toList();
+
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void parallelUnsizedSourceTest() {
+        var result = Stream.iterate(0, i -> i < 10_000, i -> i + 1)
+                .parallel()
+                .filter(i -> i % 3 != 0)
+                .gather(Packrat.parallelZipWithIndex((index, element) -> index))
+                .toList();
+
+        assertEquals(LongStream.range(0, result.size()).boxed().toList(), result);
+    }
+
+    @Test
+    public void parallelShortCircuitTest() {
+        var result = IntStream.range(0, 1_000).boxed()
+                .parallel()
+                .gather(Packrat.parallelZipWithIndex((index, element) -> index + element))
+                .limit(3)
+                .toList();
+
+        assertEquals(List.of(0L, 2L, 4L), result);
+    }
+
+    @Test
+    public void parallelLongIndexShouldMatchSequential() {
+        var numbers = IntStream.range(0, 100_000).boxed().toList();
+
+        var sequential = numbers.stream().gather(Packrat.zipWithLongIndex((index, element) -> index * 31 + element, 7)).toList();
+        var parallel = numbers.parallelStream().gather(Packrat.parallelZipWithLongIndex((index, element) -> index * 31 + element, 7)).toList();
+
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void parallelLongIndexTest() {
+        var names = List.of("Anna", "Mike", "Sandra");
+
+        var labels = names.parallelStream().gather(Packrat.parallelZipWithLongIndex((index, name) -> index + ":" + name)).toList();
+
+        assertEquals(List.of("0:Anna", "1:Mike", "2:Sandra"), labels);
+    }
+}